@@ -0,0 +1,56 @@
+@echo off
+echo ======================================
+echo   Benchmarks du Restaurant
+echo ======================================
+echo.
+echo Compilez d'abord avec compile.bat
+echo.
+
+echo --- Ordonnancement de la cuisine ---
+java -cp bin com.example.restaurant.benchmark.KitchenSchedulingBenchmark
+
+echo.
+echo --- Debit de distribution de la cuisine ---
+java -cp bin com.example.restaurant.benchmark.KitchenDispatchBenchmark
+
+echo.
+echo --- Postes de cuisine (files par poste) ---
+java -cp bin com.example.restaurant.benchmark.KitchenStationsBenchmark
+
+echo.
+echo --- Regroupement des plats identiques ---
+java -cp bin com.example.restaurant.benchmark.KitchenBatchingBenchmark
+
+echo.
+echo --- Threads classiques contre threads virtuels (Java 21+) ---
+java -cp bin com.example.restaurant.benchmark.ExecutionModeLoadTest
+
+echo.
+echo --- API HTTP: tablettes en parallele ---
+java -cp bin com.example.restaurant.benchmark.HttpApiLoadTest
+
+echo.
+echo --- Suivi des commandes: relecture contre abonnements ---
+java -cp bin com.example.restaurant.benchmark.OrderStreamBenchmark
+
+echo.
+echo --- Bus d'evenements contre observateurs appeles directement ---
+java -cp bin com.example.restaurant.benchmark.LifecycleEventBusBenchmark
+
+echo.
+echo --- Chargement d'un orders.json de 1M commandes ---
+java -Xmx2g -cp bin com.example.restaurant.benchmark.JsonLoadBenchmark
+
+echo.
+echo --- Journal des commandes contre reecriture de orders.json ---
+java -cp bin com.example.restaurant.benchmark.OrderJournalBenchmark
+
+echo.
+echo --- Archive binaire mappee (1 mois d'historique) ---
+java -cp bin com.example.restaurant.benchmark.OrderArchiveBenchmark
+
+echo.
+echo --- Micro-benchmarks de la couche service ---
+java -cp bin com.example.restaurant.benchmark.ServiceBenchmarks -o benchmark-results.csv
+
+pause
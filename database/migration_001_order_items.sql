@@ -0,0 +1,26 @@
+-- Migration 001: table order_items normalisée
+-- À exécuter dans phpMyAdmin sur une base créée avant l'ajout de order_items
+-- (les nouvelles bases créées avec schema.sql l'ont déjà).
+--
+-- La colonne orders.items est conservée: elle reste écrite pour compatibilité.
+-- Le remplissage de order_items à partir des commandes existantes se fait ensuite avec:
+--   migrate-db.bat   (ou: java -cp "bin;lib\mysql-connector-j-8.3.0.jar" com.example.restaurant.MigrateDatabase)
+-- Il découpe le texte "m1:12.5,m3:11.0" avec ItemsCodec et insère par lots; il peut être relancé sans risque.
+
+USE restaurant_db;
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_id VARCHAR(50) NOT NULL,
+    menu_item_id VARCHAR(50) NOT NULL,
+    qty INT NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (order_id, menu_item_id),
+    INDEX idx_menu_item (menu_item_id, qty, unit_price),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Vérification: commandes sans plats normalisés (doit tomber à 0 après migrate-db.bat)
+SELECT COUNT(*) AS commandes_a_migrer
+FROM orders o
+LEFT JOIN order_items oi ON oi.order_id = o.order_id
+WHERE oi.order_id IS NULL;
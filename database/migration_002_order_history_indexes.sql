@@ -0,0 +1,21 @@
+-- Migration 002: index de l'historique des commandes
+-- À exécuter une seule fois dans phpMyAdmin sur une base créée avant ces index
+-- (les nouvelles bases créées avec schema.sql les ont déjà).
+--
+-- L'historique est lu page par page, de la plus récente à la plus ancienne, en reprenant après
+-- la dernière commande lue (timestamp, id). Filtré par statut ou par client, il descend ces index
+-- au lieu de parcourir toute la table. InnoDB ajoute la clé primaire (id) à chaque index,
+-- ce qui sert de départage entre commandes de même timestamp.
+
+USE restaurant_db;
+
+ALTER TABLE orders
+    ADD INDEX idx_status_timestamp (status, timestamp),
+    ADD INDEX idx_client_timestamp (client_name, timestamp);
+
+-- Vérification: le plan doit utiliser idx_status_timestamp, sans "Using filesort"
+EXPLAIN SELECT id, order_id, client_name, items, status, timestamp
+FROM orders
+WHERE status = 'READY'
+ORDER BY timestamp DESC, id DESC
+LIMIT 21;
@@ -0,0 +1,17 @@
+-- Migration 003: index des utilisateurs modifiés
+-- À exécuter une seule fois dans phpMyAdmin sur une base créée avant cet index
+-- (les nouvelles bases créées avec schema.sql l'ont déjà).
+--
+-- Le cache des credentials se rafraîchit en ne relisant que les utilisateurs modifiés depuis
+-- le rafraîchissement précédent (updated_at >= ?). Sans index sur updated_at, chaque
+-- rafraîchissement parcourt quand même toute la table.
+
+USE restaurant_db;
+
+ALTER TABLE users
+    ADD INDEX idx_updated_at (updated_at);
+
+-- Vérification: le plan doit utiliser idx_updated_at (type range), pas un parcours complet (ALL)
+EXPLAIN SELECT user_id, username, password, user_type, display_name
+FROM users
+WHERE updated_at >= NOW() - INTERVAL 1 MINUTE;
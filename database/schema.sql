@@ -16,7 +16,9 @@ CREATE TABLE IF NOT EXISTS users (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_username (username),
-    INDEX idx_user_type (user_type)
+    INDEX idx_user_type (user_type),
+    -- Rafraîchissement incrémental du cache des credentials (updated_at >= ?)
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Table des commandes
@@ -31,7 +33,22 @@ CREATE TABLE IF NOT EXISTS orders (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_order_id (order_id),
     INDEX idx_status (status),
-    INDEX idx_timestamp (timestamp)
+    INDEX idx_timestamp (timestamp),
+    -- Historique filtré par statut ou par client, trié par date (pagination par clé)
+    INDEX idx_status_timestamp (status, timestamp),
+    INDEX idx_client_timestamp (client_name, timestamp)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Plats de chaque commande (une ligne par plat, quantité regroupée)
+-- Permet de calculer popularité et chiffre d'affaires par plat directement dans MySQL
+CREATE TABLE IF NOT EXISTS order_items (
+    order_id VARCHAR(50) NOT NULL,
+    menu_item_id VARCHAR(50) NOT NULL,
+    qty INT NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (order_id, menu_item_id),
+    INDEX idx_menu_item (menu_item_id, qty, unit_price),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Insertion des données par défaut (utilisateurs de test)
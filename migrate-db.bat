@@ -0,0 +1,12 @@
+@echo off
+echo ======================================
+echo   Migration order_items
+echo ======================================
+echo.
+echo Executez d'abord database\migration_001_order_items.sql dans phpMyAdmin
+echo et compilez avec compile-db.bat
+echo.
+
+java -cp "bin;lib\mysql-connector-j-8.3.0.jar" com.example.restaurant.MigrateDatabase
+
+pause
@@ -0,0 +1,7 @@
+@echo off
+echo Simulation d'une soiree de service (horloge virtuelle, resultat reproductible)...
+echo.
+
+java -cp bin com.example.restaurant.simulation.CapacityPlanner %*
+
+pause
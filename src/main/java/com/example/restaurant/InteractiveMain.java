@@ -1,30 +1,58 @@
 package com.example.restaurant;
 
+import com.example.restaurant.api.RestaurantApi;
 import com.example.restaurant.model.*;
 import com.example.restaurant.service.*;
+import com.example.restaurant.storage.DatabaseStorage;
+import com.example.restaurant.storage.OrderArchive;
+import com.example.restaurant.storage.OrderJournal;
+import com.example.restaurant.storage.OrderQuery;
+import com.example.restaurant.storage.OrderWriteBehind;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Application interactive de gestion de restaurant avec authentification
+ *
+ * Option "--http [port]": sert aussi l'API HTTP/JSON (RestaurantApi, port 8080 par défaut) sur les mêmes
+ * services, pour que tablettes et terminaux travaillent en même temps que la console.
  */
 public class InteractiveMain {
     private static Scanner scanner = new Scanner(System.in);
     private static KitchenService kitchen;
     private static OrderService orderService;
     private static ServerManager serverManager;
+    private static OrderStatistics statistics;
+    private static LatencyTracker latencyTracker;
     private static UserService userService;
     private static AuthenticationService authService;
+    private static OrderWriteBehind orderPersistence;
+    private static OrderJournal orderJournal;
+    private static OrderArchive orderArchive;
     private static List<ServerStaff> serverList;
     private static List<MenuItem> menu;
+    private static Session currentSession = null; // jeton présenté au service pour les opérations protégées
     private static UserCredential currentUser = null;
+    private static RestaurantApi api;
+    private static OrderStatusPublisher statusPublisher;
+    private static LifecycleEventBus eventBus;
 
     public static void main(String[] args) {
         initializeSystem();
+        startApi(args);
         showWelcome();
         
         while (true) {
+            if (currentSession != null && authService.getSession(currentSession.getToken()) == null) {
+                System.out.println("\n⏱️ Session expirée, veuillez vous reconnecter");
+                currentSession = null;
+                currentUser = null;
+            }
             if (currentUser == null) {
                 loginMenu();
             } else {
@@ -42,8 +70,7 @@ public class InteractiveMain {
                         kitchenMenu();
                         break;
                     default:
-                        authService.logout();
-                        currentUser = null;
+                        logout();
                 }
             }
         }
@@ -55,11 +82,39 @@ public class InteractiveMain {
         System.out.println("═══════════════════════════════════════════════════\n");
         System.out.println("Initialisation...");
         
-        kitchen = new KitchenService();
+        // Cuisine organisée en postes: chaque plat est préparé à son poste, en parallèle des autres
+        kitchen = new KitchenService.Builder()
+            .stationCooks(MenuItem.Station.HOT_LINE, 2)
+            .stationCooks(MenuItem.Station.OVEN, 1)
+            .stationCooks(MenuItem.Station.COLD, 1)
+            .stationCooks(MenuItem.Station.PASTRY, 1)
+            .build();
         orderService = new OrderService(kitchen);
+        // Seul observateur appelé par la cuisine: les consommateurs lisent le bus sur leurs propres threads
+        eventBus = new LifecycleEventBus();
+        orderService.addOrderListener(eventBus);
+        
+        // Statistiques incrémentales: lues en O(1) par l'écran des statistiques
+        statistics = new OrderStatistics();
+        eventBus.addHandler("Statistics", statistics);
+        // Latences de chaque étape du cycle de vie (file, cuisinier, préparation, affectation d'un serveur)
+        latencyTracker = new LatencyTracker();
+        eventBus.addHandler("Latencies", latencyTracker);
+        // Changements de statut poussés aux écrans abonnés (suivi en direct, flux HTTP)
+        statusPublisher = new OrderStatusPublisher();
+        eventBus.addHandler("Status", statusPublisher);
         userService = new UserService();
         authService = new AuthenticationService();
         
+        // Persistance des commandes en arrière-plan (par lots), vidée proprement à l'arrêt;
+        // sans MySQL au démarrage, les commandes restent dans le journal et l'archive
+        if (DatabaseStorage.testConnection()) {
+            orderPersistence = new OrderWriteBehind();
+            eventBus.addHandler("WriteBehind", orderPersistence);
+        } else {
+            System.out.println("⚠️ MySQL injoignable: commandes non enregistrées en base pendant ce service");
+        }
+        
         // Créer des serveurs par défaut
         serverList = new ArrayList<>();
         ServerStaff server1 = new ServerStaff("alice", "Alice Dupont");
@@ -68,24 +123,106 @@ public class InteractiveMain {
         serverList.add(server2);
         
         // Créer les comptes utilisateurs pour les serveurs
-        authService.createUser("alice", "alice123", "SERVEUR", "Alice Dupont");
-        authService.createUser("bob", "bob123", "SERVEUR", "Bob Martin");
+        authService.bootstrapUser("alice", "alice123", "SERVEUR", "Alice Dupont");
+        authService.bootstrapUser("bob", "bob123", "SERVEUR", "Bob Martin");
         
-        serverManager = new ServerManager(serverList, orderService);
+        serverManager = new ServerManager.Builder(serverList, orderService)
+            .statistics(statistics)
+            .latencyTracker(latencyTracker)
+            .eventBus(eventBus)
+            .build();
         
         // Menu du restaurant
         menu = new ArrayList<>();
-        menu.add(new MenuItem("m1", "Pasta Carbonara", 12.5));
-        menu.add(new MenuItem("m2", "Pizza Margherita", 11.0));
-        menu.add(new MenuItem("m3", "Caesar Salad", 8.0));
-        menu.add(new MenuItem("m4", "Lasagna", 13.5));
-        menu.add(new MenuItem("m5", "Tiramisu", 6.5));
+        // Prix, temps de préparation moyen et écart-type (ms), poste de la cuisine
+        menu.add(new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE));
+        menu.add(new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN));
+        menu.add(new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD));
+        menu.add(new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN));
+        menu.add(new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY));
+        
+        // Journal local des commandes: l'état est rechargé au démarrage (snapshot + événements)
+        try {
+            orderJournal = new OrderJournal(new File("data"));
+            eventBus.addHandler("Journal", orderJournal);
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal des commandes indisponible: " + e.getMessage());
+        }
+        
+        // Archive binaire des commandes terminées (historique consultable sans tout charger en mémoire)
+        try {
+            orderArchive = new OrderArchive(new File("data"));
+            eventBus.addHandler("Archive", orderArchive);
+        } catch (IOException e) {
+            System.err.println("⚠️ Archive des commandes indisponible: " + e.getMessage());
+        }
+        
+        eventBus.start();
+        // Un seul hook: le bus distribue ses derniers événements avant la fermeture de ses consommateurs
+        Runtime.getRuntime().addShutdownHook(new Thread(InteractiveMain::closeEventConsumers, "Order-Events-Shutdown"));
+        if (orderJournal != null) {
+            int restored = orderService.restore(orderJournal.getRecoveredOrders(InteractiveMain::findMenuItem));
+            System.out.println("✓ Journal des commandes: " + restored + " commande(s) du service rechargée(s)");
+        }
         
         System.out.println("✓ Système initialisé");
         System.out.println("✓ Admin par défaut: username=admin, password=admin123");
         System.out.println("✓ Serveurs créés: Alice (alice/alice123), Bob (bob/bob123)\n");
     }
 
+    private static void closeEventConsumers() {
+        eventBus.close();
+        statusPublisher.close();
+        if (orderPersistence != null) {
+            orderPersistence.close();
+        }
+        if (orderJournal != null) {
+            orderJournal.close();
+        }
+        if (orderArchive != null) {
+            try {
+                orderArchive.close();
+            } catch (IOException e) {
+                System.err.println("Erreur fermeture de l'archive: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void startApi(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--http")) {
+                int port = i + 1 < args.length ? Integer.parseInt(args[i + 1]) : 8080;
+                try {
+                    api = new RestaurantApi.Builder(orderService, serverManager, kitchen, authService, menu)
+                        .port(port)
+                        .statusPublisher(statusPublisher)
+                        .build()
+                        .start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(1), "Http-Shutdown"));
+                } catch (IOException e) {
+                    System.err.println("⚠️ API HTTP indisponible sur le port " + port + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void logout() {
+        if (currentSession != null) {
+            authService.logout(currentSession.getToken());
+        }
+        currentSession = null;
+        currentUser = null;
+    }
+
+    private static MenuItem findMenuItem(String id) {
+        for (MenuItem item : menu) {
+            if (item.getId().equals(id)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
     private static void showWelcome() {
         System.out.println("\n╔═══════════════════════════════════════════════════╗");
         System.out.println("║        BIENVENUE AU RESTAURANT LA BELLA          ║");
@@ -139,20 +276,21 @@ public class InteractiveMain {
         System.out.print("Password: ");
         String password = scanner.nextLine();
         
-        currentUser = authService.login(username, password);
+        Session session = authService.login(username, password);
         
-        if (currentUser == null) {
+        if (session == null) {
             System.out.println("❌ Identifiants incorrects!");
             return;
         }
         
-        if (!currentUser.getUserType().equals(expectedType)) {
+        if (!session.hasRole(expectedType)) {
             System.out.println("❌ Vous n'avez pas les droits " + expectedType);
-            authService.logout();
-            currentUser = null;
+            authService.logout(session.getToken());
             return;
         }
         
+        currentSession = session;
+        currentUser = session.getUser();
         System.out.println("\n✓ Connecté comme " + currentUser.getDisplayName() + " (" + expectedType + ")");
     }
     
@@ -166,7 +304,8 @@ public class InteractiveMain {
             return;
         }
         
-        currentUser = authService.loginAsClient(name);
+        currentSession = authService.loginAsClient(name);
+        currentUser = currentSession.getUser();
         System.out.println("\n✓ Bienvenue " + currentUser.getDisplayName() + "!");
     }
 
@@ -178,6 +317,9 @@ public class InteractiveMain {
         System.out.println("2. Lister tous les utilisateurs");
         System.out.println("3. Supprimer un utilisateur");
         System.out.println("4. Voir statistiques");
+        System.out.println("5. Historique des commandes terminées");
+        System.out.println("6. Historique complet (base de données)");
+        System.out.println("7. Latences du service");
         System.out.println("0. Se déconnecter");
         System.out.println("═══════════════════════════════════════════════════");
         
@@ -197,9 +339,17 @@ public class InteractiveMain {
             case "4":
                 showStatistics();
                 break;
+            case "5":
+                showOrderHistory();
+                break;
+            case "6":
+                browseOrderDatabase();
+                break;
+            case "7":
+                showLatencies();
+                break;
             case "0":
-                authService.logout();
-                currentUser = null;
+                logout();
                 System.out.println("\n✓ Déconnecté");
                 break;
             default:
@@ -215,6 +365,7 @@ public class InteractiveMain {
         System.out.println("2. Appeler un SERVEUR (service à table)");
         System.out.println("3. Voir le menu");
         System.out.println("4. Voir mes commandes");
+        System.out.println("5. Suivre mes commandes en direct");
         System.out.println("0. Se déconnecter");
         System.out.println("═══════════════════════════════════════════════════");
         
@@ -234,9 +385,11 @@ public class InteractiveMain {
             case "4":
                 showMyOrders();
                 break;
+            case "5":
+                followMyOrders();
+                break;
             case "0":
-                authService.logout();
-                currentUser = null;
+                logout();
                 System.out.println("\n✓ Déconnecté");
                 break;
             default:
@@ -272,8 +425,7 @@ public class InteractiveMain {
                 showAllOrders();
                 break;
             case "0":
-                authService.logout();
-                currentUser = null;
+                logout();
                 System.out.println("\n✓ Déconnecté");
                 break;
             default:
@@ -298,6 +450,10 @@ public class InteractiveMain {
         } else {
             System.out.println("   ✅ Aucune commande en attente");
         }
+        for (KitchenService.StationLoad load : kitchen.getStationLoads()) {
+            System.out.printf("   • %-9s %d/%d cuisinier(s) occupé(s), %d en attente, %d partie(s) préparée(s)%n",
+                load.getStation(), load.getBusy(), load.getCooks(), load.getQueued(), load.getCompletedParts());
+        }
         
         System.out.println("\n═══════════════════════════════════════════════════");
         System.out.println("1. Voir commandes en préparation");
@@ -320,8 +476,7 @@ public class InteractiveMain {
                 showStatistics();
                 break;
             case "0":
-                authService.logout();
-                currentUser = null;
+                logout();
                 System.out.println("\n✓ Déconnecté");
                 break;
             default:
@@ -352,7 +507,7 @@ public class InteractiveMain {
         System.out.print("Nom complet: ");
         String displayName = scanner.nextLine();
         
-        boolean success = authService.createUser(username, password, userType, displayName);
+        boolean success = authService.createUser(currentSession.getToken(), username, password, userType, displayName);
         
         if (success) {
             System.out.println("✓ Utilisateur créé: " + displayName + " (" + userType + ")");
@@ -361,6 +516,7 @@ public class InteractiveMain {
             if (userType.equals("SERVEUR")) {
                 ServerStaff newServer = new ServerStaff(username, displayName);
                 serverList.add(newServer);
+                serverManager.addServer(newServer);
                 System.out.println("  → Ajouté à la liste des serveurs actifs");
             }
         } else {
@@ -370,7 +526,7 @@ public class InteractiveMain {
 
     private static void listUsers() {
         System.out.println("\n--- Liste des utilisateurs ---");
-        List<UserCredential> users = authService.listAllUsers();
+        List<UserCredential> users = authService.listAllUsers(currentSession.getToken());
         
         if (users.isEmpty()) {
             System.out.println("Aucun utilisateur");
@@ -392,13 +548,14 @@ public class InteractiveMain {
         System.out.print("\nUsername de l'utilisateur à supprimer: ");
         String username = scanner.nextLine();
         
-        boolean success = authService.deleteUser(username);
+        boolean success = authService.deleteUser(currentSession.getToken(), username);
         
         if (success) {
             System.out.println("✓ Utilisateur supprimé");
             
             // Retirer de serverList si nécessaire
             serverList.removeIf(s -> s.getId().equals(username));
+            serverManager.removeServer(username);
         } else {
             System.out.println("❌ Impossible de supprimer (n'existe pas ou est admin)");
         }
@@ -462,9 +619,7 @@ public class InteractiveMain {
 
     private static void showMyOrders() {
         System.out.println("\n--- Mes commandes ---");
-        List<Order> myOrders = orderService.list().stream()
-            .filter(o -> o.getClientName().equals(currentUser.getDisplayName()))
-            .collect(Collectors.toList());
+        List<Order> myOrders = orderService.findByClient(currentUser.getDisplayName());
         
         if (myOrders.isEmpty()) {
             System.out.println("Aucune commande");
@@ -477,6 +632,114 @@ public class InteractiveMain {
         });
     }
 
+    /**
+     * Suivi en direct: les changements de statut des commandes du client s'affichent dès qu'ils arrivent
+     * (abonnement au lieu de relister les commandes)
+     */
+    private static void followMyOrders() {
+        System.out.println("\n--- Suivi en direct (Entrée pour arrêter) ---");
+        AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        statusPublisher.subscribe(new Flow.Subscriber<OrderEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription.set(s);
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(OrderEvent event) {
+                System.out.println("🔔 " + event.getOrderId() + " - " + event.getStatus());
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                System.out.println("❌ Suivi interrompu: " + error.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println("Suivi terminé");
+            }
+        }, OrderStatusPublisher.forClient(currentUser.getDisplayName()));
+        scanner.nextLine();
+        Flow.Subscription s = subscription.get();
+        if (s != null) {
+            s.cancel();
+        }
+    }
+
+    private static void showOrderHistory() {
+        System.out.println("\n--- Historique des commandes terminées ---");
+        if (orderArchive == null) {
+            System.out.println("Archive indisponible");
+            return;
+        }
+        
+        System.out.print("Nombre d'heures à afficher (24 par défaut): ");
+        long hours = 24;
+        try {
+            String input = scanner.nextLine().trim();
+            if (!input.isEmpty()) {
+                hours = Long.parseLong(input);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Nombre invalide, 24 heures affichées");
+        }
+        
+        // Totaux calculés directement sur l'archive mappée, sans charger les commandes
+        long to = System.currentTimeMillis() + 1;
+        long from = to - hours * 60 * 60 * 1000;
+        double[] revenue = {0};
+        long count = orderArchive.scan(from, to, o -> revenue[0] += o.getTotal());
+        System.out.printf("%d commande(s) terminée(s), %.2f € au total%n", count, revenue[0]);
+        
+        // Les 20 plus récentes, par accès direct à leur position
+        long end = orderArchive.indexAtOrAfter(to);
+        long start = Math.max(orderArchive.indexAtOrAfter(from), end - 20);
+        for (long i = end - 1; i >= start; i--) {
+            OrderArchive.ArchivedOrder o = orderArchive.get(i);
+            System.out.printf("  %tF %<tT | %s | %s | %d plat(s) | %.2f €%n",
+                o.getTimestamp(), o.getOrderId(), o.getClientName(), o.getItemCount(), o.getTotal());
+        }
+    }
+
+    private static void browseOrderDatabase() {
+        System.out.println("\n--- Historique des commandes (MySQL) ---");
+        OrderQuery.Builder query = new OrderQuery.Builder().pageSize(20);
+        System.out.print("Filtrer par statut (RECEIVED/IN_PREPARATION/READY, vide = tous): ");
+        String status = scanner.nextLine().trim().toUpperCase();
+        if (!status.isEmpty()) {
+            query.status(status);
+        }
+        System.out.print("Filtrer par client (vide = tous): ");
+        String client = scanner.nextLine().trim();
+        if (!client.isEmpty()) {
+            query.clientName(client);
+        }
+        
+        // Une page de 20 commandes à la fois, lue à partir de la dernière affichée
+        OrderQuery q = query.build();
+        DatabaseStorage.OrderPage page = null;
+        int shown = 0;
+        do {
+            try {
+                page = DatabaseStorage.readOrderPage(q, page);
+            } catch (IllegalStateException e) {
+                System.out.println("❌ " + e.getMessage() + (shown > 0 ? " (" + shown + " commande(s) affichée(s))" : ""));
+                return;
+            }
+            for (DatabaseStorage.OrderData o : page.getOrders()) {
+                System.out.printf("  %tF %<tT | %s | %s | %s%n", o.timestamp, o.orderId, o.clientName, o.status);
+            }
+            shown += page.getOrders().size();
+            if (!page.hasNext()) {
+                System.out.println(shown == 0 ? "Aucune commande" : "— fin de l'historique (" + shown + " commande(s)) —");
+                return;
+            }
+            System.out.print("Entrée = page suivante, q = quitter: ");
+        } while (!scanner.nextLine().trim().equalsIgnoreCase("q"));
+    }
+
     private static void showAllOrders() {
         System.out.println("\n--- Toutes les commandes ---");
         List<Order> orders = orderService.list();
@@ -495,10 +758,9 @@ public class InteractiveMain {
     private static void showOrdersInProgress() {
         System.out.println("\n--- Commandes en préparation ---");
         
-        // Utilisation de STREAM pour filtrer
-        List<Order> inProgress = orderService.list().stream()
-            .filter(o -> o.getStatus() != Order.Status.READY)
-            .collect(Collectors.toList());
+        // Index par statut: pas de parcours de toutes les commandes
+        List<Order> inProgress = new ArrayList<>(orderService.findByStatus(Order.Status.RECEIVED));
+        inProgress.addAll(orderService.findByStatus(Order.Status.IN_PREPARATION));
         
         if (inProgress.isEmpty()) {
             System.out.println("Aucune commande en préparation");
@@ -520,8 +782,8 @@ public class InteractiveMain {
             return;
         }
         
-        long available = serverList.stream().filter(s -> !s.isBusy()).count();
-        System.out.println("Total: " + serverList.size() + " serveur(s) | Disponibles: " + available + "\n");
+        System.out.println("Total: " + serverManager.getTotalServersCount() + " serveur(s) | Disponibles: "
+            + serverManager.getAvailableServersCount() + "\n");
         
         serverList.forEach(s -> {
             String status = s.isBusy() ? "🔴 OCCUPÉ" : "🟢 LIBRE";
@@ -534,24 +796,56 @@ public class InteractiveMain {
         System.out.println("║              STATISTIQUES                         ║");
         System.out.println("╚═══════════════════════════════════════════════════╝");
         
-        List<Order> orders = orderService.list();
+        // Compteurs tenus à jour au fil des événements: aucun parcours des commandes
+        OrderStatistics.Snapshot stats = statistics.snapshot();
         
-        // Utilisation de STREAMS pour les statistiques
-        long total = orders.size();
-        long ready = orders.stream().filter(o -> o.getStatus() == Order.Status.READY).count();
-        long inPrep = orders.stream().filter(o -> o.getStatus() == Order.Status.IN_PREPARATION).count();
-        long received = orders.stream().filter(o -> o.getStatus() == Order.Status.RECEIVED).count();
+        System.out.println("Total commandes: " + stats.getTotalOrders());
+        System.out.println("  • Prêtes: " + stats.getReady());
+        System.out.println("  • En préparation: " + stats.getInPreparation() + " (dont " + stats.getCooking() + " aux fourneaux)");
+        System.out.println("  • Reçues: " + stats.getReceived());
+        System.out.printf("Montant des commandes: %.2f €%n", stats.getRevenue());
         
-        System.out.println("Total commandes: " + total);
-        System.out.println("  • Prêtes: " + ready);
-        System.out.println("  • En préparation: " + inPrep);
-        System.out.println("  • Reçues: " + received);
+        System.out.println("\nDébit:");
+        System.out.println("  • Dernière minute: " + stats.getCreatedLastMinute() + " créée(s), " + stats.getReadyLastMinute() + " prête(s)");
+        System.out.printf("  • Moyenne sur %d min: %.1f commande(s) prête(s)/min%n", stats.getWindowSeconds() / 60, stats.getReadyPerMinute());
+        
+        LatencyHistogram.Snapshot prep = stats.getPrepTimes();
+        if (prep.getCount() > 0) {
+            System.out.printf("%nTemps de préparation: moyenne %.1f s, médiane %.1f s, p90 %.1f s, max %.1f s%n",
+                prep.getMean() / 1000, prep.getP50() / 1000.0, prep.getP90() / 1000.0, prep.getMax() / 1000.0);
+        }
         
         System.out.println("\nServeurs:");
-        long busy = serverList.stream().filter(ServerStaff::isBusy).count();
-        System.out.println("  • Occupés: " + busy + "/" + serverList.size());
+        System.out.println("  • Occupés: " + serverManager.getBusyServersCount() + "/" + serverManager.getTotalServersCount());
+        System.out.println("  • Demandes: " + stats.getServerRequests() + " appel(s) serveur, " + stats.getSelfServiceRequests() + " self-service");
+        System.out.println("  • Tables servies: " + stats.getTablesServed());
         
         System.out.println("\nUtilisateurs: " + userService.list().size());
+        System.out.println("  • Cache de connexion: " + authService.getCacheStats());
+        System.out.println("  • Sessions ouvertes: " + authService.getSessions().getActiveCount());
+        System.out.println("  • Bus d'événements: " + eventBus.getPublishedCount() + " publié(s), "
+            + eventBus.getBacklog() + " en attente, " + eventBus.getProducerWaits() + " attente(s) de producteur");
+        
+        // Agrégats calculés par MySQL sur order_items (une ligne par plat)
+        List<DatabaseStorage.DishStats> dishes = DatabaseStorage.readDishStats(0, Long.MAX_VALUE);
+        if (!dishes.isEmpty()) {
+            System.out.println("\nPlats les plus vendus:");
+            double revenue = 0;
+            for (DatabaseStorage.DishStats dish : dishes) {
+                MenuItem item = findMenuItem(dish.menuItemId);
+                System.out.printf("  • %-20s %5d vendu(s) %10.2f €%n",
+                    item != null ? item.getName() : dish.menuItemId, dish.quantity, dish.revenue);
+                revenue += dish.revenue;
+            }
+            System.out.printf("Chiffre d'affaires: %.2f €%n", revenue);
+        }
+    }
+    
+    private static void showLatencies() {
+        System.out.println("\n╔═══════════════════════════════════════════════════╗");
+        System.out.println("║              LATENCES DU SERVICE                  ║");
+        System.out.println("╚═══════════════════════════════════════════════════╝");
+        System.out.print(latencyTracker.report());
     }
     
     private static void showNotifications() {
@@ -566,7 +860,8 @@ public class InteractiveMain {
             return;
         }
         
-        System.out.println("\nVous avez " + notifs.size() + " notification(s):\n");
+        int unread = serverManager.getUnreadNotificationCount(currentUser.getDisplayName());
+        System.out.println("\nVous avez " + notifs.size() + " notification(s), dont " + unread + " non lue(s):\n");
         for (int i = 0; i < notifs.size(); i++) {
             Notification notif = notifs.get(i);
             String status = notif.isRead() ? "✓ Lu" : "● Non lu";
@@ -587,7 +882,7 @@ public class InteractiveMain {
             }
             
             Notification selectedNotif = notifs.get(choice - 1);
-            serverManager.markNotificationAsRead(currentUser.getDisplayName(), choice - 1);
+            serverManager.markNotificationAsRead(currentUser.getDisplayName(), selectedNotif.getId());
             
             ServerManager.ClientRequest req = serverManager.getCurrentRequest(currentUser.getDisplayName());
             if (req != null) {
@@ -657,9 +952,7 @@ public class InteractiveMain {
         System.out.println("═══════════════════════════════════════════════════");
         
         // Afficher toutes les commandes non encore en préparation
-        List<Order> pendingOrders = orderService.list().stream()
-            .filter(o -> o.getStatus() == Order.Status.RECEIVED)
-            .collect(Collectors.toList());
+        List<Order> pendingOrders = orderService.findByStatus(Order.Status.RECEIVED);
         
         if (pendingOrders.isEmpty()) {
             System.out.println("\n❌ Aucune commande en attente d'envoi à la cuisine");
@@ -40,9 +40,9 @@ public class Main {
         ServerManager serverManager = new ServerManager(serverList, orderService);
         
         // Menu du restaurant
-        MenuItem pasta = new MenuItem("m1", "Pasta Carbonara", 12.5);
-        MenuItem salad = new MenuItem("m2", "Caesar Salad", 8.0);
-        MenuItem pizza = new MenuItem("m3", "Pizza Margherita", 11.0);
+        MenuItem pasta = new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE);
+        MenuItem salad = new MenuItem("m2", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD);
+        MenuItem pizza = new MenuItem("m3", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN);
         System.out.println("✓ Menu initialisé\n");
         
         // Démo Admin: créer des users (CRUD)
@@ -111,13 +111,10 @@ public class Main {
         System.out.println("\n════════════════════════════════════════");
         System.out.println("   RÉSUMÉ FINAL");
         System.out.println("════════════════════════════════════════");
-        List<Order> allOrders = orderService.list();
-        System.out.println("Total commandes créées: " + allOrders.size());
+        System.out.println("Total commandes créées: " + orderService.count());
         
-        // Utilisation de STREAM + LAMBDA pour compter les commandes prêtes
-        long readyCount = allOrders.stream()
-            .filter(o -> o.getStatus() == Order.Status.READY)
-            .count();
+        // Compteur par statut maintenu à chaque transition
+        long readyCount = orderService.countByStatus(Order.Status.READY);
         
         System.out.println("Commandes prêtes: " + readyCount);
         System.out.println("\n✅ DEMO TERMINÉE\n");
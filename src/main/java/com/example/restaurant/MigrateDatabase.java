@@ -0,0 +1,33 @@
+package com.example.restaurant;
+
+import com.example.restaurant.storage.DatabaseStorage;
+
+/**
+ * Migration des données existantes vers order_items (après migration_001_order_items.sql)
+ */
+public class MigrateDatabase {
+    public static void main(String[] args) {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        
+        System.out.println("========================================");
+        System.out.println("  Migration order_items");
+        System.out.println("========================================");
+        System.out.println();
+        
+        if (!DatabaseStorage.testConnection()) {
+            System.out.println("❌ Connexion à MySQL impossible");
+            return;
+        }
+        DatabaseStorage.initializeTables();
+        
+        long start = System.currentTimeMillis();
+        int migrated = DatabaseStorage.backfillOrderItems(batchSize);
+        if (migrated < 0) {
+            System.out.println("❌ Migration interrompue (relancer pour reprendre)");
+        } else {
+            System.out.println("✅ " + migrated + " commande(s) migrée(s) en " + (System.currentTimeMillis() - start) + " ms");
+        }
+        
+        DatabaseStorage.shutdown();
+    }
+}
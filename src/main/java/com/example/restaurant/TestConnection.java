@@ -1,5 +1,6 @@
 package com.example.restaurant;
 
+import com.example.restaurant.storage.ConnectionPool;
 import com.example.restaurant.storage.DatabaseStorage;
 import com.example.restaurant.service.UserCredential;
 import java.util.List;
@@ -50,6 +51,24 @@ public class TestConnection {
             }
         }
         
+        // Test 4: Pool de connexions (emprunts concurrents)
+        System.out.print("4. Pool de connexions (20 emprunts concurrents)... ");
+        Thread[] threads = new Thread[20];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> DatabaseStorage.findUserByUsername("admin"));
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ConnectionPool.PoolStats stats = DatabaseStorage.getPoolStats();
+        System.out.println(stats.getAcquireTimeouts() == 0 && stats.getActive() == 0 ? "✅ OK" : "❌ ECHEC");
+        System.out.println("   " + stats);
+        
         System.out.println();
         System.out.println("========================================");
         System.out.println("  Tous les tests sont passés! ✅");
@@ -0,0 +1,844 @@
+package com.example.restaurant.api;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.AuthenticationService;
+import com.example.restaurant.service.ExecutionMode;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.Notification;
+import com.example.restaurant.service.OrderEvent;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.OrderStatusPublisher;
+import com.example.restaurant.service.ServerManager;
+import com.example.restaurant.service.Session;
+import com.example.restaurant.storage.JsonReader;
+import com.example.restaurant.storage.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * API HTTP/JSON embarquée devant les services: plusieurs tablettes et terminaux pilotent la même instance.
+ * Utilise:
+ * - com.sun.net.httpserver.HttpServer (inclus dans le JDK, aucune dépendance)
+ * - ExecutionMode: une requête par thread virtuel (Java 21+), sinon un pool de threads classiques
+ * - Session (AuthenticationService): jeton présenté dans l'en-tête "Authorization: Bearer <jeton>"
+ * - JsonWriter / JsonReader: corps des réponses et des requêtes
+ * - OrderStatusPublisher (si fourni au Builder): flux Server-Sent Events des changements de statut,
+ *   un abonnement par connexion, au lieu de relister les commandes
+ *
+ * Routes:
+ * - POST   /api/sessions                     {"username","password"} ou {"client"} → jeton
+ * - DELETE /api/sessions                     déconnexion
+ * - GET    /api/menu
+ * - POST   /api/orders                       {"items":["m1",...],"selfService":true} (ServerManager.requestService)
+ * - GET    /api/orders?status=READY&client=  (un client ne voit que ses commandes)
+ * - GET    /api/orders/{id}
+ * - GET    /api/orders/stream?client=&order=&status=   flux text/event-stream (un client ne suit que ses commandes)
+ * - GET    /api/kitchen                      file d'attente, cuisiniers, charge des postes
+ * - GET    /api/notifications                notifications du serveur connecté
+ * - POST   /api/notifications/{id}/read
+ */
+public class RestaurantApi {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    static {
+        // HttpServer envoie en-têtes et corps en deux écritures: sans TCP_NODELAY, l'ACK retardé du client
+        // ajoute ~40 ms à chaque réponse. Lu une seule fois par le JDK, avant le premier HttpServer.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ExecutionMode executionMode;
+    private final OrderService orderService;
+    private final ServerManager serverManager;
+    private final KitchenService kitchen;
+    private final AuthenticationService authService;
+    private final Map<String, MenuItem> menu = new LinkedHashMap<>();
+    private final OrderStatusPublisher statusPublisher;
+    private final Set<EventStream> streams = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeat;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram handlingMicros = new LatencyHistogram();
+
+    /**
+     * Erreur renvoyée au client avec son code HTTP
+     */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Corps JSON d'une réponse
+     */
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private interface Route {
+        void handle(HttpExchange exchange, String path) throws IOException;
+    }
+
+    private RestaurantApi(Builder builder) throws IOException {
+        this.orderService = builder.orderService;
+        this.serverManager = builder.serverManager;
+        this.kitchen = builder.kitchen;
+        this.authService = builder.authService;
+        for (MenuItem item : builder.menu) {
+            menu.put(item.getId(), item);
+        }
+        this.executionMode = builder.executionMode.effective();
+        this.executor = executionMode.newExecutor("Http-", builder.threads);
+        this.server = HttpServer.create(new InetSocketAddress(builder.port), builder.backlog);
+        server.setExecutor(executor);
+        server.createContext("/api/sessions", handler(this::sessions));
+        server.createContext("/api/menu", handler(this::menu));
+        server.createContext("/api/orders", handler(this::orders));
+        server.createContext("/api/kitchen", handler(this::kitchen));
+        server.createContext("/api/notifications", handler(this::notifications));
+        this.statusPublisher = builder.statusPublisher;
+        if (statusPublisher != null) {
+            // Préfixe le plus long: /api/orders/stream n'est pas pris pour une commande
+            server.createContext("/api/orders/stream", this::openStream);
+            // Commentaire SSE périodique: garde la connexion ouverte derrière les proxys et détecte les clients partis
+            this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "Sse-Heartbeat");
+                t.setDaemon(true);
+                return t;
+            });
+            heartbeat.scheduleAtFixedRate(() -> streams.forEach(EventStream::ping),
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        } else {
+            this.heartbeat = null;
+        }
+    }
+
+    /**
+     * Démarrer l'écoute (retourne immédiatement)
+     */
+    public RestaurantApi start() {
+        server.start();
+        System.out.println("🌐 API HTTP sur http://localhost:" + getPort() + "/api (" + executionMode + ")");
+        return this;
+    }
+
+    /**
+     * Arrêter: les requêtes en cours ont au plus delaySeconds pour se terminer
+     */
+    public void stop(int delaySeconds) {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        streams.forEach(EventStream::close); // un flux ne se termine jamais de lui-même
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Port d'écoute (utile quand le Builder a demandé le port 0: choisi par le système)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /** Réponses 4xx/5xx */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /** Temps de traitement côté serveur (µs), de la lecture de la requête à l'envoi de la réponse */
+    public LatencyHistogram getHandlingMicros() {
+        return handlingMicros;
+    }
+
+    /** Flux d'événements ouverts (GET /api/orders/stream) */
+    public int getStreamCount() {
+        return streams.size();
+    }
+
+    // ========== ROUTES ==========
+
+    private void sessions(HttpExchange ex, String path) throws IOException {
+        switch (ex.getRequestMethod()) {
+            case "POST": {
+                Map<String, Object> body = readBody(ex);
+                Session session;
+                if (body.get("client") != null) {
+                    session = authService.loginAsClient(string(body, "client"));
+                } else {
+                    session = authService.login(string(body, "username"), string(body, "password"));
+                }
+                if (session == null) {
+                    throw new ApiException(401, "Identifiants incorrects");
+                }
+                send(ex, 201, json -> json.beginObject()
+                    .name("token").value(session.getToken())
+                    .name("userType").value(session.getUser().getUserType())
+                    .name("displayName").value(session.getUser().getDisplayName())
+                    .endObject());
+                break;
+            }
+            case "DELETE":
+                authService.logout(requireSession(ex).getToken());
+                send(ex, 204, null);
+                break;
+            default:
+                throw methodNotAllowed();
+        }
+    }
+
+    private void menu(HttpExchange ex, String path) throws IOException {
+        requireMethod(ex, "GET");
+        send(ex, 200, json -> {
+            json.beginArray();
+            for (MenuItem item : menu.values()) {
+                writeMenuItem(json, item);
+            }
+            json.endArray();
+        });
+    }
+
+    private void orders(HttpExchange ex, String path) throws IOException {
+        Session session = requireSession(ex);
+        String id = subPath(path, "/api/orders");
+        if (id != null) {
+            requireMethod(ex, "GET");
+            Order order = orderService.findById(id);
+            if (order == null || !canSee(session, order)) {
+                throw new ApiException(404, "Commande inconnue: " + id);
+            }
+            send(ex, 200, json -> writeOrder(json, order));
+            return;
+        }
+        switch (ex.getRequestMethod()) {
+            case "GET": {
+                Map<String, String> query = query(ex);
+                String client = session.hasRole("CLIENT") ? session.getUser().getDisplayName() : query.get("client");
+                List<Order> orders;
+                if (query.get("status") != null) {
+                    orders = orderService.findByStatus(parseStatus(query.get("status")));
+                } else if (client != null) {
+                    orders = orderService.findByClient(client);
+                } else {
+                    orders = orderService.list();
+                }
+                send(ex, 200, json -> {
+                    json.beginArray();
+                    for (Order order : orders) {
+                        if (client == null || client.equals(order.getClientName())) {
+                            writeOrder(json, order);
+                        }
+                    }
+                    json.endArray();
+                });
+                break;
+            }
+            case "POST": {
+                Map<String, Object> body = readBody(ex);
+                List<MenuItem> items = new ArrayList<>();
+                for (Object itemId : list(body, "items")) {
+                    MenuItem item = menu.get(String.valueOf(itemId));
+                    if (item == null) {
+                        throw new ApiException(400, "Plat inconnu: " + itemId);
+                    }
+                    items.add(item);
+                }
+                boolean selfService = !Boolean.FALSE.equals(body.get("selfService"));
+                if (selfService && items.isEmpty()) {
+                    throw new ApiException(400, "Commande sans plat");
+                }
+                if (!selfService && serverManager.getTotalServersCount() == 0) {
+                    throw new ApiException(503, "Aucun serveur dans le système: commander en self-service");
+                }
+                String client = session.hasRole("CLIENT") || body.get("client") == null
+                    ? session.getUser().getDisplayName() : string(body, "client");
+                Order order = serverManager.requestService(new ServerManager.ClientRequest(client, items, selfService));
+                if (order != null) {
+                    send(ex, 201, json -> writeOrder(json, order));
+                } else {
+                    // Un serveur va venir prendre la commande à table
+                    send(ex, 202, json -> json.beginObject()
+                        .name("client").value(client)
+                        .name("pendingRequests").value(serverManager.getPendingRequestCount())
+                        .endObject());
+                }
+                break;
+            }
+            default:
+                throw methodNotAllowed();
+        }
+    }
+
+    private void kitchen(HttpExchange ex, String path) throws IOException {
+        requireSession(ex);
+        requireMethod(ex, "GET");
+        send(ex, 200, json -> {
+            json.beginObject()
+                .name("queueSize").value(kitchen.getQueueSize())
+                .name("availableCooks").value(kitchen.getAvailableCooksCount())
+                .name("totalCooks").value(kitchen.getTotalCooksCount())
+                .name("stations").beginArray();
+            for (KitchenService.StationLoad load : kitchen.getStationLoads()) {
+                json.beginObject()
+                    .name("station").value(load.getStation().name())
+                    .name("cooks").value(load.getCooks())
+                    .name("busy").value(load.getBusy())
+                    .name("queued").value(load.getQueued())
+                    .endObject();
+            }
+            json.endArray().endObject();
+        });
+    }
+
+    private void notifications(HttpExchange ex, String path) throws IOException {
+        Session session = requireSession(ex);
+        if (!session.hasRole("SERVEUR")) {
+            throw new ApiException(403, "Réservé aux serveurs");
+        }
+        String serverName = session.getUser().getDisplayName();
+        String rest = subPath(path, "/api/notifications");
+        if (rest != null) {
+            // POST /api/notifications/{id}/read
+            requireMethod(ex, "POST");
+            if (!rest.endsWith("/read")) {
+                throw new ApiException(404, "Route inconnue: " + path);
+            }
+            serverManager.markNotificationAsRead(serverName, rest.substring(0, rest.length() - "/read".length()));
+            send(ex, 204, null);
+            return;
+        }
+        requireMethod(ex, "GET");
+        List<Notification> notifications = serverManager.getNotifications(serverName);
+        send(ex, 200, json -> {
+            json.beginObject()
+                .name("unread").value(serverManager.getUnreadNotificationCount(serverName))
+                .name("notifications").beginArray();
+            for (Notification n : notifications) {
+                json.beginObject()
+                    .name("id").value(n.getId())
+                    .name("client").value(n.getClientName())
+                    .name("message").value(n.getMessage())
+                    .name("timestamp").value(n.getTimestamp())
+                    .name("read").value(n.isRead())
+                    .endObject();
+            }
+            json.endArray().endObject();
+        });
+    }
+
+    // ========== FLUX D'ÉVÉNEMENTS ==========
+
+    /**
+     * GET /api/orders/stream: en-têtes envoyés tout de suite, puis l'échange reste ouvert; les événements sont
+     * écrits par les livraisons de l'OrderStatusPublisher, aucun thread HTTP n'est bloqué par un flux ouvert.
+     */
+    private void openStream(HttpExchange ex) throws IOException {
+        requests.increment();
+        try {
+            requireMethod(ex, "GET");
+            Session session = requireSession(ex);
+            Map<String, String> query = query(ex);
+            Predicate<OrderEvent> filter = event -> true;
+            String client = session.hasRole("CLIENT") ? session.getUser().getDisplayName() : query.get("client");
+            if (client != null) {
+                filter = filter.and(OrderStatusPublisher.forClient(client));
+            }
+            Order followed = null;
+            if (query.get("order") != null) {
+                followed = orderService.findById(query.get("order"));
+                if (followed == null || !canSee(session, followed)) {
+                    throw new ApiException(404, "Commande inconnue: " + query.get("order"));
+                }
+                filter = filter.and(OrderStatusPublisher.forOrder(followed.getId()));
+            }
+            if (query.get("status") != null) {
+                filter = filter.and(OrderStatusPublisher.forStatus(parseStatus(query.get("status"))));
+            }
+            ex.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            ex.getResponseHeaders().set("Cache-Control", "no-cache");
+            ex.sendResponseHeaders(200, 0);
+            EventStream stream = new EventStream(ex, followed);
+            streams.add(stream);
+            statusPublisher.subscribe(stream, filter);
+        } catch (ApiException e) {
+            sendError(ex, e.status, e.getMessage());
+            ex.close();
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Erreur API " + ex.getRequestMethod() + " " + ex.getRequestURI() + ": " + e);
+            sendError(ex, 500, "Erreur interne");
+            ex.close();
+        }
+    }
+
+    /**
+     * Une connexion text/event-stream abonnée à l'OrderStatusPublisher.
+     * Demande un événement à la fois: tant qu'une écriture est bloquée par un client lent, les suivants attendent
+     * dans le tampon borné de l'abonnement (les plus anciens sont perdus s'il déborde).
+     */
+    private final class EventStream implements Flow.Subscriber<OrderEvent> {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final Order followed;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean closed = false;
+
+        EventStream(HttpExchange exchange, Order followed) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+            this.followed = followed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (closed) {
+                subscription.cancel();
+                return;
+            }
+            if (followed != null) {
+                // État courant d'abord: le client n'a pas à interroger la commande avant d'écouter
+                write("snapshot", json -> writeOrder(json, followed));
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(OrderEvent event) {
+            if (write("status", json -> json.beginObject()
+                    .name("id").value(event.getOrderId())
+                    .name("client").value(event.getClientName())
+                    .name("previous").value(event.getPrevious() != null ? event.getPrevious().name() : null)
+                    .name("status").value(event.getStatus().name())
+                    .name("timestamp").value(event.getTimestamp())
+                    .endObject())) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+
+        void ping() {
+            writeRaw(": ping\n\n");
+        }
+
+        private boolean write(String eventName, JsonBody body) {
+            StringWriter buffer = new StringWriter(128);
+            try {
+                JsonWriter json = new JsonWriter(buffer);
+                body.write(json);
+                json.flush();
+            } catch (IOException e) {
+                return false; // StringWriter: n'arrive pas
+            }
+            return writeRaw("event: " + eventName + "\ndata: " + buffer + "\n\n");
+        }
+
+        private synchronized boolean writeRaw(String frame) {
+            if (closed) {
+                return false;
+            }
+            try {
+                out.write(frame.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                close(); // client parti
+                return false;
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            streams.remove(this);
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+            exchange.close();
+        }
+    }
+
+    // ========== OUTILS ==========
+
+    /**
+     * Enveloppe commune: mesures, erreurs en JSON, fermeture de l'échange
+     */
+    private HttpHandler handler(Route route) {
+        return ex -> {
+            long start = System.nanoTime();
+            requests.increment();
+            try {
+                route.handle(ex, ex.getRequestURI().getPath());
+            } catch (ApiException e) {
+                sendError(ex, e.status, e.getMessage());
+            } catch (RuntimeException | IOException e) {
+                System.err.println("Erreur API " + ex.getRequestMethod() + " " + ex.getRequestURI() + ": " + e);
+                sendError(ex, 500, "Erreur interne");
+            } finally {
+                ex.close();
+                handlingMicros.record((System.nanoTime() - start) / 1000);
+            }
+        };
+    }
+
+    private void sendError(HttpExchange ex, int status, String message) {
+        errors.increment();
+        try {
+            send(ex, status, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException e) {
+            // Client parti: rien à lui répondre
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, JsonBody body) throws IOException {
+        if (body == null) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        StringWriter buffer = new StringWriter(256);
+        JsonWriter json = new JsonWriter(buffer);
+        body.write(json);
+        json.flush();
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Session requireSession(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        String token = header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+        Session session = authService.getSession(token);
+        if (session == null) {
+            throw new ApiException(401, "Session absente ou expirée");
+        }
+        return session;
+    }
+
+    private static void requireMethod(HttpExchange ex, String method) {
+        if (!method.equals(ex.getRequestMethod())) {
+            throw methodNotAllowed();
+        }
+    }
+
+    private static ApiException methodNotAllowed() {
+        return new ApiException(405, "Méthode non autorisée");
+    }
+
+    /**
+     * Partie du chemin après le préfixe ("ORD-1" pour /api/orders/ORD-1), null s'il n'y en a pas
+     */
+    private static String subPath(String path, String prefix) {
+        if (path.length() <= prefix.length() + 1) {
+            return null;
+        }
+        if (path.charAt(prefix.length()) != '/') {
+            throw new ApiException(404, "Route inconnue: " + path);
+        }
+        return path.substring(prefix.length() + 1);
+    }
+
+    private static boolean canSee(Session session, Order order) {
+        return !session.hasRole("CLIENT") || session.getUser().getDisplayName().equals(order.getClientName());
+    }
+
+    private static Order.Status parseStatus(String status) {
+        try {
+            return Order.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Statut inconnu: " + status);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Lire un objet JSON plat: chaînes, nombres, booléens et tableaux de valeurs simples.
+     * Au plus MAX_BODY_BYTES octets, que la taille soit annoncée (Content-Length) ou non (chunked).
+     */
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            long declared;
+            try {
+                declared = Long.parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "Content-Length invalide: " + length);
+            }
+            if (declared > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Requête trop grande");
+            }
+        }
+        Map<String, Object> body = new HashMap<>();
+        try (InputStream in = new BoundedInputStream(ex.getRequestBody(), MAX_BODY_BYTES);
+             JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonReader.Token.END_DOCUMENT) {
+                return body;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+                    List<Object> values = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        values.add(readScalar(reader));
+                    }
+                    reader.endArray();
+                    body.put(name, values);
+                } else {
+                    body.put(name, readScalar(reader));
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new ApiException(400, "JSON invalide: " + e.getMessage());
+        }
+        return body;
+    }
+
+    /**
+     * Corps de requête limité: au-delà de max octets lus, 413 sans lire la suite
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private final long max;
+        private long count;
+
+        BoundedInputStream(InputStream in, long max) {
+            super(in);
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > max) {
+                throw new ApiException(413, "Requête trop grande");
+            }
+        }
+    }
+
+    private static Object readScalar(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING: return reader.nextString();
+            case NUMBER: return reader.nextDouble();
+            case BOOLEAN: return reader.nextBoolean();
+            case NULL: reader.nextNull(); return null;
+            default: throw new ApiException(400, "Valeur JSON non prise en charge");
+        }
+    }
+
+    private static String string(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Champ \"" + name + "\" attendu (texte)");
+        }
+        return (String) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (!(value instanceof List)) {
+            throw new ApiException(400, "Champ \"" + name + "\" attendu (tableau)");
+        }
+        return (List<Object>) value;
+    }
+
+    private static void writeMenuItem(JsonWriter json, MenuItem item) throws IOException {
+        json.beginObject()
+            .name("id").value(item.getId())
+            .name("name").value(item.getName())
+            .name("price").value(item.getPrice())
+            .endObject();
+    }
+
+    private static void writeOrder(JsonWriter json, Order order) throws IOException {
+        double total = 0;
+        json.beginObject()
+            .name("id").value(order.getId())
+            .name("client").value(order.getClientName())
+            .name("status").value(order.getStatus().name())
+            .name("items").beginArray();
+        for (MenuItem item : order.getItems()) {
+            writeMenuItem(json, item);
+            total += item.getPrice();
+        }
+        json.endArray()
+            .name("total").value(total)
+            .endObject();
+    }
+
+    /**
+     * Configuration de l'API
+     */
+    public static class Builder {
+        private final OrderService orderService;
+        private final ServerManager serverManager;
+        private final KitchenService kitchen;
+        private final AuthenticationService authService;
+        private final List<MenuItem> menu;
+        private int port = 8080;
+        private int backlog = 128;
+        private int threads = 64;
+        private ExecutionMode executionMode = ExecutionMode.VIRTUAL;
+        private OrderStatusPublisher statusPublisher;
+
+        public Builder(OrderService orderService, ServerManager serverManager, KitchenService kitchen,
+                       AuthenticationService authService, List<MenuItem> menu) {
+            this.orderService = orderService;
+            this.serverManager = serverManager;
+            this.kitchen = kitchen;
+            this.authService = authService;
+            this.menu = menu;
+        }
+
+        /**
+         * Port d'écoute (0 = choisi par le système)
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Connexions en attente d'acceptation
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Taille du pool quand les threads virtuels ne sont pas disponibles
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Active GET /api/orders/stream (l'éditeur doit être enregistré auprès de l'OrderService)
+         */
+        public Builder statusPublisher(OrderStatusPublisher statusPublisher) {
+            this.statusPublisher = statusPublisher;
+            return this;
+        }
+
+        public RestaurantApi build() throws IOException {
+            return new RestaurantApi(this);
+        }
+    }
+}
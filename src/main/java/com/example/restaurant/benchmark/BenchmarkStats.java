@@ -0,0 +1,28 @@
+package com.example.restaurant.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Petits calculs communs aux benchmarks (percentiles sur des mesures brutes)
+ */
+final class BenchmarkStats {
+
+    private BenchmarkStats() {}
+
+    /**
+     * Percentile (0-100) d'un échantillon, par la méthode du rang le plus proche
+     */
+    static long percentile(long[] values, double p) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.model.ServerStaff;
+import com.example.restaurant.service.ExecutionMode;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.ServerManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge: threads classiques contre threads virtuels.
+ *
+ * Des milliers de tables appellent un serveur et commandent en même temps; serveurs et cuisiniers sont
+ * aussi nombreux que les tables servies en parallèle, leurs Semaphore limitant toujours la capacité.
+ * On mesure la durée totale, le débit et le pic de threads de la JVM pour chaque mode.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.ExecutionModeLoadTest [tables] [serveurs] [cuisiniers]
+ */
+public class ExecutionModeLoadTest {
+    private static final double PREP_TIME_SCALE = 0.05;    // 2 s de préparation = 100 ms
+    private static final double SERVICE_TIME_SCALE = 0.2;  // 0,5-1,3 s à table = 100-260 ms
+
+    public static void main(String[] args) throws InterruptedException {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int servers = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int cooks = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        System.out.println("Test de charge: " + tables + " tables, " + servers + " serveurs, " + cooks + " cuisiniers");
+        if (!ExecutionMode.isVirtualThreadSupported()) {
+            System.out.println("(threads virtuels indisponibles sur cette JVM: VIRTUAL sera exécuté en threads classiques)");
+        }
+        System.out.printf("%-10s %12s %14s %14s%n", "Mode", "durée (s)", "tables/s", "pic threads");
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            run(mode, tables, servers, cooks);
+        }
+        System.exit(0);
+    }
+
+    private static void run(ExecutionMode mode, int tables, int serverCount, int cooks) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+
+        KitchenService kitchen = new KitchenService.Builder()
+            .cooks(cooks)
+            .executionMode(mode)
+            .prepTimeScale(PREP_TIME_SCALE)
+            .verbose(false)
+            .build();
+        OrderService orderService = new OrderService(kitchen);
+        CountDownLatch ready = new CountDownLatch(tables);
+        orderService.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.countDown();
+                }
+            }
+        });
+
+        List<ServerStaff> staff = new ArrayList<>();
+        for (int i = 0; i < serverCount; i++) {
+            staff.add(new ServerStaff("s" + i, "Serveur-" + i));
+        }
+        ServerManager serverManager = new ServerManager.Builder(staff, orderService)
+            .executionMode(mode)
+            .serviceTimeScale(SERVICE_TIME_SCALE)
+            .verbose(false)
+            .build();
+
+        List<MenuItem> dish = Arrays.asList(new MenuItem("m1", "Pasta Carbonara", 12.5, 2000));
+        long start = System.nanoTime();
+        for (int i = 0; i < tables; i++) {
+            String table = "Table-" + i;
+            // La table appelle un serveur (service bloquant) et sa commande part en cuisine (préparation bloquante)
+            serverManager.requestService(new ServerManager.ClientRequest(table, new ArrayList<>(), false));
+            serverManager.requestService(new ServerManager.ClientRequest(table, dish, true));
+        }
+
+        ready.await(10, TimeUnit.MINUTES);
+        while (serverManager.getPendingRequestCount() > 0 || serverManager.getAvailableServersCount() < serverCount) {
+            Thread.sleep(5);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int peak = threads.getPeakThreadCount();
+
+        serverManager.shutdown();
+        kitchen.shutdown();
+
+        System.out.printf("%-10s %12.2f %14.0f %14d%n", mode, seconds, tables / seconds, peak);
+    }
+}
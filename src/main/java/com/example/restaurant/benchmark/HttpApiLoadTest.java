@@ -0,0 +1,205 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.api.RestaurantApi;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.ServerStaff;
+import com.example.restaurant.service.AuthenticationService;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.ServerManager;
+import com.example.restaurant.service.UserCredential;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test de charge local de l'API HTTP: des tablettes (une connexion keep-alive chacune) commandent,
+ * suivent leurs commandes et consultent la cuisine sur la même instance.
+ *
+ * Mélange par tablette: 20 % de commandes self-service, 50 % de suivi de sa dernière commande,
+ * 20 % d'état de la cuisine, 10 % de menu. Pour chaque nombre de tablettes on mesure le débit (requêtes/s)
+ * et la latence vue par le client (p50/p90/p99).
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.HttpApiLoadTest [secondes par palier] [tablettes...]
+ */
+public class HttpApiLoadTest {
+    private static final double PREP_TIME_SCALE = 0.001;
+    private static final Pattern ID = Pattern.compile("\"id\":\"(ORD-[^\"]+)\"");
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final List<MenuItem> MENU = Arrays.asList(
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+        new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY)
+    );
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int[] levels = {1, 8, 32, 64};
+        if (args.length > 1) {
+            levels = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                levels[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        System.setProperty("http.maxConnections", "256"); // connexions keep-alive gardées par le client
+
+        KitchenService kitchen = new KitchenService.Builder()
+            .cooks(8)
+            .prepTimeScale(PREP_TIME_SCALE)
+            .verbose(false)
+            .build();
+        OrderService orderService = new OrderService(kitchen);
+        ServerManager serverManager = new ServerManager.Builder(
+                Arrays.asList(new ServerStaff("alice", "Alice"), new ServerStaff("bob", "Bob")), orderService)
+            .verbose(false)
+            .build();
+        AuthenticationService auth = new AuthenticationService(Collections.<UserCredential>emptyList());
+        RestaurantApi api = new RestaurantApi.Builder(orderService, serverManager, kitchen, auth, MENU)
+            .port(0)
+            .build()
+            .start();
+        String base = "http://localhost:" + api.getPort() + "/api";
+
+        System.out.println("Test de charge API HTTP: " + seconds + " s par palier, requêtes servies en " + api.getExecutionMode());
+        System.out.printf("%-10s %12s %14s %10s %10s %10s %10s%n",
+            "Tablettes", "requêtes", "requêtes/s", "p50 (ms)", "p90 (ms)", "p99 (ms)", "erreurs");
+        for (int tablets : levels) {
+            run(base, tablets, seconds);
+        }
+        System.out.printf("%nCôté serveur: %d requête(s), %d erreur(s), %d commande(s), traitement p50 %.3f ms, p99 %.3f ms%n",
+            api.getRequestCount(), api.getErrorCount(), orderService.count(),
+            api.getHandlingMicros().getPercentile(50) / 1000.0, api.getHandlingMicros().getPercentile(99) / 1000.0);
+
+        api.stop(1);
+        serverManager.shutdown();
+        kitchen.shutdown();
+        auth.getSessions().shutdown();
+    }
+
+    private static void run(String base, int tablets, int seconds) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(tablets);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long[] deadline = new long[1];
+        for (int t = 0; t < tablets; t++) {
+            int tablet = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(tablet);
+                try {
+                    String token = match(TOKEN, call("POST", base + "/sessions", null,
+                        "{\"client\":\"Table " + tablet + "\"}"));
+                    String lastOrder = null;
+                    ready.countDown();
+                    go.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        int op = random.nextInt(100);
+                        long start = System.nanoTime();
+                        try {
+                            if (op < 20 || lastOrder == null) {
+                                String body = "{\"items\":[\"m" + (1 + random.nextInt(5)) + "\",\"m"
+                                    + (1 + random.nextInt(5)) + "\"],\"selfService\":true}";
+                                lastOrder = match(ID, call("POST", base + "/orders", token, body));
+                            } else if (op < 70) {
+                                call("GET", base + "/orders/" + lastOrder, token, null);
+                            } else if (op < 90) {
+                                call("GET", base + "/kitchen", token, null);
+                            } else {
+                                call("GET", base + "/menu", token, null);
+                            }
+                            latencies.record((System.nanoTime() - start) / 1000);
+                        } catch (IOException e) {
+                            failures.increment();
+                        }
+                    }
+                } catch (IOException e) {
+                    failures.increment();
+                    ready.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Tablet-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        deadline[0] = start + seconds * 1_000_000_000L;
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-10d %12d %14.0f %10.2f %10.2f %10.2f %10d%n", tablets, latencies.getCount(),
+            latencies.getCount() / elapsed, latencies.getPercentile(50) / 1000.0, latencies.getPercentile(90) / 1000.0,
+            latencies.getPercentile(99) / 1000.0, failures.sum());
+    }
+
+    /**
+     * Une requête; le corps de la réponse est lu en entier pour que la connexion keep-alive soit réutilisée
+     * @throws IOException sur une réponse d'erreur (4xx/5xx)
+     */
+    private static String call(String method, String url, String token, String body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        conn.setRequestMethod(method);
+        if (token != null) {
+            conn.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+        int status = conn.getResponseCode();
+        String response = readFully(status >= 400 ? conn.getErrorStream() : conn.getInputStream());
+        if (status >= 400) {
+            throw new IOException("HTTP " + status + " " + response);
+        }
+        return response;
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String match(Pattern pattern, String json) throws IOException {
+        Matcher m = pattern.matcher(json);
+        if (!m.find()) {
+            throw new IOException("Réponse inattendue: " + json);
+        }
+        return m.group(1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.storage.JsonStorage;
+import com.example.restaurant.storage.JsonStorage.OrderData;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chargement d'un gros orders.json: lecteur JSON en flux contre l'ancien découpage ligne par ligne
+ * (indexOf/substring pour chaque champ), conservé ici uniquement comme référence.
+ *
+ * Exécution: java -Xmx2g -cp bin com.example.restaurant.benchmark.JsonLoadBenchmark [commandes] [fichier]
+ * Le fichier est généré puis supprimé, sauf s'il est passé en argument et existe déjà.
+ */
+public class JsonLoadBenchmark {
+
+    private static final String[] STATUSES = {"CREATED", "IN_PREPARATION", "READY", "SERVED"};
+    private static final String[] ITEMS = {"m1:12.5", "m2:10.0,m3:11.0", "m4:14.0,m4:14.0,m5:6.5", "m3:11.0"};
+
+    public static void main(String[] args) throws IOException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File file = args.length > 1 ? new File(args[1]) : File.createTempFile("orders-bench", ".json");
+        boolean generated = !file.exists() || file.length() == 0;
+
+        if (generated) {
+            long start = System.nanoTime();
+            JsonStorage.writeOrders(file, generate(orders));
+            System.out.printf("Écriture de %d commandes: %.0f ms (%.1f Mo)%n",
+                orders, BenchmarkStats.millis(System.nanoTime() - start), file.length() / 1e6);
+        }
+
+        System.out.println("Chargement de " + file + " (" + file.length() / 1_000_000 + " Mo)");
+        System.out.printf("%-28s %10s %14s %10s%n", "Méthode", "ms", "commandes/s", "Mo/s");
+
+        // Échauffement du JIT
+        JsonStorage.forEachOrder(file, o -> {});
+        legacyRead(file);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long[] count = {0};
+            JsonStorage.forEachOrder(file, o -> count[0]++);
+            print("flux, sans liste", count[0], System.nanoTime() - start, file);
+
+            start = System.nanoTime();
+            List<OrderData> loaded = JsonStorage.readOrders(file);
+            print("flux, readOrders()", loaded.size(), System.nanoTime() - start, file);
+            loaded = null;
+
+            start = System.nanoTime();
+            List<OrderData> legacy = legacyRead(file);
+            print("ancien parseur ligne à ligne", legacy.size(), System.nanoTime() - start, file);
+            legacy = null;
+        }
+
+        if (generated && args.length < 2) {
+            file.delete();
+        }
+    }
+
+    private static List<OrderData> generate(int orders) {
+        List<OrderData> list = new ArrayList<>(orders);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < orders; i++) {
+            OrderData o = new OrderData();
+            o.orderId = "ORD-" + Integer.toHexString(0x10000000 + i);
+            o.clientName = "Client \"" + (i % 500) + "\"";
+            o.items = ITEMS[i % ITEMS.length];
+            o.status = STATUSES[i % STATUSES.length];
+            o.timestamp = now - (orders - i) * 1000L;
+            list.add(o);
+        }
+        return list;
+    }
+
+    private static void print(String label, long count, long nanos, File file) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-28s %10.0f %14.0f %10.1f%n",
+            label, BenchmarkStats.millis(nanos), count / seconds, file.length() / 1e6 / seconds);
+    }
+
+    /**
+     * Ancienne lecture de JsonStorage: une ligne par commande, un indexOf par champ
+     */
+    private static List<OrderData> legacyRead(File file) throws IOException {
+        List<OrderData> list = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.trim().equals("[") || line.trim().equals("]")) {
+                    continue;
+                }
+                OrderData o = new OrderData();
+                o.orderId = legacyExtract(line, "orderId");
+                o.clientName = legacyExtract(line, "clientName");
+                o.items = legacyExtract(line, "items");
+                o.status = legacyExtract(line, "status");
+                String timestamp = legacyExtract(line, "timestamp");
+                o.timestamp = timestamp != null ? Long.parseLong(timestamp) : 0;
+                list.add(o);
+            }
+        }
+        return list;
+    }
+
+    private static String legacyExtract(String json, String key) {
+        String search = "\"" + key + "\":\"";
+        int start = json.indexOf(search);
+        if (start == -1) return null;
+        start += search.length();
+        int end = json.indexOf("\"", start);
+        if (end == -1) return null;
+        return json.substring(start, end);
+    }
+}
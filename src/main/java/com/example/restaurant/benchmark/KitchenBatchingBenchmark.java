@@ -0,0 +1,134 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.LatencyTracker;
+import com.example.restaurant.service.OrderListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cuisine en postes avec et sans regroupement des plats identiques, sur les mêmes commandes.
+ * La carte est dominée par quelques plats populaires (comme un coup de feu à midi): plusieurs tables
+ * commandent le même plat dans la même minute.
+ *
+ * Pour chaque rythme d'arrivée on mesure le débit, le délai de bout en bout, le nombre de plats
+ * servis par seconde de cuisinier (utilisation) et le nombre moyen de parties par lot.
+ * Au rythme modéré, le regroupement coûte au plus la fenêtre d'attente; au pic, il libère des cuisiniers.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.KitchenBatchingBenchmark [commandes]
+ */
+public class KitchenBatchingBenchmark {
+    private static final double PREP_TIME_SCALE = 0.01;    // 3 s de préparation = 30 ms
+    private static final int BATCH_CAPACITY = 4;
+    private static final long BATCH_WINDOW_MILLIS = 1500;  // temps de cuisine: 15 ms réelles
+    private static final MenuItem[] MENU = {
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+        new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY),
+    };
+    // Popularité de chaque plat (même ordre que MENU)
+    private static final int[] POPULARITY = {5, 4, 2, 1, 2};
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Random random = new Random(11);
+        int totalWeight = 0;
+        for (int w : POPULARITY) {
+            totalWeight += w;
+        }
+        List<List<MenuItem>> contents = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            List<MenuItem> items = new ArrayList<>();
+            int size = 1 + random.nextInt(3);
+            for (int j = 0; j < size; j++) {
+                int pick = random.nextInt(totalWeight);
+                int k = 0;
+                while (pick >= POPULARITY[k]) {
+                    pick -= POPULARITY[k++];
+                }
+                items.add(MENU[k]);
+            }
+            contents.add(items);
+        }
+
+        System.out.println("Benchmark regroupement des plats: " + orders + " commandes, 7 cuisiniers en postes, lots de "
+            + BATCH_CAPACITY + " au plus");
+        for (int perSecond : new int[]{40, 150}) {
+            long[] gaps = new long[orders];
+            for (int i = 0; i < orders; i++) {
+                gaps[i] = (long) (-Math.log(1 - random.nextDouble()) * 1e9 / perSecond);
+            }
+            System.out.printf("%nArrivées: %d commandes/s%n", perSecond);
+            System.out.printf("%-18s %10s %14s %10s %10s %10s %18s %12s%n", "Cuisine", "durée (s)", "commandes/s",
+                "p50 (ms)", "p90 (ms)", "p99 (ms)", "plats/s cuisinier", "parties/lot");
+            run("Sans regroupement", kitchen(false), contents, gaps);
+            run("Regroupement", kitchen(true), contents, gaps);
+        }
+    }
+
+    private static KitchenService kitchen(boolean batching) {
+        KitchenService.Builder builder = new KitchenService.Builder()
+            .stationCooks(MenuItem.Station.HOT_LINE, 3)
+            .stationCooks(MenuItem.Station.OVEN, 2)
+            .stationCooks(MenuItem.Station.COLD, 1)
+            .stationCooks(MenuItem.Station.PASTRY, 1)
+            .prepTimeScale(PREP_TIME_SCALE)
+            .verbose(false);
+        if (batching) {
+            builder.batching(BATCH_CAPACITY, BATCH_WINDOW_MILLIS);
+        }
+        return builder.build();
+    }
+
+    private static void run(String name, KitchenService kitchen, List<List<MenuItem>> contents, long[] gaps)
+            throws InterruptedException {
+        LatencyTracker latencies = new LatencyTracker();
+        kitchen.addOrderListener(latencies);
+        CountDownLatch ready = new CountDownLatch(contents.size());
+        kitchen.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.countDown();
+                }
+            }
+        });
+        int dishes = 0;
+        long start = System.nanoTime();
+        long next = start;
+        for (int i = 0; i < contents.size(); i++) {
+            next += gaps[i];
+            LockSupport.parkNanos(next - System.nanoTime());
+            Order o = new Order("B-" + i, "bench", contents.get(i));
+            o.setCreatedNanos(System.nanoTime());
+            kitchen.submitOrder(o);
+            dishes += contents.get(i).size();
+        }
+        ready.await(5, TimeUnit.MINUTES);
+        long nanos = System.nanoTime() - start;
+        kitchen.shutdown();
+
+        long busyMillis = 0;
+        long parts = 0;
+        long batches = 0;
+        for (KitchenService.StationLoad load : kitchen.getStationLoads()) {
+            busyMillis += load.getBusyMillis();
+            parts += load.getCompletedParts();
+            batches += load.getBatches();
+        }
+        LatencyHistogram endToEnd = latencies.getEndToEnd();
+        System.out.printf("%-18s %10.2f %14.1f %10.1f %10.1f %10.1f %18.1f %12.2f%n", name, nanos / 1e9,
+            contents.size() / (nanos / 1e9), endToEnd.getPercentile(50) / 1000.0, endToEnd.getPercentile(90) / 1000.0,
+            endToEnd.getPercentile(99) / 1000.0, dishes / (busyMillis / 1000.0), (double) parts / batches);
+    }
+}
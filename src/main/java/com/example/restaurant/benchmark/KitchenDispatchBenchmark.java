@@ -0,0 +1,75 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.OrderListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de distribution de la cuisine: commandes/s envoyées aux cuisiniers avec un temps de préparation nul.
+ * Seul le chemin submitOrder() -> file -> cuisinier -> READY est mesuré, pour un nombre croissant de cuisiniers.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.KitchenDispatchBenchmark [commandes] [producteurs]
+ */
+public class KitchenDispatchBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        List<MenuItem> items = Collections.singletonList(new MenuItem("m1", "Pasta Carbonara", 12.5, 3000));
+
+        System.out.println("Benchmark distribution cuisine: " + orders + " commandes, " + producers + " producteurs, préparation = 0 ms");
+        System.out.printf("%-12s %16s%n", "Cuisiniers", "commandes/s");
+
+        // Une passe d'échauffement pour le JIT
+        run(2, orders / 4, producers, items);
+
+        for (int cooks : new int[]{1, 2, 4, 8, 16}) {
+            double throughput = run(cooks, orders, producers, items);
+            System.out.printf("%-12d %16.0f%n", cooks, throughput);
+        }
+    }
+
+    private static double run(int cooks, int orders, int producers, List<MenuItem> items) throws InterruptedException {
+        KitchenService kitchen = new KitchenService.Builder()
+            .cooks(cooks)
+            .prepTimeScale(0)
+            .verbose(false)
+            .build();
+        CountDownLatch ready = new CountDownLatch(orders);
+        kitchen.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.countDown();
+                }
+            }
+        });
+
+        int perProducer = orders / producers;
+        Thread[] threads = new Thread[producers];
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            int count = p == producers - 1 ? orders - perProducer * (producers - 1) : perProducer;
+            String prefix = "P" + p + "-";
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    kitchen.submitOrder(new Order(prefix + i, "bench", items));
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        ready.await(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        kitchen.shutdown();
+        return orders / seconds;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.PrepTimeModel;
+import com.example.restaurant.service.SchedulingPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compare les politiques d'ordonnancement de la cuisine sur la même charge synthétique.
+ *
+ * La charge (arrivées, contenu des commandes, échéances) est générée une fois avec une graine fixe
+ * puis rejouée pour chaque politique. Le temps de ticket mesuré va de submitOrder() au passage READY.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.KitchenSchedulingBenchmark [commandes] [cuisiniers]
+ */
+public class KitchenSchedulingBenchmark {
+    private static final double PREP_TIME_SCALE = 0.005; // 1 s de préparation = 5 ms
+    private static final double TARGET_UTILIZATION = 0.9;
+
+    private static final MenuItem[] MENU = {
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+        new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY),
+    };
+
+    /**
+     * Une arrivée du scénario: décalage depuis le début, plats, marge avant échéance
+     */
+    private static final class Arrival {
+        final long offsetNanos;
+        final List<MenuItem> items;
+        final long slackMillis;
+
+        Arrival(long offsetNanos, List<MenuItem> items, long slackMillis) {
+            this.offsetNanos = offsetNanos;
+            this.items = items;
+            this.slackMillis = slackMillis;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int cooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        List<Arrival> scenario = generate(orders, cooks, new Random(42));
+
+        System.out.println("Benchmark ordonnancement cuisine: " + orders + " commandes, " + cooks
+            + " cuisiniers, charge cible " + (int) (TARGET_UTILIZATION * 100) + "%");
+        System.out.printf("%-26s %10s %10s %10s %12s%n", "Politique", "p50 (ms)", "p99 (ms)", "max (ms)", "hors délai");
+
+        run("FIFO", SchedulingPolicy.FIFO, 0, scenario, cooks);
+        run("SHORTEST_PREP_FIRST", SchedulingPolicy.SHORTEST_PREP_FIRST, 0, scenario, cooks);
+        run("SHORTEST_PREP_FIRST+aging", SchedulingPolicy.SHORTEST_PREP_FIRST, 0.5, scenario, cooks);
+        run("EARLIEST_DEADLINE_FIRST", SchedulingPolicy.EARLIEST_DEADLINE_FIRST, 0.5, scenario, cooks);
+    }
+
+    private static List<Arrival> generate(int orders, int cooks, Random random) {
+        // Mélange de petites commandes (1-2 plats) et de grandes tablées (4-6 plats)
+        List<List<MenuItem>> contents = new ArrayList<>();
+        long totalPrep = 0;
+        for (int i = 0; i < orders; i++) {
+            int size = random.nextDouble() < 0.7 ? 1 + random.nextInt(2) : 4 + random.nextInt(3);
+            List<MenuItem> items = new ArrayList<>();
+            for (int j = 0; j < size; j++) {
+                MenuItem item = MENU[random.nextInt(MENU.length)];
+                items.add(item);
+            }
+            // Même estimation que la cuisine (postes en parallèle)
+            totalPrep += PrepTimeModel.PARALLEL_STATIONS.estimateMillis(items);
+            contents.add(items);
+        }
+
+        // Arrivées poissonniennes réglées pour atteindre l'utilisation cible
+        double meanServiceNanos = totalPrep * PREP_TIME_SCALE * 1_000_000.0 / orders;
+        double meanGapNanos = meanServiceNanos / (cooks * TARGET_UTILIZATION);
+        List<Arrival> scenario = new ArrayList<>();
+        long offset = 0;
+        for (List<MenuItem> items : contents) {
+            offset += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            // 20% de commandes pressées (à emporter): peu de marge
+            long slack = random.nextDouble() < 0.2 ? 2000 : 20000;
+            scenario.add(new Arrival(offset, items, slack));
+        }
+        return scenario;
+    }
+
+    private static void run(String name, SchedulingPolicy policy, double aging, List<Arrival> scenario, int cooks)
+            throws InterruptedException {
+        KitchenService kitchen = new KitchenService.Builder()
+            .cooks(cooks)
+            .policy(policy)
+            .agingFactor(aging)
+            .prepTimeScale(PREP_TIME_SCALE)
+            .verbose(false)
+            .build();
+
+        Map<String, long[]> submitted = new ConcurrentHashMap<>(); // id -> {soumission ns, échéance ms}
+        long[] ticketNanos = new long[scenario.size()];
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger late = new AtomicInteger();
+        CountDownLatch allReady = new CountDownLatch(scenario.size());
+
+        kitchen.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    long[] info = submitted.get(order.getId());
+                    ticketNanos[done.getAndIncrement()] = System.nanoTime() - info[0];
+                    if (System.currentTimeMillis() > info[1]) {
+                        late.incrementAndGet();
+                    }
+                    allReady.countDown();
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        int n = 0;
+        for (Arrival a : scenario) {
+            long wait = start + a.offsetNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Order o = new Order("B-" + n++, "table", a.items);
+            long deadline = System.currentTimeMillis() + kitchen.estimatePrepMillis(o)
+                + (long) (a.slackMillis * PREP_TIME_SCALE);
+            submitted.put(o.getId(), new long[]{System.nanoTime(), deadline});
+            kitchen.submitOrder(o, deadline);
+        }
+        allReady.await(5, TimeUnit.MINUTES);
+        kitchen.shutdown();
+
+        long[] samples = Arrays.copyOf(ticketNanos, done.get());
+        System.out.printf("%-26s %10.1f %10.1f %10.1f %11.1f%%%n", name,
+            BenchmarkStats.millis(BenchmarkStats.percentile(samples, 50)),
+            BenchmarkStats.millis(BenchmarkStats.percentile(samples, 99)),
+            BenchmarkStats.millis(BenchmarkStats.percentile(samples, 100)),
+            100.0 * late.get() / scenario.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.LatencyTracker;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.PrepTimeModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cuisine unique contre cuisine organisée en postes, à nombre de cuisiniers égal (7).
+ * Les mêmes commandes mélangées (plat + entrée froide + dessert...) arrivent au même rythme (arrivées
+ * de Poisson); on mesure le débit, le délai de bout en bout de chaque commande et la charge de chaque poste.
+ *
+ * Dans la cuisine unique, un cuisinier prépare toute la commande; avec les postes, les plats d'une
+ * commande mélangée sont préparés en même temps, ce qui raccourcit le délai tant qu'aucun poste ne sature.
+ * La charge par poste montre lequel devient le goulot d'étranglement quand le rythme augmente.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.KitchenStationsBenchmark [commandes]
+ */
+public class KitchenStationsBenchmark {
+    private static final double PREP_TIME_SCALE = 0.01;    // 3 s de préparation = 30 ms
+    private static final MenuItem[] MENU = {
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+        new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY),
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Random random = new Random(7);
+        List<List<MenuItem>> contents = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            List<MenuItem> items = new ArrayList<>();
+            int size = 1 + random.nextInt(4);
+            for (int j = 0; j < size; j++) {
+                items.add(MENU[random.nextInt(MENU.length)]);
+            }
+            contents.add(items);
+        }
+
+        System.out.println("Benchmark postes de cuisine: " + orders + " commandes mélangées, 7 cuisiniers");
+        // Capacité d'environ 117 commandes/s (60 ms de travail par commande en moyenne, 7 cuisiniers)
+        for (int perSecond : new int[]{40, 80}) {
+            long[] gaps = new long[orders];
+            for (int i = 0; i < orders; i++) {
+                gaps[i] = (long) (-Math.log(1 - random.nextDouble()) * 1e9 / perSecond);
+            }
+            System.out.printf("%nArrivées: %d commandes/s%n", perSecond);
+            System.out.printf("%-16s %10s %14s %12s %12s %12s%n",
+                "Cuisine", "durée (s)", "commandes/s", "p50 (ms)", "p90 (ms)", "p99 (ms)");
+
+            // Référence: sept cuisiniers interchangeables, chacun prépare toute la commande
+            KitchenService single = new KitchenService.Builder()
+                .cooks(7)
+                .prepTimeModel(PrepTimeModel.SEQUENTIAL)
+                .prepTimeScale(PREP_TIME_SCALE)
+                .verbose(false)
+                .build();
+            run("Cuisine unique", single, contents, gaps);
+
+            // Sept cuisiniers répartis selon la charge attendue de chaque poste
+            KitchenService stations = new KitchenService.Builder()
+                .stationCooks(MenuItem.Station.HOT_LINE, 2)
+                .stationCooks(MenuItem.Station.OVEN, 3)
+                .stationCooks(MenuItem.Station.COLD, 1)
+                .stationCooks(MenuItem.Station.PASTRY, 1)
+                .prepTimeScale(PREP_TIME_SCALE)
+                .verbose(false)
+                .build();
+            double elapsedMillis = run("Postes", stations, contents, gaps);
+            for (KitchenService.StationLoad load : stations.getStationLoads()) {
+                System.out.printf("  %-9s %d cuisinier(s) %6d partie(s)  occupation %3.0f %%%n", load.getStation(),
+                    load.getCooks(), load.getCompletedParts(), 100.0 * load.getBusyMillis() / (load.getCooks() * elapsedMillis));
+            }
+        }
+    }
+
+    /**
+     * @return durée totale (ms)
+     */
+    private static double run(String name, KitchenService kitchen, List<List<MenuItem>> contents, long[] gaps)
+            throws InterruptedException {
+        LatencyTracker latencies = new LatencyTracker();
+        kitchen.addOrderListener(latencies);
+        CountDownLatch ready = new CountDownLatch(contents.size());
+        kitchen.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.countDown();
+                }
+            }
+        });
+        long start = System.nanoTime();
+        long next = start;
+        for (int i = 0; i < contents.size(); i++) {
+            next += gaps[i];
+            LockSupport.parkNanos(next - System.nanoTime());
+            Order o = new Order("B-" + i, "bench", contents.get(i));
+            o.setCreatedNanos(System.nanoTime());
+            kitchen.submitOrder(o);
+        }
+        ready.await(5, TimeUnit.MINUTES);
+        long nanos = System.nanoTime() - start;
+        kitchen.shutdown();
+
+        LatencyHistogram endToEnd = latencies.getEndToEnd();
+        System.out.printf("%-16s %10.2f %14.1f %12.1f %12.1f %12.1f%n", name, nanos / 1e9, contents.size() / (nanos / 1e9),
+            endToEnd.getPercentile(50) / 1000.0, endToEnd.getPercentile(90) / 1000.0, endToEnd.getPercentile(99) / 1000.0);
+        return nanos / 1e6;
+    }
+}
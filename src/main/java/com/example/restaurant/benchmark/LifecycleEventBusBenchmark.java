@@ -0,0 +1,201 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.LatencyTracker;
+import com.example.restaurant.service.LifecycleEvent;
+import com.example.restaurant.service.LifecycleEventBus;
+import com.example.restaurant.service.LifecycleEventHandler;
+import com.example.restaurant.service.OrderEvent;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.OrderStatistics;
+import com.example.restaurant.service.OrderStatusPublisher;
+import com.example.restaurant.storage.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coût des observateurs pour le thread qui fait la transition (cuisinier, création de commande):
+ * observateurs appelés directement (OrderListener, comme KitchenService) contre LifecycleEventBus.
+ *
+ * Le producteur rejoue le cycle de vie de commandes au rythme d'un service chargé (création, envoi en cuisine,
+ * prise en charge, READY). On mesure, sur le seul thread producteur, le temps CPU et les octets alloués
+ * par événement, pour 1, 3 et 5 observateurs; avec le bus, on compte aussi les attentes d'anneau plein
+ * et le délai entre publication et traitement par le dernier consommateur.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.LifecycleEventBusBenchmark [commandes]
+ */
+public class LifecycleEventBusBenchmark {
+    private static final int ORDERS_PER_SECOND = 10_000;
+    private static final int TABLES = 20;
+    private static final List<MenuItem> MENU = Arrays.asList(
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY)
+    );
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 25_000;
+        System.out.println("Benchmark bus d'événements: " + orders + " commandes (" + orders * 4
+            + " événements) à " + ORDERS_PER_SECOND + " commandes/s");
+        // Échauffement (JIT), non affiché
+        for (int observers : new int[]{1, 5}) {
+            run(observers, false, orders / 10, false);
+            run(observers, true, orders / 10, false);
+        }
+        System.out.printf("%-14s %-16s %22s %20s %18s %20s%n", "Observateurs", "Distribution",
+            "CPU producteur (ns/év)", "octets alloués/év", "attentes anneau", "délai p99 (µs)");
+        for (int observers : new int[]{1, 3, 5}) {
+            run(observers, false, orders, true);
+            run(observers, true, orders, true);
+        }
+    }
+
+    private static void run(int observerCount, boolean bus, int orderCount, boolean print) throws InterruptedException {
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(new Order("ORD-" + i, "Table " + (i % TABLES), MENU));
+        }
+        OrderStatusPublisher publisher = new OrderStatusPublisher();
+        for (int t = 0; t < TABLES; t++) {
+            publisher.subscribe(new Screen(), OrderStatusPublisher.forClient("Table " + t));
+        }
+        LatencyHistogram lag = new LatencyHistogram(); // publication → consommateur ajouté en dernier (µs)
+        List<Object> observers = new ArrayList<>();
+        observers.add(new OrderStatistics());
+        if (observerCount >= 3) {
+            observers.add(new LatencyTracker());
+            observers.add(publisher);
+        }
+        if (observerCount >= 5) {
+            observers.add(new JournalFormatter());
+            observers.add(new JournalFormatter());
+        }
+
+        LifecycleEventBus eventBus = null;
+        List<OrderListener> listeners = new ArrayList<>();
+        if (bus) {
+            eventBus = new LifecycleEventBus();
+            for (int i = 0; i < observers.size(); i++) {
+                eventBus.addHandler("Bench-" + i, (LifecycleEventHandler) observers.get(i));
+            }
+            eventBus.addHandler("Bench-Lag", event -> lag.record((System.nanoTime() - event.getNanos()) / 1000));
+            eventBus.start();
+            listeners.add(eventBus);
+        } else {
+            for (Object observer : observers) {
+                listeners.add((OrderListener) observer);
+            }
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long cpu = 0;
+        long allocated = 0;
+        long next = System.nanoTime();
+        // Boucles indexées sur les observateurs: seul le coût des observateurs est mesuré, pas celui d'un itérateur
+        for (Order o : orders) {
+            next += 1_000_000_000L / ORDERS_PER_SECOND;
+            LockSupport.parkNanos(next - System.nanoTime());
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            long allocStart = threads.getThreadAllocatedBytes(threadId);
+
+            o.setCreatedNanos(System.nanoTime());
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onOrderCreated(o);
+            }
+            changeStatus(listeners, o, Order.Status.IN_PREPARATION);
+            o.setStartedNanos(System.nanoTime());
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onPreparationStarted(o);
+            }
+            changeStatus(listeners, o, Order.Status.READY);
+
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocStart;
+            cpu += threads.getCurrentThreadCpuTime() - cpuStart;
+        }
+        long events = orderCount * 4L;
+        String waits = "-";
+        String p99 = "-";
+        if (eventBus != null) {
+            eventBus.close();
+            waits = String.valueOf(eventBus.getProducerWaits());
+            p99 = String.valueOf(lag.getPercentile(99));
+        }
+        publisher.close();
+        if (!print) {
+            return;
+        }
+        System.out.printf("%-14d %-16s %22.0f %20.1f %18s %20s%n", observerCount,
+            bus ? "bus" : "appel direct", (double) cpu / events, (double) allocated / events, waits, p99);
+    }
+
+    private static void changeStatus(List<OrderListener> listeners, Order o, Order.Status status) {
+        Order.Status previous = o.getStatus();
+        if (status == Order.Status.READY) {
+            o.setReadyNanos(System.nanoTime());
+        }
+        o.setStatus(status);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onStatusChanged(o, previous);
+        }
+    }
+
+    /**
+     * Mise en forme d'une ligne de journal JSON par transition, comme OrderJournal avant l'écriture
+     */
+    private static final class JournalFormatter implements LifecycleEventHandler {
+
+        @Override
+        public void onEvent(LifecycleEvent event) {
+            if (event.getOrder() != null) {
+                format(event.getOrder().getId(), event.getStatus(), event.getTimestamp());
+            }
+        }
+
+        private void format(String orderId, Order.Status status, long timestamp) {
+            StringWriter line = new StringWriter(96);
+            try {
+                JsonWriter json = new JsonWriter(line);
+                json.beginObject()
+                    .name("id").value(orderId)
+                    .name("status").value(status.name())
+                    .name("timestamp").value(timestamp)
+                    .endObject();
+                json.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Écran client abonné à ses commandes
+     */
+    private static final class Screen implements Flow.Subscriber<OrderEvent> {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(OrderEvent event) {
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
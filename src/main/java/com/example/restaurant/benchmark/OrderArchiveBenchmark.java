@@ -0,0 +1,114 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.storage.OrderArchive;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Archive binaire mappée: un mois d'historique (1M commandes par défaut) écrit puis interrogé
+ * par accès direct et par plage de dates, en surveillant la mémoire du tas.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.OrderArchiveBenchmark [commandes]
+ */
+public class OrderArchiveBenchmark {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("archive-bench");
+        List<MenuItem> menu = Arrays.asList(
+            new MenuItem("m1", "Pasta Carbonara", 12.5, 3000),
+            new MenuItem("m2", "Pizza Margherita", 11.0, 2500),
+            new MenuItem("m3", "Caesar Salad", 8.0, 1500),
+            new MenuItem("m4", "Lasagna", 13.5, 4000),
+            new MenuItem("m5", "Tiramisu", 6.5, 1000));
+        Random random = new Random(42);
+        long monthStart = System.currentTimeMillis() - 30 * DAY;
+        long step = 30 * DAY / orders;
+
+        System.out.println("Benchmark archive binaire: " + orders + " commandes sur 30 jours");
+        long heapBefore = usedHeap();
+
+        OrderArchive archive = new OrderArchive(dir.toFile());
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            int n = 1 + random.nextInt(4);
+            MenuItem[] items = new MenuItem[n];
+            for (int k = 0; k < n; k++) {
+                items[k] = menu.get(random.nextInt(menu.size()));
+            }
+            archive.append(String.format("ORD-%08x", i), "Client " + random.nextInt(2000),
+                Arrays.asList(items), Order.Status.READY, monthStart + i * step);
+        }
+        double appendSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Écriture: %.0f commandes/s, fichiers: %.1f Mo%n",
+            orders / appendSeconds, directorySize(dir) / 1e6);
+
+        // Accès direct à des positions aléatoires
+        int lookups = 1_000_000;
+        double checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            OrderArchive.ArchivedOrder o = archive.get(random.nextInt(orders));
+            checksum += o.getTotal() + o.getClientName().length();
+        }
+        System.out.printf("Accès direct: %.0f ns/commande%n", (System.nanoTime() - start) / (double) lookups);
+
+        // Une journée au milieu du mois: chiffre d'affaires et plat le plus vendu
+        long dayStart = monthStart + 15 * DAY;
+        double[] revenue = {0};
+        int[] pasta = {0};
+        start = System.nanoTime();
+        long count = archive.scan(dayStart, dayStart + DAY, o -> {
+            revenue[0] += o.getTotal();
+            for (int k = 0; k < o.getItemCount(); k++) {
+                if ("m1".equals(o.getItemId(k))) {
+                    pasta[0]++;
+                }
+            }
+        });
+        System.out.printf("Plage d'une journée: %d commandes, %.2f €, %d carbonara, en %.1f ms%n",
+            count, revenue[0], pasta[0], BenchmarkStats.millis(System.nanoTime() - start));
+
+        // Mois complet
+        start = System.nanoTime();
+        count = archive.scan(monthStart, monthStart + 31 * DAY, o -> revenue[0] += o.getTotal());
+        System.out.printf("Mois complet: %d commandes parcourues en %.0f ms%n",
+            count, BenchmarkStats.millis(System.nanoTime() - start));
+
+        System.out.printf("Tas utilisé après les requêtes: +%.1f Mo (contrôle %.0f)%n",
+            (usedHeap() - heapBefore) / 1e6, checksum);
+
+        archive.close();
+        OrderArchive reopened = new OrderArchive(dir.toFile());
+        System.out.println(reopened.size() == orders ? "✅ Archive relue: " + reopened.size() + " commandes"
+            : "❌ Archive relue incomplète: " + reopened.size());
+        reopened.close();
+
+        Files.walk(dir).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long directorySize(Path dir) throws Exception {
+        long size = 0;
+        for (File f : dir.toFile().listFiles()) {
+            size += f.length();
+        }
+        return size;
+    }
+}
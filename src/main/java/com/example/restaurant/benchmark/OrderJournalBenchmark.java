@@ -0,0 +1,101 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.storage.JsonStorage;
+import com.example.restaurant.storage.JsonStorage.OrderData;
+import com.example.restaurant.storage.OrderJournal;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Coût d'écriture d'une commande selon la taille de l'historique:
+ * journal en ajout seul (création + 2 changements de statut par commande) contre réécriture complète de orders.json.
+ * Se termine par une reprise après une écriture coupée en plein milieu.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.OrderJournalBenchmark [commandes] [paliers]
+ */
+public class OrderJournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int perStep = total / steps;
+        List<MenuItem> items = Collections.singletonList(new MenuItem("m1", "Pasta Carbonara", 12.5, 3000));
+        File dir = Files.createTempDirectory("journal-bench").toFile();
+        File json = new File(dir, "orders.json");
+
+        System.out.println("Benchmark journal des commandes: " + total + " commandes en " + steps + " paliers");
+        System.out.printf("%-14s %18s %12s %22s%n", "Historique", "journal µs/cmd", "fsync", "orders.json ms/sauvegarde");
+
+        // Compaction désactivée pendant la mesure: seul l'ajout en fin de journal est mesuré
+        OrderJournal journal = new OrderJournal(dir, 10_000, 1_000, 5, Integer.MAX_VALUE);
+        List<OrderData> history = new ArrayList<>();
+        int created = 0;
+        for (int step = 1; step <= steps; step++) {
+            long syncsBefore = journal.getSyncCount();
+            long start = System.nanoTime();
+            for (int i = 0; i < perStep; i++) {
+                Order o = new Order("ORD-" + created++, "Client " + (i % 100), items);
+                journal.onOrderCreated(o);
+                Order.Status previous = o.getStatus();
+                o.setStatus(Order.Status.IN_PREPARATION);
+                journal.onStatusChanged(o, previous);
+                o.setStatus(Order.Status.READY);
+                journal.onStatusChanged(o, Order.Status.IN_PREPARATION);
+                history.add(toData(o));
+            }
+            journal.sync(60_000);
+            double journalMicros = (System.nanoTime() - start) / 1000.0 / perStep;
+
+            // Sauvegarde équivalente avec l'ancien format: tout le fichier à chaque fois
+            start = System.nanoTime();
+            JsonStorage.writeOrders(json, history);
+            double rewriteMillis = BenchmarkStats.millis(System.nanoTime() - start);
+
+            System.out.printf("%-14d %18.2f %12d %22.1f%n",
+                history.size(), journalMicros, journal.getSyncCount() - syncsBefore, rewriteMillis);
+        }
+        journal.close(); // compaction finale dans le snapshot
+
+        // Reprise: snapshot + quelques événements, dont une dernière ligne coupée par un "crash"
+        journal = new OrderJournal(dir);
+        for (int i = 0; i < 1000; i++) {
+            journal.onOrderCreated(new Order("LATE-" + i, "Client", items));
+        }
+        journal.sync(60_000);
+        Files.write(new File(dir, OrderJournal.JOURNAL_FILE).toPath(),
+            "{\"e\":\"C\",\"orderId\":\"TORN".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        // pas de close(): on simule un arrêt brutal, le journal n'est pas compacté
+
+        long start = System.nanoTime();
+        OrderJournal reopened = new OrderJournal(dir);
+        List<Order> recovered = reopened.getRecoveredOrders(id -> null);
+        double recoveryMillis = BenchmarkStats.millis(System.nanoTime() - start);
+        long ready = recovered.stream().filter(o -> o.getStatus() == Order.Status.READY).count();
+        System.out.printf("%nReprise: %d commandes (%d prêtes) en %.0f ms, %d octets coupés en fin de journal%n",
+            recovered.size(), ready, recoveryMillis, reopened.getTruncatedBytes());
+        boolean ok = recovered.size() == created + 1000 && ready == created && reopened.getTruncatedBytes() > 0;
+        System.out.println(ok ? "✅ État reconstruit" : "❌ État incorrect après reprise");
+        reopened.close();
+
+        Files.walk(dir.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+    }
+
+    private static OrderData toData(Order o) {
+        OrderData data = new OrderData();
+        data.orderId = o.getId();
+        data.clientName = o.getClientName();
+        data.items = "m1:12.5";
+        data.status = o.getStatus().name();
+        data.timestamp = System.currentTimeMillis();
+        return data;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.ExecutionMode;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.OrderEvent;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.OrderStatusPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écrans clients qui relistent leurs commandes à intervalle fixe, contre écrans abonnés à l'OrderStatusPublisher.
+ *
+ * Chaque table a son écran; les commandes arrivent à rythme régulier et passent RECEIVED → IN_PREPARATION → READY.
+ * On mesure le délai entre la transition et son affichage (p50/p99), les transitions jamais vues
+ * (deux transitions dans le même intervalle de relecture) et le travail: relectures et commandes relues.
+ * Un dernier scénario ajoute un écran très lent: son tampon déborde, ni la cuisine ni les autres écrans n'attendent.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.OrderStreamBenchmark [commandes] [écrans]
+ */
+public class OrderStreamBenchmark {
+    private static final double PREP_TIME_SCALE = 0.01;    // 3 s de préparation = 30 ms
+    private static final int ORDERS_PER_SECOND = 100;
+    private static final long SLOW_SCREEN_MILLIS = 50;
+    private static final int SLOW_SCREEN_BUFFER = 16;
+    private static final List<MenuItem> MENU = Arrays.asList(
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+        new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+        new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY)
+    );
+
+    public static void main(String[] args) throws InterruptedException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int screens = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.out.println("Benchmark suivi des commandes: " + orders + " commandes à " + ORDERS_PER_SECOND
+            + "/s, " + screens + " écrans clients");
+        System.out.printf("%-26s %10s %10s %16s %12s %16s%n", "Écrans", "p50 (ms)", "p99 (ms)",
+            "transitions vues", "relectures", "commandes relues");
+        run("Relecture toutes les 1 s", orders, screens, 1000, false);
+        run("Relecture toutes les 250 ms", orders, screens, 250, false);
+        run("Abonnements", orders, screens, 0, false);
+        run("Abonnements + écran lent", orders, screens, 0, true);
+    }
+
+    /**
+     * @param pollMillis intervalle de relecture, 0 pour les abonnements
+     */
+    private static void run(String name, int orders, int screens, long pollMillis, boolean slowScreen)
+            throws InterruptedException {
+        KitchenService kitchen = new KitchenService.Builder()
+            .cooks(4)
+            .prepTimeScale(PREP_TIME_SCALE)
+            .verbose(false)
+            .build();
+        OrderService orderService = new OrderService(kitchen);
+        // Heure réelle de chaque transition: référence commune aux deux façons de suivre,
+        // enregistrée avant l'éditeur pour être connue quand l'événement arrive à l'écran
+        Map<String, Long> transitions = new ConcurrentHashMap<>();
+        CountDownLatch ready = new CountDownLatch(orders);
+        orderService.addOrderListener(new OrderListener() {
+            @Override
+            public void onOrderCreated(Order order) {
+                transitions.putIfAbsent(order.getId() + "/" + order.getStatus(), System.nanoTime());
+            }
+
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                transitions.putIfAbsent(order.getId() + "/" + order.getStatus(), System.nanoTime());
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.countDown();
+                }
+            }
+        });
+        OrderStatusPublisher publisher = new OrderStatusPublisher(ExecutionMode.PLATFORM,
+            OrderStatusPublisher.DEFAULT_BUFFER_CAPACITY);
+        orderService.addOrderListener(publisher);
+
+        LatencyHistogram delays = new LatencyHistogram();
+        Map<String, Boolean> seen = new ConcurrentHashMap<>();
+        LongAdder polls = new LongAdder();
+        LongAdder ordersRead = new LongAdder();
+        ScheduledExecutorService pollers = null;
+        List<Flow.Subscription> subscriptions = new ArrayList<>();
+        SlowScreen slow = null;
+
+        if (pollMillis > 0) {
+            pollers = Executors.newScheduledThreadPool(4);
+            for (int s = 0; s < screens; s++) {
+                String client = "Table " + s;
+                Map<String, Order.Status> shown = new HashMap<>(); // un seul poll à la fois par écran
+                pollers.scheduleAtFixedRate(() -> {
+                    polls.increment();
+                    for (Order order : orderService.findByClient(client)) {
+                        ordersRead.increment();
+                        Order.Status status = order.getStatus();
+                        if (shown.put(order.getId(), status) != status) {
+                            record(transitions, seen, delays, order.getId() + "/" + status);
+                        }
+                    }
+                }, s * pollMillis / screens, pollMillis, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            for (int s = 0; s < screens; s++) {
+                publisher.subscribe(new Flow.Subscriber<OrderEvent>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        synchronized (subscriptions) {
+                            subscriptions.add(subscription);
+                        }
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(OrderEvent event) {
+                        record(transitions, seen, delays, event.getOrderId() + "/" + event.getStatus());
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                }, OrderStatusPublisher.forClient("Table " + s));
+            }
+            if (slowScreen) {
+                slow = new SlowScreen();
+            }
+        }
+        OrderStatusPublisher slowPublisher = null;
+        if (slow != null) {
+            // Tampon réduit pour que le débordement soit visible sur une courte mesure
+            slowPublisher = new OrderStatusPublisher(ExecutionMode.PLATFORM, SLOW_SCREEN_BUFFER);
+            orderService.addOrderListener(slowPublisher);
+            slowPublisher.subscribe(slow);
+        }
+
+        Random random = new Random(5);
+        long start = System.nanoTime();
+        long next = start;
+        for (int i = 0; i < orders; i++) {
+            next += 1_000_000_000L / ORDERS_PER_SECOND;
+            LockSupport.parkNanos(next - System.nanoTime());
+            List<MenuItem> items = new ArrayList<>();
+            for (int j = 1 + random.nextInt(3); j > 0; j--) {
+                items.add(MENU.get(random.nextInt(MENU.size())));
+            }
+            orderService.createOrder("Table " + random.nextInt(screens), items);
+        }
+        ready.await(5, TimeUnit.MINUTES);
+        double kitchenSeconds = (System.nanoTime() - start) / 1e9;
+        // Laisser passer une relecture de plus: les dernières transitions sont vues
+        Thread.sleep(Math.max(pollMillis, 50) + 50);
+
+        if (pollers != null) {
+            pollers.shutdownNow();
+        }
+        synchronized (subscriptions) {
+            subscriptions.forEach(Flow.Subscription::cancel);
+        }
+        publisher.close();
+        kitchen.shutdown();
+
+        System.out.printf("%-26s %10.2f %10.2f %9d/%-6d %12d %16d%n", name,
+            delays.getPercentile(50) / 1000.0, delays.getPercentile(99) / 1000.0, seen.size(), transitions.size(),
+            polls.sum(), ordersRead.sum());
+        if (slow != null) {
+            System.out.printf("  écran lent (%d ms/événement, tampon %d): %d reçu(s), %d perdu(s); cuisine terminée en %.2f s%n",
+                SLOW_SCREEN_MILLIS, SLOW_SCREEN_BUFFER, slow.received.sum(), slowPublisher.getDroppedCount(),
+                kitchenSeconds);
+            slowPublisher.close();
+        } else {
+            System.out.printf("  cuisine terminée en %.2f s%n", kitchenSeconds);
+        }
+    }
+
+    private static void record(Map<String, Long> transitions, Map<String, Boolean> seen, LatencyHistogram delays,
+                               String key) {
+        Long at = transitions.get(key);
+        if (at != null && seen.putIfAbsent(key, Boolean.TRUE) == null) {
+            delays.record((System.nanoTime() - at) / 1000);
+        }
+    }
+
+    /**
+     * Écran qui met SLOW_SCREEN_MILLIS à afficher chaque événement et n'en demande qu'un à la fois
+     */
+    private static final class SlowScreen implements Flow.Subscriber<OrderEvent> {
+        final LongAdder received = new LongAdder();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(OrderEvent event) {
+            received.increment();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(SLOW_SCREEN_MILLIS));
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
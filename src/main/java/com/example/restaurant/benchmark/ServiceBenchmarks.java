@@ -0,0 +1,324 @@
+package com.example.restaurant.benchmark;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.model.ServerStaff;
+import com.example.restaurant.service.AuthenticationService;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.OrderStatistics;
+import com.example.restaurant.service.ServerManager;
+import com.example.restaurant.service.Session;
+import com.example.restaurant.service.UserCredential;
+import com.example.restaurant.storage.JsonStorage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite de micro-benchmarks de la couche service, organisée comme JMH (échauffement, itérations mesurées,
+ * débit moyen ± écart-type) mais sans dépendance: le projet se compile avec les scripts .bat.
+ * Les temps simulés (préparation en cuisine, service à table) sont ramenés à 0 pour ne mesurer que le code.
+ *
+ * Chaque itération repart d'un état neuf (équivalent de @Setup(Level.Iteration)); pour les chemins
+ * asynchrones (cuisine, serveurs), l'itération n'est terminée qu'une fois tout le travail soumis écoulé.
+ *
+ * Exécution: java -cp bin com.example.restaurant.benchmark.ServiceBenchmarks [-f filtre] [-wi 5] [-i 5] [-t 1000] [-o résultats.csv]
+ *   -f   ne lancer que les benchmarks dont le nom contient le filtre
+ *   -wi  itérations d'échauffement, -i itérations mesurées, -t durée d'une itération (ms)
+ *   -o   ajouter les résultats à un fichier CSV, pour comparer deux versions
+ */
+public class ServiceBenchmarks {
+    private static final List<MenuItem> MENU = Arrays.asList(
+        new MenuItem("m1", "Pasta Carbonara", 12.5, 3000),
+        new MenuItem("m2", "Pizza Margherita", 11.0, 2500),
+        new MenuItem("m3", "Caesar Salad", 8.0, 1500));
+
+    // Les résultats y sont accumulés pour que le JIT ne puisse pas supprimer les appels mesurés
+    private static volatile long sink;
+
+    /**
+     * État d'une itération: une opération mesurée, puis l'attente du travail asynchrone restant
+     */
+    private interface Trial {
+        long invoke(int i) throws Exception;
+
+        default void finish() throws Exception {}
+
+        default void close() throws Exception {}
+    }
+
+    private interface Setup {
+        Trial create() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = "";
+        int warmups = 5;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        String output = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-f": filter = args[i + 1]; break;
+                case "-wi": warmups = Integer.parseInt(args[i + 1]); break;
+                case "-i": iterations = Integer.parseInt(args[i + 1]); break;
+                case "-t": iterationMillis = Long.parseLong(args[i + 1]); break;
+                case "-o": output = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Option inconnue: " + args[i]);
+            }
+        }
+
+        Map<String, Setup> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("OrderService.createOrder", ServiceBenchmarks::createOrder);
+        benchmarks.put("OrderService.list", ServiceBenchmarks::listOrders);
+        benchmarks.put("KitchenService.submitOrder", ServiceBenchmarks::kitchenDispatch);
+        benchmarks.put("ServerManager.requestService", ServiceBenchmarks::serverDispatch);
+        benchmarks.put("JsonStorage.writeOrders", ServiceBenchmarks::jsonWrite);
+        benchmarks.put("JsonStorage.readOrders", ServiceBenchmarks::jsonRead);
+        benchmarks.put("AuthenticationService.login", ServiceBenchmarks::login);
+
+        System.out.printf("Benchmarks service: %d échauffement(s), %d itération(s) de %d ms%n%n",
+            warmups, iterations, iterationMillis);
+        System.out.printf("%-32s %5s %14s %12s %12s%n", "Benchmark", "n", "ops/s", "± écart", "ns/op");
+
+        List<String> csv = new ArrayList<>();
+        for (Map.Entry<String, Setup> e : benchmarks.entrySet()) {
+            if (!e.getKey().contains(filter)) {
+                continue;
+            }
+            for (int w = 0; w < warmups; w++) {
+                iteration(e.getValue(), iterationMillis);
+            }
+            double[] scores = new double[iterations];
+            for (int m = 0; m < iterations; m++) {
+                scores[m] = iteration(e.getValue(), iterationMillis);
+            }
+            double mean = Arrays.stream(scores).average().orElse(0);
+            double variance = 0;
+            for (double s : scores) {
+                variance += (s - mean) * (s - mean);
+            }
+            double stddev = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+            System.out.printf("%-32s %5d %14.0f %12.0f %12.1f%n", e.getKey(), iterations, mean, stddev, 1e9 / mean);
+            csv.add(String.format(Locale.ROOT, "%d,%s,%.1f,%.1f", System.currentTimeMillis(), e.getKey(), mean, stddev));
+        }
+        System.out.println("\n(sink " + (sink & 1) + ")");
+
+        if (output != null) {
+            try (PrintWriter out = new PrintWriter(new FileWriter(output, true))) {
+                csv.forEach(out::println);
+            }
+            System.out.println("✅ Résultats ajoutés à " + output);
+        }
+    }
+
+    /**
+     * Une itération: opérations enchaînées pendant iterationMillis, puis fin du travail asynchrone
+     * @return débit en opérations par seconde
+     */
+    private static double iteration(Setup setup, long iterationMillis) throws Exception {
+        Trial trial = setup.create();
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long start = System.nanoTime();
+        long result = 0;
+        int ops = 0;
+        try {
+            do {
+                // Horloge consultée toutes les 64 opérations seulement
+                for (int k = 0; k < 64; k++) {
+                    result += trial.invoke(ops++);
+                }
+            } while (System.nanoTime() < deadline);
+            trial.finish();
+            long elapsed = System.nanoTime() - start;
+            sink += result;
+            return ops * 1e9 / elapsed;
+        } finally {
+            trial.close();
+        }
+    }
+
+    private static KitchenService stubbedKitchen() {
+        return new KitchenService.Builder().cooks(4).prepTimeScale(0).verbose(false).build();
+    }
+
+    private static List<MenuItem> dish(int i) {
+        return MENU.subList(0, 1 + i % MENU.size());
+    }
+
+    private static Trial createOrder() {
+        KitchenService kitchen = stubbedKitchen();
+        OrderService orders = new OrderService(kitchen);
+        return new Trial() {
+            public long invoke(int i) {
+                return orders.createOrder("Table " + (i & 63), dish(i)).getItems().size();
+            }
+
+            public void close() {
+                kitchen.shutdown();
+            }
+        };
+    }
+
+    private static Trial listOrders() {
+        KitchenService kitchen = stubbedKitchen();
+        OrderService orders = new OrderService(kitchen);
+        for (int i = 0; i < 10_000; i++) {
+            orders.createOrder("Table " + (i & 63), dish(i));
+        }
+        return new Trial() {
+            public long invoke(int i) {
+                return orders.list().size();
+            }
+
+            public void close() {
+                kitchen.shutdown();
+            }
+        };
+    }
+
+    private static Trial kitchenDispatch() {
+        KitchenService kitchen = stubbedKitchen();
+        LongAdder ready = new LongAdder();
+        kitchen.addOrderListener(new OrderListener() {
+            @Override
+            public void onStatusChanged(Order order, Order.Status previous) {
+                if (order.getStatus() == Order.Status.READY) {
+                    ready.increment();
+                }
+            }
+        });
+        int[] submitted = {0};
+        return new Trial() {
+            public long invoke(int i) {
+                kitchen.submitOrder(new Order("B-" + i, "bench", dish(i)));
+                submitted[0]++;
+                return i;
+            }
+
+            public void finish() throws InterruptedException {
+                while (ready.sum() < submitted[0]) {
+                    Thread.sleep(1);
+                }
+            }
+
+            public void close() {
+                kitchen.shutdown();
+            }
+        };
+    }
+
+    private static Trial serverDispatch() {
+        KitchenService kitchen = stubbedKitchen();
+        OrderService orders = new OrderService(kitchen);
+        OrderStatistics statistics = new OrderStatistics();
+        List<ServerStaff> servers = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            servers.add(new ServerStaff("srv" + s, "Serveur " + s));
+        }
+        ServerManager manager = new ServerManager.Builder(servers, orders)
+            .serviceTimeScale(0)
+            .verbose(false)
+            .statistics(statistics)
+            .build();
+        List<MenuItem> none = new ArrayList<>();
+        int[] requested = {0};
+        return new Trial() {
+            public long invoke(int i) {
+                manager.requestService(new ServerManager.ClientRequest("Table " + (i & 63), none, false));
+                requested[0]++;
+                return i;
+            }
+
+            public void finish() throws InterruptedException {
+                while (statistics.snapshot().getTablesServed() < requested[0]) {
+                    Thread.sleep(1);
+                }
+            }
+
+            public void close() {
+                manager.shutdown();
+                kitchen.shutdown();
+            }
+        };
+    }
+
+    private static List<JsonStorage.OrderData> sampleOrders(int count) {
+        List<JsonStorage.OrderData> list = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            JsonStorage.OrderData o = new JsonStorage.OrderData();
+            o.orderId = String.format("ORD-%08x", i);
+            o.clientName = "Client " + (i % 500);
+            o.items = "m1:12.5,m3:8.0";
+            o.status = "READY";
+            o.timestamp = now - i * 1000L;
+            list.add(o);
+        }
+        return list;
+    }
+
+    // JsonStorage: une opération = un fichier complet de 1 000 commandes écrit ou relu
+    private static Trial jsonWrite() throws IOException {
+        File file = File.createTempFile("bench-orders", ".json");
+        List<JsonStorage.OrderData> data = sampleOrders(1_000);
+        return new Trial() {
+            public long invoke(int i) {
+                JsonStorage.writeOrders(file, data);
+                return file.length();
+            }
+
+            public void close() {
+                file.delete();
+            }
+        };
+    }
+
+    private static Trial jsonRead() throws IOException {
+        File file = File.createTempFile("bench-orders", ".json");
+        JsonStorage.writeOrders(file, sampleOrders(1_000));
+        return new Trial() {
+            public long invoke(int i) {
+                return JsonStorage.readOrders(file).size();
+            }
+
+            public void close() {
+                file.delete();
+            }
+        };
+    }
+
+    private static Trial login() {
+        List<UserCredential> users = new ArrayList<>();
+        for (int u = 0; u < 1_000; u++) {
+            users.add(new UserCredential("user" + u, "secret" + u, "SERVEUR", "Serveur " + u, "SRV-" + u));
+        }
+        AuthenticationService auth = new AuthenticationService(users);
+        String[] names = new String[users.size()];
+        String[] passwords = new String[users.size()];
+        for (int u = 0; u < names.length; u++) {
+            names[u] = "user" + u;
+            passwords[u] = "secret" + u;
+        }
+        return i -> {
+            int u = i % names.length;
+            Session session = auth.login(names[u], passwords[u]);
+            if (session == null) {
+                return 0;
+            }
+            auth.logout(session.getToken()); // sinon les sessions s'accumulent pendant la mesure
+            return 1;
+        };
+    }
+}
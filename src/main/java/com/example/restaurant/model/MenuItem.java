@@ -1,21 +1,52 @@
 package com.example.restaurant.model;
 
 public class MenuItem {
+    /** Temps de préparation utilisé quand le plat n'en précise pas */
+    public static final long DEFAULT_PREP_TIME_MILLIS = 2000;
+    /** Écart-type par défaut, en proportion du temps moyen */
+    public static final double DEFAULT_PREP_TIME_DEVIATION = 0.15;
+
+    /**
+     * Poste de la cuisine où le plat est préparé: deux postes différents travaillent en parallèle
+     */
+    public enum Station { HOT_LINE, OVEN, COLD, PASTRY }
+
     private String id;
     private String name;
     private double price;
+    private long prepTimeMillis = DEFAULT_PREP_TIME_MILLIS;
+    private long prepTimeStdDevMillis = Math.round(DEFAULT_PREP_TIME_MILLIS * DEFAULT_PREP_TIME_DEVIATION);
+    private Station station = Station.HOT_LINE;
 
     public MenuItem() {}
-    public MenuItem(String id, String name, double price) { 
-        this.id = id; 
-        this.name = name; 
-        this.price = price; 
+    public MenuItem(String id, String name, double price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+    public MenuItem(String id, String name, double price, long prepTimeMillis) {
+        this(id, name, price);
+        this.prepTimeMillis = prepTimeMillis;
+        this.prepTimeStdDevMillis = Math.round(prepTimeMillis * DEFAULT_PREP_TIME_DEVIATION);
     }
-    
+    /**
+     * Plat avec un profil de préparation complet: temps moyen, écart-type et poste
+     */
+    public MenuItem(String id, String name, double price, long prepTimeMillis, long prepTimeStdDevMillis, Station station) {
+        this(id, name, price, prepTimeMillis);
+        this.prepTimeStdDevMillis = prepTimeStdDevMillis;
+        this.station = station;
+    }
+
     public String getId() { return id; }
     public String getName() { return name; }
     public double getPrice() { return price; }
-    
-    @Override 
+    /** Temps de préparation moyen en cuisine */
+    public long getPrepTimeMillis() { return prepTimeMillis; }
+    /** Écart-type du temps de préparation */
+    public long getPrepTimeStdDevMillis() { return prepTimeStdDevMillis; }
+    public Station getStation() { return station; }
+
+    @Override
     public String toString() { return name + " ($" + price + ")"; }
 }
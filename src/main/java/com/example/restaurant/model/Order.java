@@ -8,7 +8,13 @@ public class Order {
     private String id;
     private String clientName;
     private List<MenuItem> items;
-    private Status status = Status.RECEIVED;
+    private volatile Status status = Status.RECEIVED;
+    // Étapes du cycle de vie (System.nanoTime(), 0 = non mesurée, ex: commande rechargée)
+    private volatile long createdNanos;
+    private volatile long submittedNanos;
+    private volatile long dequeuedNanos;
+    private volatile long startedNanos;
+    private volatile long readyNanos;
 
     public Order() {}
     public Order(String id, String clientName, List<MenuItem> items) {
@@ -22,4 +28,20 @@ public class Order {
     public List<MenuItem> getItems() { return items; }
     public Status getStatus() { return status; }
     public void setStatus(Status s) { this.status = s; }
+
+    /** Création par OrderService */
+    public long getCreatedNanos() { return createdNanos; }
+    public void setCreatedNanos(long t) { this.createdNanos = t; }
+    /** Envoi en cuisine */
+    public long getSubmittedNanos() { return submittedNanos; }
+    public void setSubmittedNanos(long t) { this.submittedNanos = t; }
+    /** Sortie de la file de la cuisine */
+    public long getDequeuedNanos() { return dequeuedNanos; }
+    public void setDequeuedNanos(long t) { this.dequeuedNanos = t; }
+    /** Prise en charge par un cuisinier */
+    public long getStartedNanos() { return startedNanos; }
+    public void setStartedNanos(long t) { this.startedNanos = t; }
+    /** Passage à READY */
+    public long getReadyNanos() { return readyNanos; }
+    public void setReadyNanos(long t) { this.readyNanos = t; }
 }
@@ -3,93 +3,154 @@ package com.example.restaurant.service;
 import com.example.restaurant.storage.DatabaseStorage;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service d'authentification et gestion des credentials
  * MISE À JOUR: Utilise MySQL via JDBC au lieu de fichiers JSON
+ * MISE À JOUR: plus de chargement de toute la table users au démarrage, les credentials passent
+ * par un CredentialCache (lecture traversante, LRU/TTL, rafraîchissement incrémental)
+ * MISE À JOUR: plus d'utilisateur courant partagé: chaque connexion ouvre une Session (jeton opaque)
+ * et les opérations réservées à l'admin vérifient le jeton présenté, plusieurs terminaux peuvent
+ * donc être connectés en même temps
  */
 public class AuthenticationService {
-    private Map<String, UserCredential> credentials;
-    private UserCredential currentUser;
+    private final CredentialCache credentials;
+    private final SessionManager sessions;
     
     public AuthenticationService() {
-        credentials = new HashMap<>();
+        this(CredentialCache.DEFAULT_MAX_SIZE, CredentialCache.DEFAULT_TTL_MILLIS, SessionManager.DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * @param cacheSize nombre maximum d'utilisateurs gardés en mémoire
+     * @param cacheTtlMillis durée de vie d'un credential en cache avant relecture en base
+     * @param sessionIdleTimeoutMillis inactivité après laquelle une session est fermée
+     */
+    public AuthenticationService(int cacheSize, long cacheTtlMillis, long sessionIdleTimeoutMillis) {
         // Tester la connexion à la base de données
         if (!DatabaseStorage.testConnection()) {
             System.err.println("ERREUR: Impossible de se connecter à la base de données MySQL!");
             System.err.println("Assurez-vous que XAMPP est démarré et que la base 'restaurant_db' existe.");
         }
-        // Initialiser les tables et charger les credentials
+        // Vérifier les tables; les credentials sont lus à la demande
         DatabaseStorage.initializeTables();
-        loadCredentials();
+        credentials = new CredentialCache(CredentialCache.DATABASE, cacheSize, cacheTtlMillis);
+        sessions = new SessionManager(sessionIdleTimeoutMillis);
     }
     
     /**
-     * Charge les credentials depuis la base de données MySQL
+     * Service sans base de données, avec une liste de credentials fournie (benchmarks, démonstrations)
      */
-    private void loadCredentials() {
-        List<UserCredential> list = DatabaseStorage.readUserCredentials();
-        credentials.clear();
-        for (UserCredential cred : list) {
-            credentials.put(cred.getUsername(), cred);
-        }
-        
-        if (credentials.isEmpty()) {
-            System.out.println("Aucun utilisateur trouvé. Les données par défaut devraient être dans la base de données.");
+    public AuthenticationService(Collection<UserCredential> seed) {
+        Map<String, UserCredential> users = new ConcurrentHashMap<>();
+        for (UserCredential cred : seed) {
+            users.put(cred.getUsername(), cred);
         }
+        credentials = new CredentialCache(new CredentialCache.Source() {
+            @Override
+            public UserCredential find(String username) {
+                return users.get(username);
+            }
+            
+            @Override
+            public List<UserCredential> changedSince(long sinceMillis) {
+                return Collections.emptyList(); // liste figée
+            }
+            
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis();
+            }
+            
+            @Override
+            public List<UserCredential> findAll() {
+                return new ArrayList<>(users.values());
+            }
+        });
+        sessions = new SessionManager();
     }
     
     /**
-     * Rafraîchir les credentials depuis la base de données
+     * Rafraîchir les credentials en cache: seuls les utilisateurs modifiés depuis le dernier rafraîchissement sont relus.
+     * Les sessions ouvertes avec un mot de passe ou un type qui a changé depuis sont fermées.
+     * @return nombre de credentials mis à jour
      */
-    public void refreshCredentials() {
-        loadCredentials();
+    public int refreshCredentials() {
+        return credentials.refresh(changed -> sessions.closeAll(changed.getUsername(),
+            user -> !Objects.equals(user.getPassword(), changed.getPassword())
+                || !Objects.equals(user.getUserType(), changed.getUserType())));
     }
     
     /**
-     * Authentifie un utilisateur (serveur/cuisinier/admin)
-     * @return UserCredential si succès, null sinon
+     * Métriques du cache de credentials (hits, misses, évictions)
      */
-    public UserCredential login(String username, String password) {
+    public CredentialCache.CacheStats getCacheStats() {
+        return credentials.getStats();
+    }
+    
+    /**
+     * Authentifie un utilisateur (serveur/cuisinier/admin) et ouvre une session
+     * @return la Session (son jeton identifie le terminal) si succès, null sinon
+     */
+    public Session login(String username, String password) {
         UserCredential cred = credentials.get(username);
         if (cred != null && cred.getPassword().equals(password)) {
-            currentUser = cred;
-            return cred;
+            return sessions.open(cred);
         }
         return null;
     }
     
     /**
-     * Crée un client (juste avec nom, sans password)
-     * @return UserCredential pour le client
+     * Crée un client (juste avec nom, sans password) et ouvre sa session
+     * @return Session du client
      */
-    public UserCredential loginAsClient(String clientName) {
+    public Session loginAsClient(String clientName) {
         if (clientName == null || clientName.trim().isEmpty()) {
             return null;
         }
         
         // Créer credential temporaire pour le client (sans sauvegarder)
         String clientId = "CLI-" + UUID.randomUUID().toString().substring(0, 8);
-        currentUser = new UserCredential(
+        UserCredential client = new UserCredential(
             clientName.toLowerCase(),
             "", // Pas de password pour les clients
             "CLIENT",
             clientName,
             clientId
         );
-        return currentUser;
+        return sessions.open(client);
+    }
+    
+    /**
+     * Session correspondant à un jeton (repousse son expiration)
+     * @return null si le jeton est inconnu, fermé ou expiré
+     */
+    public Session getSession(String token) {
+        return sessions.validate(token);
     }
     
     /**
      * Créer un nouvel utilisateur (ADMIN seulement)
      * @return true si succès
      */
-    public boolean createUser(String username, String password, String userType, String displayName) {
-        if (currentUser == null || !currentUser.getUserType().equals("ADMIN")) {
+    public boolean createUser(String token, String username, String password, String userType, String displayName) {
+        if (sessions.require(token, "ADMIN") == null) {
             return false; // Seul admin peut créer des utilisateurs
         }
-        
-        if (credentials.containsKey(username)) {
+        return registerUser(username, password, userType, displayName);
+    }
+    
+    /**
+     * Créer un compte au démarrage du système (comptes par défaut), sans session admin.
+     * Sans effet si l'utilisateur existe déjà.
+     */
+    public boolean bootstrapUser(String username, String password, String userType, String displayName) {
+        return registerUser(username, password, userType, displayName);
+    }
+    
+    private boolean registerUser(String username, String password, String userType, String displayName) {
+        if (credentials.get(username) != null) {
             return false; // Username déjà existe
         }
         
@@ -114,7 +175,7 @@ public class AuthenticationService {
         
         // Sauvegarder dans la base de données
         if (DatabaseStorage.addUserCredential(newUser)) {
-            credentials.put(username, newUser);
+            credentials.put(newUser);
             return true;
         }
         return false;
@@ -123,8 +184,8 @@ public class AuthenticationService {
     /**
      * Supprimer un utilisateur (ADMIN seulement)
      */
-    public boolean deleteUser(String username) {
-        if (currentUser == null || !currentUser.getUserType().equals("ADMIN")) {
+    public boolean deleteUser(String token, String username) {
+        if (sessions.require(token, "ADMIN") == null) {
             return false;
         }
         
@@ -134,7 +195,8 @@ public class AuthenticationService {
         
         // Supprimer de la base de données
         if (DatabaseStorage.deleteUserCredential(username)) {
-            credentials.remove(username);
+            credentials.invalidate(username);
+            sessions.closeAll(username); // ses terminaux encore connectés perdent l'accès immédiatement
             return true;
         }
         return false;
@@ -143,31 +205,24 @@ public class AuthenticationService {
     /**
      * Liste tous les utilisateurs (ADMIN seulement)
      */
-    public List<UserCredential> listAllUsers() {
-        if (currentUser == null || !currentUser.getUserType().equals("ADMIN")) {
+    public List<UserCredential> listAllUsers(String token) {
+        if (sessions.require(token, "ADMIN") == null) {
             return new ArrayList<>();
         }
-        return new ArrayList<>(credentials.values());
-    }
-    
-    /**
-     * Déconnexion
-     */
-    public void logout() {
-        currentUser = null;
+        return credentials.getSource().findAll();
     }
     
     /**
-     * Obtenir l'utilisateur connecté
+     * Déconnexion: ferme la session du jeton
      */
-    public UserCredential getCurrentUser() {
-        return currentUser;
+    public void logout(String token) {
+        sessions.close(token);
     }
     
     /**
-     * Vérifier si connecté
+     * Sessions ouvertes (terminaux connectés)
      */
-    public boolean isAuthenticated() {
-        return currentUser != null;
+    public SessionManager getSessions() {
+        return sessions;
     }
 }
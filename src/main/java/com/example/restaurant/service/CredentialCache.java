@@ -0,0 +1,281 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.storage.DatabaseStorage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Cache des credentials en lecture traversante: un utilisateur n'est lu en base qu'à sa première connexion,
+ * les suivantes sont servies depuis la mémoire.
+ * Utilise:
+ * - LinkedHashMap en ordre d'accès: éviction LRU au-delà de maxSize entrées
+ * - TTL: une entrée plus vieille que ttl est relue (borne la durée de vie d'un utilisateur supprimé par ailleurs)
+ * - refresh(): ne relit que les lignes modifiées depuis le dernier rafraîchissement (colonne updated_at),
+ *   le repère est l'heure de la base pour ne pas dépendre de l'horloge locale
+ * - LongAdder: compteurs de hits/misses sans contention
+ *
+ * Les utilisateurs inconnus ne sont pas mis en cache (une base momentanément injoignable ne doit pas
+ * bloquer les connexions jusqu'à l'expiration).
+ */
+public class CredentialCache {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000;
+
+    /**
+     * D'où viennent les credentials: la base MySQL, ou une liste fournie (benchmarks, démonstrations)
+     */
+    public interface Source {
+        UserCredential find(String username);
+
+        /** Credentials créés ou modifiés depuis sinceMillis (horloge de la source), null si la lecture a échoué */
+        List<UserCredential> changedSince(long sinceMillis);
+
+        /** Heure courante de la source (ms), -1 si elle est injoignable */
+        long currentTimeMillis();
+
+        /** Liste complète, pour l'administration (ne passe pas par le cache) */
+        List<UserCredential> findAll();
+    }
+
+    /**
+     * Source MySQL (table users via DatabaseStorage)
+     */
+    public static final Source DATABASE = new Source() {
+        @Override
+        public UserCredential find(String username) {
+            return DatabaseStorage.findUserByUsername(username);
+        }
+
+        @Override
+        public List<UserCredential> changedSince(long sinceMillis) {
+            return DatabaseStorage.readUserCredentialsChangedSince(sinceMillis);
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return DatabaseStorage.readDatabaseTimeMillis();
+        }
+
+        @Override
+        public List<UserCredential> findAll() {
+            return DatabaseStorage.readUserCredentials();
+        }
+    };
+
+    private static final class Entry {
+        final UserCredential credential;
+        final long loadedNanos; // début de la lecture qui a produit l'entrée
+
+        Entry(UserCredential credential, long loadedNanos) {
+            this.credential = credential;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+
+    private final Source source;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries; // protégé par this
+    private final Object refreshLock = new Object();
+    private long watermark; // heure de la source au dernier rafraîchissement, protégé par refreshLock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshedEntries = new LongAdder();
+
+    public CredentialCache(Source source) {
+        this(source, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    public CredentialCache(Source source, int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("La taille du cache doit être >= 1");
+        }
+        this.source = source;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > CredentialCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.watermark = source.currentTimeMillis();
+    }
+
+    /**
+     * Credential d'un utilisateur: depuis le cache, ou lu dans la source puis mis en cache
+     * @return null si l'utilisateur n'existe pas
+     */
+    public UserCredential get(String username) {
+        if (username == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(username);
+        }
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (now - entry.loadedNanos < ttlNanos) {
+                hits.increment();
+                return entry.credential;
+            }
+            expirations.increment();
+        }
+        misses.increment();
+        // Lecture hors du verrou: une connexion lente à la base ne bloque pas les hits
+        UserCredential credential = source.find(username);
+        if (credential != null) {
+            store(username, new Entry(credential, now));
+        } else {
+            invalidate(username);
+        }
+        return credential;
+    }
+
+    /**
+     * Ajouter ou remplacer un credential (après une création ou une modification locale)
+     */
+    public void put(UserCredential credential) {
+        store(credential.getUsername(), new Entry(credential, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Relire les credentials modifiés depuis le dernier rafraîchissement et mettre à jour ceux qui sont en cache.
+     * Si la source était injoignable au rafraîchissement précédent, on ne sait pas ce qui a changé: le cache est vidé.
+     * Le repère n'avance qu'après une lecture réussie des modifications: si elle échoue, le prochain
+     * rafraîchissement relit la même période.
+     * @return nombre d'entrées mises à jour
+     */
+    public int refresh() {
+        return refresh(credential -> {});
+    }
+
+    /**
+     * Même rafraîchissement, en signalant chaque credential relu (en cache ou non) à onChanged
+     */
+    public int refresh(Consumer<UserCredential> onChanged) {
+        synchronized (refreshLock) {
+            long now = source.currentTimeMillis();
+            if (now < 0) {
+                return 0; // source injoignable: garder le repère pour le prochain essai
+            }
+            long since = watermark;
+            if (since < 0) {
+                watermark = now;
+                refreshes.increment();
+                clear();
+                return 0;
+            }
+            // Horodaté après la lecture de l'heure de la source: une lecture traversante plus ancienne
+            // ne peut pas écraser une valeur rafraîchie (voir store)
+            long stamp = System.nanoTime();
+            List<UserCredential> changed = source.changedSince(since);
+            if (changed == null) {
+                return 0; // modifications illisibles: garder le repère pour ne rien perdre de la période
+            }
+            watermark = now;
+            refreshes.increment();
+            int updated = 0;
+            for (UserCredential credential : changed) {
+                onChanged.accept(credential);
+                synchronized (this) {
+                    Entry current = entries.get(credential.getUsername());
+                    if (current != null && current.loadedNanos <= stamp) {
+                        entries.put(credential.getUsername(), new Entry(credential, stamp));
+                        updated++;
+                    }
+                }
+            }
+            refreshedEntries.add(updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Garder l'entrée la plus récente quand une lecture traversante et un rafraîchissement se croisent
+     */
+    private synchronized void store(String username, Entry entry) {
+        Entry current = entries.get(username);
+        if (current == null || current.loadedNanos <= entry.loadedNanos) {
+            entries.put(username, entry);
+        }
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), maxSize, hits.sum(), misses.sum(), expirations.sum(),
+            evictions.sum(), refreshes.sum(), refreshedEntries.sum());
+    }
+
+    /**
+     * Métriques du cache à un instant donné
+     */
+    public static class CacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long expirations;
+        private final long evictions;
+        private final long refreshes;
+        private final long refreshedEntries;
+
+        CacheStats(int size, int maxSize, long hits, long misses, long expirations, long evictions,
+                   long refreshes, long refreshedEntries) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.expirations = expirations;
+            this.evictions = evictions;
+            this.refreshes = refreshes;
+            this.refreshedEntries = refreshedEntries;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        /** Lectures dans la source (absents et entrées expirées) */
+        public long getMisses() { return misses; }
+        public long getExpirations() { return expirations; }
+        public long getEvictions() { return evictions; }
+        public long getRefreshes() { return refreshes; }
+        public long getRefreshedEntries() { return refreshedEntries; }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d entrée(s), %d hit(s), %d miss(es) (%.1f %% de hits), %d expirée(s), %d évincée(s)",
+                size, maxSize, hits, misses, getHitRate() * 100, expirations, evictions);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.restaurant.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mode d'exécution des tâches bloquantes (préparation en cuisine, service à table).
+ * - PLATFORM: threads classiques (un thread OS par tâche en cours)
+ * - VIRTUAL: threads virtuels (Java 21+), un Thread.sleep() ne bloque plus de thread OS
+ *
+ * Dans les deux modes, la capacité réelle (cuisiniers, serveurs) reste limitée par les Semaphore des services.
+ * Les threads virtuels sont obtenus par réflexion pour que le projet compile aussi avec un JDK plus ancien;
+ * s'ils ne sont pas disponibles, VIRTUAL se replie sur PLATFORM avec un avertissement.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    private static final boolean VIRTUAL_SUPPORTED = virtualThreadFactory("probe-") != null;
+    private static volatile boolean fallbackWarned = false;
+
+    /**
+     * Les threads virtuels sont-ils disponibles sur cette JVM ?
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_SUPPORTED;
+    }
+
+    /**
+     * Mode réellement utilisé (VIRTUAL devient PLATFORM si la JVM ne le supporte pas)
+     */
+    public ExecutionMode effective() {
+        if (this == VIRTUAL && !isVirtualThreadSupported()) {
+            if (!fallbackWarned) {
+                fallbackWarned = true;
+                System.err.println("⚠️ Threads virtuels indisponibles (Java 21+ requis): utilisation des threads classiques");
+            }
+            return PLATFORM;
+        }
+        return this;
+    }
+
+    /**
+     * Exécuteur pour les tâches bloquantes.
+     * @param platformPoolSize taille du pool en mode PLATFORM (0 = pool extensible)
+     */
+    public ExecutorService newExecutor(String namePrefix, int platformPoolSize) {
+        if (effective() == VIRTUAL) {
+            ThreadFactory factory = virtualThreadFactory(namePrefix);
+            try {
+                return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Impossible de créer l'exécuteur virtuel", e);
+            }
+        }
+        ThreadFactory factory = platformThreadFactory(namePrefix);
+        return platformPoolSize > 0
+            ? Executors.newFixedThreadPool(platformPoolSize, factory)
+            : Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Démarrer un thread de fond (dispatcher). En mode PLATFORM c'est un thread daemon.
+     */
+    public Thread startThread(String name, Runnable task) {
+        Thread t;
+        if (effective() == VIRTUAL) {
+            t = virtualThreadFactory(name).newThread(task);
+        } else {
+            t = new Thread(task, name);
+            t.setDaemon(true);
+        }
+        t.start();
+        return t;
+    }
+
+    private static ThreadFactory platformThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> new Thread(r, namePrefix + counter.incrementAndGet());
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory(), ou null avant Java 21
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,97 +1,544 @@
 package com.example.restaurant.service;
 
+import com.example.restaurant.model.MenuItem;
 import com.example.restaurant.model.Order;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * KitchenService gère la préparation des commandes.
  * Utilise:
- * - BlockingQueue: pour recevoir les commandes de manière asynchrone
+ * - PriorityBlockingQueue: pour recevoir les commandes de manière asynchrone, rangées selon la SchedulingPolicy
  * - Semaphore: pour gérer le nombre de cuisiniers disponibles
- * - ExecutorService (thread pool): pour traiter plusieurs commandes en parallèle (simule plusieurs cuisiniers)
- * - Thread daemon: pour le dispatcher qui écoute continuellement la queue
+ * - ExecutorService (thread pool ou threads virtuels selon l'ExecutionMode): un thread par cuisinier
+ * - PrepTimeModel: temps de préparation tiré du profil des plats (postes en parallèle par défaut)
+ *
+ * Pas de dispatcher central: chaque cuisinier libre prend lui-même le ticket le plus prioritaire dans la queue,
+ * le coût de distribution est donc réparti sur les cuisiniers au lieu de passer par un seul thread.
+ *
+ * Deux organisations possibles:
+ * - cuisine unique (par défaut): des cuisiniers interchangeables derrière une seule queue
+ * - postes (Builder.stationCooks): une queue et des cuisiniers par MenuItem.Station; chaque commande est
+ *   découpée en parties (StationTicket) préparées en parallèle, et passe READY quand la dernière est terminée
+ *
+ * En mode postes, Builder.batching regroupe les plats identiques: un cuisinier qui prend un plat attend
+ * (au plus la fenêtre, comptée depuis l'arrivée de la commande) les mêmes plats d'autres commandes et les
+ * cuisine en une fois, jusqu'à la capacité du lot; la fin du lot fait avancer chacune des commandes.
  */
 public class KitchenService {
-    private final BlockingQueue<Order> queue = new LinkedBlockingQueue<>();
+    /** Délai accordé par défaut à une commande, en plus de son temps de préparation estimé */
+    public static final long DEFAULT_DEADLINE_SLACK_MILLIS = 10 * 60 * 1000;
+    /** Temps ajouté par exemplaire supplémentaire d'un lot, en proportion du temps d'un plat seul */
+    public static final double DEFAULT_BATCH_MARGINAL_COST = 0.25;
+
+    private final BlockingQueue<KitchenTicket> queue = new PriorityBlockingQueue<>(16,
+        Comparator.comparingLong(KitchenTicket::getPriority).thenComparingLong(KitchenTicket::getSeq));
     private final ExecutorService cooks;
     private final Semaphore availableCooks; // Sémaphore pour gérer les cuisiniers disponibles
     private final int numberOfCooks;
+    private final ExecutionMode executionMode;
+    private final SchedulingPolicy policy;
+    private final double agingFactor;
+    private final double prepTimeScale;
+    private final PrepTimeModel prepTimeModel;
+    private final boolean verbose;
+    private final AtomicLong ticketSeq = new AtomicLong();
+    private final List<OrderListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<MenuItem.Station, Station> stations; // vide en mode cuisine unique
+    private final int batchCapacity; // 1 = pas de regroupement
+    private final long batchWindowNanos;
+    private final double batchMarginalCost;
+
+    /**
+     * Un poste de la cuisine: sa queue de parties de tickets et ses cuisiniers
+     */
+    private static final class Station {
+        final MenuItem.Station id;
+        final int cooks;
+        final BlockingQueue<StationTicket> queue = new PriorityBlockingQueue<>(16,
+            Comparator.comparingLong(StationTicket::getPriority).thenComparingLong(StationTicket::getSeq));
+        final AtomicInteger busy = new AtomicInteger();
+        final LongAdder completedParts = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder busyMillis = new LongAdder();
+
+        Station(MenuItem.Station id, int cooks) {
+            this.id = id;
+            this.cooks = cooks;
+        }
+    }
 
     public KitchenService() {
         this(2); // Par défaut 2 cuisiniers
     }
-    
+
     public KitchenService(int numberOfCooks) {
-        this.numberOfCooks = numberOfCooks;
-        this.cooks = Executors.newFixedThreadPool(numberOfCooks);
+        this(new Builder().cooks(numberOfCooks));
+    }
+
+    private KitchenService(Builder builder) {
+        this.stations = new EnumMap<>(MenuItem.Station.class);
+        if (!builder.stationCooks.isEmpty()) {
+            // Un poste par MenuItem.Station: un cuisinier pour ceux qui ne sont pas précisés
+            for (MenuItem.Station id : MenuItem.Station.values()) {
+                stations.put(id, new Station(id, builder.stationCooks.getOrDefault(id, 1)));
+            }
+        }
+        this.numberOfCooks = stations.isEmpty() ? builder.cooks
+            : stations.values().stream().mapToInt(st -> st.cooks).sum();
+        this.policy = builder.policy;
+        this.agingFactor = builder.agingFactor;
+        this.prepTimeScale = builder.prepTimeScale;
+        this.prepTimeModel = builder.prepTimeModel;
+        this.verbose = builder.verbose;
+        this.batchCapacity = builder.batchCapacity;
+        this.batchWindowNanos = (long) (TimeUnit.MILLISECONDS.toNanos(builder.batchWindowMillis) * prepTimeScale);
+        this.batchMarginalCost = builder.batchMarginalCost;
+        this.executionMode = builder.executionMode.effective();
+        this.cooks = executionMode.newExecutor("Cook-", numberOfCooks);
         this.availableCooks = new Semaphore(numberOfCooks); // Un permit par cuisinier
-        
-        // Runnable avec lambda - plus concis qu'une classe anonyme
-        Runnable dispatcher = () -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Order o = queue.take(); // bloque jusqu'à une nouvelle commande
-                    
-                    // Attendre qu'un cuisinier soit disponible
-                    System.out.println("⏳ Order " + o.getId() + " en attente d'un cuisinier disponible...");
-                    availableCooks.acquire(); // Bloque si tous les cuisiniers sont occupés
-                    
-                    System.out.println("👨‍🍳 Un cuisinier a pris la commande " + o.getId());
-                    // Lambda pour soumettre au thread pool
-                    cooks.submit(() -> process(o));
-                } catch (InterruptedException e) { 
-                    Thread.currentThread().interrupt(); 
+
+        // Chaque cuisinier tourne dans sa propre boucle
+        if (stations.isEmpty()) {
+            for (int i = 0; i < numberOfCooks; i++) {
+                cooks.submit(this::cookLoop);
+            }
+        } else {
+            for (Station station : stations.values()) {
+                for (int i = 0; i < station.cooks; i++) {
+                    cooks.submit(() -> stationLoop(station));
                 }
             }
-        };
-        
-        Thread t = new Thread(dispatcher, "Kitchen-Dispatcher");
-        t.setDaemon(true);
-        t.start();
+        }
+    }
+
+    /**
+     * Ajouter un observateur des changements de statut
+     */
+    public void addOrderListener(OrderListener listener) {
+        listeners.add(listener);
     }
 
     public void submitOrder(Order o) {
-        o.setStatus(Order.Status.IN_PREPARATION);
-        queue.offer(o);
-        System.out.println("🍳 Kitchen: received order " + o.getId() + " from " + o.getClientName());
-        System.out.println("   Queue position: " + queue.size() + " commande(s) en attente");
+        long estimate = estimatePrepMillis(o);
+        submitOrder(o, System.currentTimeMillis() + estimate + (long) (DEFAULT_DEADLINE_SLACK_MILLIS * prepTimeScale));
     }
 
-    private void process(Order o) {
+    /**
+     * Envoyer une commande en cuisine avec une échéance (ms) utilisée par EARLIEST_DEADLINE_FIRST
+     */
+    public void submitOrder(Order o, long deadline) {
+        o.setSubmittedNanos(System.nanoTime());
+        changeStatus(o, Order.Status.IN_PREPARATION);
+        KitchenTicket ticket = new KitchenTicket(o, ticketSeq.incrementAndGet(), System.currentTimeMillis(),
+            deadline, estimatePrepMillis(o));
+        ticket.setPriority(policy.rank(ticket) + (long) (agingFactor * ticket.getSubmittedAt()));
+        if (stations.isEmpty()) {
+            queue.offer(ticket);
+        } else {
+            dispatchToStations(ticket);
+        }
+        log("🍳 Kitchen: received order " + o.getId() + " from " + o.getClientName());
+        log("   Queue position: " + getQueueSize() + " commande(s) en attente");
+    }
+
+    /**
+     * Découper un ticket en une partie par poste concerné (même priorité pour toutes les parties).
+     * Avec le regroupement, une partie par plat distinct, pour pouvoir la cuisiner avec celles d'autres commandes.
+     */
+    private void dispatchToStations(KitchenTicket ticket) {
+        Map<MenuItem.Station, Map<String, List<MenuItem>>> byStation = new EnumMap<>(MenuItem.Station.class);
+        for (MenuItem item : ticket.getOrder().getItems()) {
+            String key = batchCapacity > 1 ? item.getId() : "";
+            byStation.computeIfAbsent(item.getStation(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+        }
+        if (byStation.isEmpty()) {
+            // Commande sans plat: une partie vide pour qu'elle passe quand même READY
+            byStation.put(MenuItem.Station.HOT_LINE, Collections.singletonMap("", Collections.emptyList()));
+        }
+        int count = 0;
+        for (Map<String, List<MenuItem>> dishes : byStation.values()) {
+            count += dishes.size();
+        }
+        StationTicket.Parts parts = new StationTicket.Parts(count);
+        for (Map.Entry<MenuItem.Station, Map<String, List<MenuItem>>> e : byStation.entrySet()) {
+            Station station = stations.get(e.getKey());
+            for (List<MenuItem> items : e.getValue().values()) {
+                station.queue.offer(new StationTicket(ticket, e.getKey(), items, parts));
+            }
+            if (batchCapacity > 1) {
+                synchronized (station) {
+                    station.notifyAll(); // réveiller les cuisiniers qui complètent un lot
+                }
+            }
+        }
+    }
+
+    /**
+     * Boucle d'un cuisinier: attend le ticket le plus prioritaire, le prépare, recommence
+     */
+    private void cookLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                KitchenTicket ticket = queue.take(); // bloque jusqu'à une nouvelle commande
+                ticket.getOrder().setDequeuedNanos(System.nanoTime());
+                availableCooks.acquire(); // ce cuisinier devient occupé (un permit par cuisinier: ne bloque pas)
+                ticket.getOrder().setStartedNanos(System.nanoTime());
+                log("👨‍🍳 Un cuisinier a pris la commande " + ticket.getOrder().getId());
+                process(ticket);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void process(KitchenTicket ticket) {
+        Order o = ticket.getOrder();
         try {
-            System.out.println("🔥 Cuisinier commence à préparer " + o.getId());
-            // Simule le temps de préparation
-            Thread.sleep(2000 + (long)(Math.random() * 3000));
-            o.setStatus(Order.Status.READY);
-            System.out.println("✅ Kitchen: order READY " + o.getId() + " for " + o.getClientName());
-        } catch (InterruptedException e) { 
-            Thread.currentThread().interrupt(); 
+            log("🔥 Cuisinier commence à préparer " + o.getId());
+            for (OrderListener l : listeners) {
+                l.onPreparationStarted(o);
+            }
+            // Simule le temps de préparation: un tirage selon le profil des plats
+            long prep = prepTimeModel.sampleMillis(o.getItems(), ThreadLocalRandom.current());
+            Thread.sleep((long) (prep * prepTimeScale));
+            changeStatus(o, Order.Status.READY);
+            log("✅ Kitchen: order READY " + o.getId() + " for " + o.getClientName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
             // Libérer le cuisinier pour la prochaine commande
             availableCooks.release();
-            System.out.println("👨‍🍳 Cuisinier disponible pour une nouvelle commande");
+            log("👨‍🍳 Cuisinier disponible pour une nouvelle commande");
+        }
+    }
+
+    /**
+     * Boucle d'un cuisinier de poste: prépare la partie la plus prioritaire de son poste
+     */
+    private void stationLoop(Station station) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                StationTicket part = station.queue.take();
+                long dequeued = System.nanoTime();
+                List<StationTicket> batch = batchCapacity > 1 ? collectBatch(station, part)
+                    : Collections.singletonList(part);
+                availableCooks.acquire(); // un permit par cuisinier: ne bloque pas
+                station.busy.incrementAndGet();
+                processParts(station, batch, dequeued);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compléter un lot avec les parties du même plat en attente au poste, jusqu'à la capacité,
+     * en attendant au plus la fin de la fenêtre (comptée depuis l'arrivée de la commande en tête du lot)
+     */
+    private List<StationTicket> collectBatch(Station station, StationTicket head) throws InterruptedException {
+        List<StationTicket> batch = new ArrayList<>();
+        batch.add(head);
+        int dishes = head.getItems().size();
+        if (head.getItems().isEmpty()) {
+            return batch;
+        }
+        long windowEnd = head.getOrder().getSubmittedNanos() + batchWindowNanos;
+        synchronized (station) {
+            while (true) {
+                for (StationTicket other : station.queue) {
+                    if (dishes >= batchCapacity) {
+                        break;
+                    }
+                    // remove() départage deux cuisiniers du poste qui voudraient la même partie
+                    if (head.isSameDish(other) && dishes + other.getItems().size() <= batchCapacity
+                            && station.queue.remove(other)) {
+                        batch.add(other);
+                        dishes += other.getItems().size();
+                    }
+                }
+                long remaining = windowEnd - System.nanoTime();
+                if (dishes >= batchCapacity || remaining <= 0) {
+                    return batch;
+                }
+                TimeUnit.NANOSECONDS.timedWait(station, remaining);
+            }
+        }
+    }
+
+    /**
+     * Préparer une ou plusieurs parties cuisinées ensemble, puis faire avancer chacune des commandes
+     */
+    private void processParts(Station station, List<StationTicket> batch, long dequeued) {
+        StationTicket head = batch.get(0);
+        try {
+            int dishes = 0;
+            for (StationTicket part : batch) {
+                dishes += part.getItems().size();
+                if (part.markStarted()) {
+                    // Première partie prise en charge: la préparation de la commande commence
+                    Order o = part.getOrder();
+                    o.setDequeuedNanos(dequeued);
+                    o.setStartedNanos(System.nanoTime());
+                    for (OrderListener l : listeners) {
+                        l.onPreparationStarted(o);
+                    }
+                }
+            }
+            long prep;
+            if (batchCapacity > 1 && dishes > 0) {
+                // Même plat en plusieurs exemplaires: un temps de base, plus un surcoût par exemplaire
+                MenuItem dish = head.getItems().get(0);
+                long single = prepTimeModel.sampleMillis(Collections.singletonList(dish), ThreadLocalRandom.current());
+                prep = (long) (single * (1 + batchMarginalCost * (dishes - 1)) * prepTimeScale);
+                log("🔥 Poste " + station.id + ": lot de " + dishes + " x " + dish.getName()
+                    + " pour " + batch.size() + " commande(s)");
+            } else {
+                prep = (long) (prepTimeModel.sampleMillis(head.getItems(), ThreadLocalRandom.current()) * prepTimeScale);
+                log("🔥 Poste " + station.id + ": préparation de " + dishes + " plat(s) de " + head.getOrder().getId());
+            }
+            Thread.sleep(prep);
+            station.busyMillis.add(prep);
+            station.completedParts.add(batch.size());
+            station.batches.increment();
+            for (StationTicket part : batch) {
+                if (part.markDone()) {
+                    Order o = part.getOrder();
+                    changeStatus(o, Order.Status.READY);
+                    log("✅ Kitchen: order READY " + o.getId() + " for " + o.getClientName());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            station.busy.decrementAndGet();
+            availableCooks.release();
         }
     }
-    
+
+    /**
+     * Temps de préparation attendu (ms réelles) selon le PrepTimeModel
+     */
+    public long estimatePrepMillis(Order o) {
+        return (long) (prepTimeModel.estimateMillis(o.getItems()) * prepTimeScale);
+    }
+
+    private void changeStatus(Order o, Order.Status status) {
+        Order.Status previous = o.getStatus();
+        if (status == Order.Status.READY) {
+            o.setReadyNanos(System.nanoTime());
+        }
+        o.setStatus(status);
+        for (OrderListener l : listeners) {
+            l.onStatusChanged(o, previous);
+        }
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Arrêter la cuisine (les commandes en cours de préparation sont interrompues)
+     */
+    public void shutdown() {
+        cooks.shutdownNow();
+    }
+
     /**
      * Obtenir le nombre de cuisiniers disponibles
      */
     public int getAvailableCooksCount() {
         return availableCooks.availablePermits();
     }
-    
+
     /**
      * Obtenir le nombre total de cuisiniers
      */
     public int getTotalCooksCount() {
         return numberOfCooks;
     }
-    
+
     /**
-     * Obtenir le nombre de commandes en attente
+     * Obtenir le nombre de commandes en attente (en mode postes: parties de commandes en attente)
      */
     public int getQueueSize() {
-        return queue.size();
+        if (stations.isEmpty()) {
+            return queue.size();
+        }
+        int total = 0;
+        for (Station station : stations.values()) {
+            total += station.queue.size();
+        }
+        return total;
+    }
+
+    /**
+     * Charge de chaque poste, pour repérer le goulot d'étranglement (vide en mode cuisine unique)
+     */
+    public List<StationLoad> getStationLoads() {
+        List<StationLoad> loads = new ArrayList<>();
+        for (Station station : stations.values()) {
+            loads.add(new StationLoad(station.id, station.cooks, station.busy.get(), station.queue.size(),
+                station.completedParts.sum(), station.batches.sum(), station.busyMillis.sum()));
+        }
+        return loads;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * État d'un poste à un instant donné
+     */
+    public static final class StationLoad {
+        private final MenuItem.Station station;
+        private final int cooks;
+        private final int busy;
+        private final int queued;
+        private final long completedParts;
+        private final long batches;
+        private final long busyMillis;
+
+        StationLoad(MenuItem.Station station, int cooks, int busy, int queued, long completedParts, long batches,
+                    long busyMillis) {
+            this.station = station;
+            this.cooks = cooks;
+            this.busy = busy;
+            this.queued = queued;
+            this.completedParts = completedParts;
+            this.batches = batches;
+            this.busyMillis = busyMillis;
+        }
+
+        public MenuItem.Station getStation() { return station; }
+        public int getCooks() { return cooks; }
+        /** Cuisiniers du poste en train de préparer */
+        public int getBusy() { return busy; }
+        /** Parties de commandes en attente au poste */
+        public int getQueued() { return queued; }
+        public long getCompletedParts() { return completedParts; }
+        /** Préparations lancées: égal aux parties sans regroupement, plus petit quand des plats sont cuisinés ensemble */
+        public long getBatches() { return batches; }
+        /** Temps de préparation cumulé au poste (ms réelles) */
+        public long getBusyMillis() { return busyMillis; }
+    }
+
+    /**
+     * Configuration de la cuisine (optionnel)
+     */
+    public static class Builder {
+        private int cooks = 2;
+        private final Map<MenuItem.Station, Integer> stationCooks = new EnumMap<>(MenuItem.Station.class);
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+        private SchedulingPolicy policy = SchedulingPolicy.FIFO;
+        private double agingFactor = 0.5;
+        private double prepTimeScale = 1.0;
+        private PrepTimeModel prepTimeModel = PrepTimeModel.PARALLEL_STATIONS;
+        private boolean verbose = true;
+        private int batchCapacity = 1;
+        private long batchWindowMillis;
+        private double batchMarginalCost = DEFAULT_BATCH_MARGINAL_COST;
+
+        public Builder cooks(int cooks) {
+            if (cooks < 1) {
+                throw new IllegalArgumentException("Il faut au moins un cuisinier");
+            }
+            this.cooks = cooks;
+            return this;
+        }
+
+        /**
+         * Passer en mode postes: nombre de cuisiniers d'un poste (1 par défaut pour les postes non précisés).
+         * Le nombre total de cuisiniers devient la somme des postes, cooks() est alors ignoré.
+         */
+        public Builder stationCooks(MenuItem.Station station, int cooks) {
+            if (cooks < 1) {
+                throw new IllegalArgumentException("Il faut au moins un cuisinier par poste");
+            }
+            this.stationCooks.put(station, cooks);
+            return this;
+        }
+
+        /**
+         * Regrouper les plats identiques (mode postes): au plus capacity exemplaires par lot, en attendant
+         * au plus windowMillis (temps de cuisine, comme le prepTimeScale) après l'arrivée de la commande
+         */
+        public Builder batching(int capacity, long windowMillis) {
+            if (capacity < 1 || windowMillis < 0) {
+                throw new IllegalArgumentException("Capacité de lot >= 1 et fenêtre >= 0 attendues");
+            }
+            this.batchCapacity = capacity;
+            this.batchWindowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * Surcoût d'un exemplaire supplémentaire dans un lot (0 = le lot prend le temps d'un seul plat)
+         */
+        public Builder batchMarginalCost(double batchMarginalCost) {
+            this.batchMarginalCost = batchMarginalCost;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        public Builder policy(SchedulingPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Rang gagné par milliseconde d'attente (0 = pas de vieillissement)
+         */
+        public Builder agingFactor(double agingFactor) {
+            this.agingFactor = agingFactor;
+            return this;
+        }
+
+        /**
+         * Facteur appliqué aux temps de préparation simulés (ex: 0.01 pour les benchmarks)
+         */
+        public Builder prepTimeScale(double prepTimeScale) {
+            this.prepTimeScale = prepTimeScale;
+            return this;
+        }
+
+        /**
+         * Calcul du temps de préparation d'une commande à partir de ses plats
+         */
+        public Builder prepTimeModel(PrepTimeModel prepTimeModel) {
+            this.prepTimeModel = prepTimeModel;
+            return this;
+        }
+
+        public Builder verbose(boolean verbose) {
+            this.verbose = verbose;
+            return this;
+        }
+
+        public KitchenService build() {
+            if (batchCapacity > 1 && stationCooks.isEmpty()) {
+                throw new IllegalStateException("Le regroupement des plats demande le mode postes (stationCooks)");
+            }
+            return new KitchenService(this);
+        }
     }
 }
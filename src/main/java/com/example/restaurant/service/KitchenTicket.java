@@ -0,0 +1,37 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+/**
+ * Ticket de cuisine: une commande en attente d'un cuisinier,
+ * avec ce dont une politique d'ordonnancement a besoin (arrivée, échéance, estimation).
+ * Créé par KitchenService, ou par le simulateur qui applique les mêmes politiques sur une horloge virtuelle.
+ */
+public class KitchenTicket {
+    private final Order order;
+    private final long seq;
+    private final long submittedAt;
+    private final long deadline;
+    private final long estimatedPrepMillis;
+    private long priority;
+
+    public KitchenTicket(Order order, long seq, long submittedAt, long deadline, long estimatedPrepMillis) {
+        this.order = order;
+        this.seq = seq;
+        this.submittedAt = submittedAt;
+        this.deadline = deadline;
+        this.estimatedPrepMillis = estimatedPrepMillis;
+    }
+
+    public Order getOrder() { return order; }
+    /** Numéro d'arrivée, départage les égalités de priorité */
+    public long getSeq() { return seq; }
+    /** Heure d'arrivée en cuisine (ms) */
+    public long getSubmittedAt() { return submittedAt; }
+    /** Heure à laquelle la commande devrait être prête (ms) */
+    public long getDeadline() { return deadline; }
+    public long getEstimatedPrepMillis() { return estimatedPrepMillis; }
+
+    long getPriority() { return priority; }
+    void setPriority(long priority) { this.priority = priority; }
+}
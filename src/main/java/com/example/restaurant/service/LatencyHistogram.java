@@ -0,0 +1,155 @@
+package com.example.restaurant.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées à précision relative constante (principe de HdrHistogram), sans verrou.
+ * Utilise:
+ * - des seaux log-linéaires: valeurs exactes jusqu'à 63, puis 32 seaux par puissance de 2 (erreur < 3,2 %)
+ * - AtomicLongArray: un compteur par seau, enregistrement en O(1) sans allocation
+ * - LongAdder / LongAccumulator: total, somme, minimum et maximum
+ *
+ * L'unité est libre (ms, µs...): l'histogramme ne fait que compter des valeurs entières positives.
+ * Les percentiles se lisent en O(nombre de seaux), indépendamment du nombre de valeurs enregistrées.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;        // 32
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;            // valeurs exactes sous 64
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Enregistrer une valeur (les valeurs négatives comptent comme 0)
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Valeur sous laquelle se trouvent p % des valeurs (borne haute du seau, plafonnée au maximum observé)
+     */
+    public long getPercentile(double p) {
+        long n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Remettre l'histogramme à zéro (les enregistrements concurrents peuvent être perdus)
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Copie figée des principaux indicateurs
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getCount(), getMean(), getMin(), getPercentile(50), getPercentile(90),
+            getPercentile(99), getPercentile(99.9), getMax());
+    }
+
+    static int bucketOf(long v) {
+        if (v < LINEAR_LIMIT) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket - (long) shift * SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Indicateurs d'un histogramme à un instant donné
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final double mean;
+        private final long min;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Snapshot(long count, double mean, long min, long p50, long p90, long p99, long p999, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.min = min;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public double getMean() { return mean; }
+        public long getMin() { return min; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+        public long getP999() { return p999; }
+        public long getMax() { return max; }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d moy=%.1f min=%d p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                count, mean, min, p50, p90, p99, p999, max);
+        }
+    }
+}
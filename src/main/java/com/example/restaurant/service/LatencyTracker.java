@@ -0,0 +1,109 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latences du cycle de vie des commandes, en microsecondes, mesurées à partir des horodatages de Order.
+ * Utilise:
+ * - LatencyHistogram par étape: enregistrement en O(1), sans verrou ni allocation
+ * - OrderListener ou LifecycleEventBus: les durées d'une commande sont enregistrées quand elle passe à READY
+ *
+ * Étapes mesurées:
+ * - attente en file: envoi en cuisine → sortie de la file
+ * - attente d'un cuisinier: sortie de la file → prise en charge
+ * - préparation: prise en charge → READY
+ * - de bout en bout: création → READY
+ * - affectation d'un serveur: demande du client → serveur réservé (alimenté par ServerManager)
+ */
+public class LatencyTracker implements LifecycleEventHandler {
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram cookWait = new LatencyHistogram();
+    private final LatencyHistogram preparation = new LatencyHistogram();
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private final LatencyHistogram serverAssignment = new LatencyHistogram();
+
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        if (event.getType() == LifecycleEvent.Type.ORDER_READY && event.getPrevious() != Order.Status.READY) {
+            recordReady(event.getOrder());
+        }
+    }
+
+    private void recordReady(Order order) {
+        long ready = order.getReadyNanos();
+        record(queueWait, order.getSubmittedNanos(), order.getDequeuedNanos());
+        record(cookWait, order.getDequeuedNanos(), order.getStartedNanos());
+        record(preparation, order.getStartedNanos(), ready);
+        record(endToEnd, order.getCreatedNanos(), ready);
+    }
+
+    /**
+     * Un serveur vient d'être réservé pour une demande faite à requestedNanos (System.nanoTime())
+     */
+    public void recordServerAssignment(long requestedNanos) {
+        recordServerAssignment(requestedNanos, System.nanoTime());
+    }
+
+    /**
+     * Même chose avec une heure d'affectation fournie (horloge virtuelle d'une simulation)
+     */
+    public void recordServerAssignment(long requestedNanos, long assignedNanos) {
+        record(serverAssignment, requestedNanos, assignedNanos);
+    }
+
+    private static void record(LatencyHistogram histogram, long fromNanos, long toNanos) {
+        // Étape non mesurée (commande rechargée, horodatage manquant): ignorée
+        if (fromNanos != 0 && toNanos != 0) {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(toNanos - fromNanos));
+        }
+    }
+
+    public LatencyHistogram getQueueWait() { return queueWait; }
+    public LatencyHistogram getCookWait() { return cookWait; }
+    public LatencyHistogram getPreparation() { return preparation; }
+    public LatencyHistogram getEndToEnd() { return endToEnd; }
+    public LatencyHistogram getServerAssignment() { return serverAssignment; }
+
+    /**
+     * Remettre toutes les mesures à zéro (ex: après la phase de chauffe d'un benchmark)
+     */
+    public void reset() {
+        queueWait.reset();
+        cookWait.reset();
+        preparation.reset();
+        endToEnd.reset();
+        serverAssignment.reset();
+    }
+
+    /**
+     * Indicateurs de chaque étape, dans l'ordre du cycle de vie (valeurs en µs)
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> stages = new LinkedHashMap<>();
+        stages.put("Affectation serveur", serverAssignment.snapshot());
+        stages.put("Attente en file", queueWait.snapshot());
+        stages.put("Attente cuisinier", cookWait.snapshot());
+        stages.put("Préparation", preparation.snapshot());
+        stages.put("De bout en bout", endToEnd.snapshot());
+        return stages;
+    }
+
+    /**
+     * Rapport texte, une ligne par étape, durées en millisecondes
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %8s %10s %10s %10s %10s %10s%n",
+            "Étape (ms)", "n", "moyenne", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : snapshot().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            sb.append(String.format("%-20s %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", e.getKey(), s.getCount(),
+                s.getMean() / 1000, s.getP50() / 1000.0, s.getP90() / 1000.0, s.getP99() / 1000.0, s.getMax() / 1000.0));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+/**
+ * Événement du cycle de vie d'une commande, tel que lu dans l'anneau du LifecycleEventBus.
+ * Les cases de l'anneau sont allouées une fois pour toutes et réécrites à chaque tour: un consommateur
+ * ne doit pas garder l'objet après onEvent (copier les champs utiles).
+ *
+ * Le statut porté est celui du moment de la publication: un consommateur en retard le lit ici,
+ * pas dans order.getStatus() qui a pu avancer depuis.
+ */
+public final class LifecycleEvent {
+
+    public enum Type {
+        /** Commande créée (statut RECEIVED) */
+        ORDER_CREATED,
+        /** Commande réintégrée (journal, sauvegarde): ce n'est pas une nouvelle commande */
+        ORDER_RESTORED,
+        /** Commande envoyée en cuisine (statut IN_PREPARATION, en file) */
+        ORDER_QUEUED,
+        /** Un cuisinier a pris la commande */
+        COOK_ASSIGNED,
+        /** Commande prête */
+        ORDER_READY,
+        /** Un serveur a été notifié d'une table à servir (order null) */
+        SERVER_NOTIFIED
+    }
+
+    private Type type;
+    private Order order;
+    private Order.Status previous;
+    private Order.Status status;
+    private String clientName;
+    private String serverName;
+    private long timestamp;
+    private long nanos;
+
+    /** Case du thread appelant pour les appels directs (OrderListener), réutilisée comme celles de l'anneau */
+    private static final ThreadLocal<LifecycleEvent> DIRECT = ThreadLocal.withInitial(LifecycleEvent::new);
+
+    LifecycleEvent() {}
+
+    /**
+     * Type d'un changement de statut: READY ou envoi en cuisine
+     */
+    static Type statusChangeType(Order.Status status) {
+        return status == Order.Status.READY ? Type.ORDER_READY : Type.ORDER_QUEUED;
+    }
+
+    /**
+     * Événement d'un appel direct (voir LifecycleEventHandler), rempli comme une publication sur le bus
+     */
+    static LifecycleEvent direct(Type type, Order order, Order.Status previous) {
+        LifecycleEvent event = DIRECT.get();
+        event.set(type, order, previous, order.getStatus(), order.getClientName(), null);
+        return event;
+    }
+
+    void set(Type type, Order order, Order.Status previous, Order.Status status,
+             String clientName, String serverName) {
+        this.type = type;
+        this.order = order;
+        this.previous = previous;
+        this.status = status;
+        this.clientName = clientName;
+        this.serverName = serverName;
+        this.timestamp = System.currentTimeMillis();
+        this.nanos = System.nanoTime();
+    }
+
+    /**
+     * Copie des champs d'une case de l'anneau (lecture par un consommateur, voir LifecycleEventBus)
+     */
+    void copyFrom(LifecycleEvent source) {
+        this.type = source.type;
+        this.order = source.order;
+        this.previous = source.previous;
+        this.status = source.status;
+        this.clientName = source.clientName;
+        this.serverName = source.serverName;
+        this.timestamp = source.timestamp;
+        this.nanos = source.nanos;
+    }
+
+    public Type getType() { return type; }
+    /** Commande concernée, null pour SERVER_NOTIFIED */
+    public Order getOrder() { return order; }
+    /** Statut avant la transition (ORDER_QUEUED, ORDER_READY), null sinon */
+    public Order.Status getPrevious() { return previous; }
+    /** Statut de la commande à la publication, null pour SERVER_NOTIFIED */
+    public Order.Status getStatus() { return status; }
+    public String getClientName() { return clientName; }
+    /** Serveur notifié (SERVER_NOTIFIED), null sinon */
+    public String getServerName() { return serverName; }
+    /** Heure de publication (ms) */
+    public long getTimestamp() { return timestamp; }
+    /** System.nanoTime() à la publication */
+    public long getNanos() { return nanos; }
+}
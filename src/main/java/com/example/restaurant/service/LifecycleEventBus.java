@@ -0,0 +1,431 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus d'événements du cycle de vie des commandes, sur le modèle du Disruptor.
+ * Utilise:
+ * - un anneau de LifecycleEvent préalloués (taille puissance de 2): publier réécrit une case, sans allocation
+ * - AtomicLong (curseur): chaque producteur (création, cuisiniers, dispatcher des serveurs) réserve sa séquence
+ *   par un seul incrément atomique, sans verrou
+ * - AtomicIntegerArray: tour d'écriture de chaque case, publié après les champs; un consommateur ne lit
+ *   une case qu'une fois son tour publié, et la recopie avant de la traiter (tour relu après la copie)
+ * - un thread et une séquence par consommateur: chacun lit l'anneau à son rythme, par lots, sans se coordonner
+ *   avec les autres; le producteur n'attend que si le consommateur le plus lent a un anneau entier de retard
+ * - attente des consommateurs: quelques tours actifs, yield, quelques park courts, puis park sans délai
+ *   jusqu'à ce qu'un producteur le réveille: un bus sans trafic ne consomme pas de CPU
+ *
+ * Un consommateur bloqué ne bloque pas la cuisine: si l'anneau reste plein plus de publishTimeoutMillis,
+ * les consommateurs en retard d'un anneau entier sont détachés (le producteur ne les attend plus).
+ * Un consommateur détaché saute les événements réécrits avant qu'il ne les lise (compteur getDroppedCount),
+ * puis est rattaché quand il a rattrapé son retard.
+ *
+ * À enregistrer avec OrderService.addOrderListener (le bus est le seul observateur appelé par la cuisine) et
+ * avec ServerManager.Builder.eventBus. Ajouter un consommateur ne coûte rien de plus au thread qui publie.
+ * Les consommateurs sont ajoutés avant start(); les événements publiés avant start() sont ignorés.
+ */
+public class LifecycleEventBus implements OrderListener {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final long DEFAULT_PUBLISH_TIMEOUT_MILLIS = 250;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final int PARK_TRIES = 20; // consommateur: park courts avant l'attente bloquante
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int WRITING = -2; // tour d'une case en cours de réécriture
+
+    private final LifecycleEvent[] ring;
+    private final int mask;
+    private final int shift;
+    private final long publishTimeoutNanos;
+    private final AtomicIntegerArray rounds; // tour publié de chaque case (-1: jamais écrite)
+    private final AtomicLong cursor = new AtomicLong(-1); // dernière séquence réservée
+    private final List<Processor> processors = new ArrayList<>();
+    private final AtomicInteger sleepers = new AtomicInteger(); // consommateurs en attente bloquante
+    private volatile long gatingCache = -1; // séquence minimale des consommateurs, vue récemment
+    private volatile boolean started = false;
+    private volatile boolean closed = false;
+
+    private final LongAdder producerWaits = new LongAdder();
+    private final LongAdder detachments = new LongAdder();
+
+    public LifecycleEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity nombre de cases de l'anneau (puissance de 2): retard maximal d'un consommateur
+     */
+    public LifecycleEventBus(int capacity) {
+        this(capacity, DEFAULT_PUBLISH_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param publishTimeoutMillis attente maximale d'un producteur devant un anneau plein,
+     *                             avant de détacher les consommateurs qui le bloquent
+     */
+    public LifecycleEventBus(int capacity, long publishTimeoutMillis) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacité doit être une puissance de 2");
+        }
+        if (publishTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Le délai de publication doit être > 0");
+        }
+        this.ring = new LifecycleEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new LifecycleEvent();
+        }
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(publishTimeoutMillis);
+        this.rounds = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            rounds.set(i, -1);
+        }
+    }
+
+    /**
+     * Ajouter un consommateur (avant start())
+     * @param name nom du thread du consommateur ("Events-" + name)
+     */
+    public synchronized LifecycleEventBus addHandler(String name, LifecycleEventHandler handler) {
+        if (started) {
+            throw new IllegalStateException("Bus déjà démarré: ajouter les consommateurs avant start()");
+        }
+        processors.add(new Processor(name, handler));
+        return this;
+    }
+
+    /**
+     * Démarrer les threads des consommateurs
+     */
+    public synchronized LifecycleEventBus start() {
+        if (started) {
+            return this;
+        }
+        for (Processor p : processors) {
+            p.thread = ExecutionMode.PLATFORM.startThread("Events-" + p.name, p);
+        }
+        started = true;
+        return this;
+    }
+
+    // ========== PUBLICATION ==========
+
+    @Override
+    public void onOrderCreated(Order order) {
+        publish(LifecycleEvent.Type.ORDER_CREATED, order, null, order.getStatus(), order.getClientName(), null);
+    }
+
+    @Override
+    public void onOrderRestored(Order order) {
+        publish(LifecycleEvent.Type.ORDER_RESTORED, order, null, order.getStatus(), order.getClientName(), null);
+    }
+
+    @Override
+    public void onPreparationStarted(Order order) {
+        publish(LifecycleEvent.Type.COOK_ASSIGNED, order, null, order.getStatus(), order.getClientName(), null);
+    }
+
+    @Override
+    public void onStatusChanged(Order order, Order.Status previous) {
+        Order.Status status = order.getStatus();
+        publish(LifecycleEvent.statusChangeType(status), order, previous, status, order.getClientName(), null);
+    }
+
+    /**
+     * Un serveur vient d'être notifié d'une table à servir (appelé par ServerManager)
+     */
+    public void onServerNotified(String serverName, String clientName) {
+        publish(LifecycleEvent.Type.SERVER_NOTIFIED, null, null, null, clientName, serverName);
+    }
+
+    private void publish(LifecycleEvent.Type type, Order order, Order.Status previous, Order.Status status,
+                         String clientName, String serverName) {
+        if (!started || closed) {
+            return;
+        }
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - ring.length;
+        if (wrapPoint > gatingCache) {
+            // Anneau peut-être plein: attendre que le consommateur le plus lent libère la case
+            long min;
+            int idle = 0;
+            long waitStart = 0;
+            while (wrapPoint > (min = minimumSequence())) {
+                if (idle == 0) {
+                    producerWaits.increment();
+                    waitStart = System.nanoTime();
+                } else if (System.nanoTime() - waitStart > publishTimeoutNanos) {
+                    detachLaggards(wrapPoint);
+                }
+                backoff(idle++);
+            }
+            gatingCache = min;
+        }
+        int index = (int) sequence & mask;
+        // Marquer la case avant de la réécrire: un consommateur détaché qui la recopie verra le tour changer
+        rounds.setOpaque(index, WRITING);
+        VarHandle.storeStoreFence();
+        ring[index].set(type, order, previous, status, clientName, serverName);
+        rounds.lazySet(index, (int) (sequence >>> shift));
+        // Le curseur a été incrémenté (barrière complète) avant cette lecture: un consommateur qui s'endort
+        // voit la nouvelle séquence, ou il est vu ici et réveillé
+        if (sleepers.get() > 0) {
+            wakeSleepers();
+        }
+    }
+
+    /**
+     * Séquence minimale des consommateurs attachés (le curseur s'il n'y en a aucun)
+     */
+    private long minimumSequence() {
+        long min = cursor.get();
+        for (Processor p : processors) {
+            if (p.attached.get()) {
+                min = Math.min(min, p.sequence.get());
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Anneau plein depuis publishTimeoutMillis: ne plus attendre les consommateurs qui ont un anneau de retard
+     */
+    private void detachLaggards(long wrapPoint) {
+        for (Processor p : processors) {
+            if (p.sequence.get() < wrapPoint && p.attached.compareAndSet(true, false)) {
+                detachments.increment();
+                System.err.println("⚠️ Consommateur " + p.name + " bloqué depuis plus de "
+                    + TimeUnit.NANOSECONDS.toMillis(publishTimeoutNanos) + " ms: détaché, ses événements en retard seront perdus");
+            }
+        }
+    }
+
+    private void wakeSleepers() {
+        for (Processor p : processors) {
+            if (p.sleeping) {
+                LockSupport.unpark(p.thread);
+            }
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return rounds.get((int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    /**
+     * La case de sequence a-t-elle déjà été réécrite pour un tour suivant ?
+     */
+    private boolean isOverwritten(long sequence) {
+        // WRITING peut être la publication de sequence elle-même: seul un tour supérieur est sûr
+        return rounds.get((int) sequence & mask) - (int) (sequence >>> shift) > 0;
+    }
+
+    private static void backoff(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(idle - SPIN_TRIES - YIELD_TRIES, 10)));
+        }
+    }
+
+    // ========== CONSOMMATION ==========
+
+    /**
+     * Thread d'un consommateur: lit toutes les cases publiées à la suite de sa séquence, puis avance la séquence
+     */
+    private final class Processor implements Runnable {
+        final String name;
+        final LifecycleEventHandler handler;
+        final AtomicLong sequence = new AtomicLong(-1); // dernière séquence traitée
+        final AtomicBoolean attached = new AtomicBoolean(true); // attendu par les producteurs
+        final LifecycleEvent copy = new LifecycleEvent(); // case recopiée, passée au consommateur
+        final LongAdder failures = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        volatile boolean sleeping = false;
+        volatile Thread thread;
+
+        Processor(String name, LifecycleEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            long next = sequence.get() + 1;
+            int idle = 0;
+            while (true) {
+                long last = next - 1;
+                long reserved = cursor.get();
+                while (last < reserved && isPublished(last + 1)) {
+                    last++;
+                }
+                boolean progressed = last >= next;
+                for (; next <= last; next++) {
+                    if (!read(next)) {
+                        break; // case réécrite pendant le lot: rattrapage ci-dessous
+                    }
+                    try {
+                        handler.onEvent(copy);
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                        System.err.println("Erreur du consommateur " + name + ": " + e);
+                    }
+                }
+                if (progressed) {
+                    sequence.lazySet(next - 1);
+                    idle = 0;
+                }
+                if (next <= cursor.get() && isOverwritten(next)) {
+                    next = skipOverwritten(next);
+                    continue;
+                }
+                if (!attached.get() && cursor.get() - next < ring.length / 2) {
+                    attach(next - 1);
+                }
+                if (progressed) {
+                    continue; // relire le curseur sans attendre
+                }
+                if (closed && next > cursor.get()) {
+                    return; // tout ce qui a été publié avant close() est traité
+                }
+                if (idle < SPIN_TRIES + YIELD_TRIES + PARK_TRIES) {
+                    backoff(idle++);
+                } else {
+                    await(next);
+                }
+            }
+        }
+
+        /**
+         * Recopier la case de sequence; false si elle a été réécrite avant ou pendant la copie
+         */
+        private boolean read(long sequence) {
+            int index = (int) sequence & mask;
+            int round = (int) (sequence >>> shift);
+            copy.copyFrom(ring[index]);
+            VarHandle.acquireFence(); // la copie est finie avant de relire le tour
+            return rounds.get(index) == round;
+        }
+
+        /**
+         * Consommateur détaché et dépassé: reprendre assez loin derrière le curseur pour ne pas être
+         * dépassé de nouveau tout de suite; les séquences sautées sont perdues pour ce consommateur
+         */
+        private long skipOverwritten(long next) {
+            long resume = Math.max(next, cursor.get() - ring.length / 2 + 1);
+            dropped.add(resume - next);
+            sequence.lazySet(resume - 1);
+            System.err.println("⚠️ Consommateur " + name + " dépassé: " + (resume - next) + " événement(s) perdu(s)");
+            return resume;
+        }
+
+        private void attach(long processed) {
+            // Les producteurs doivent relire les séquences: le cache peut être au-delà de celle-ci
+            gatingCache = Math.min(gatingCache, processed);
+            attached.set(true);
+            System.err.println("✓ Consommateur " + name + " rattaché");
+        }
+
+        /**
+         * Attente bloquante jusqu'à la prochaine publication (ou close())
+         */
+        private void await(long next) {
+            sleeping = true;
+            sleepers.incrementAndGet(); // barrière complète avant de relire le curseur
+            try {
+                if (next > cursor.get() && !closed) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                sleepers.decrementAndGet();
+                sleeping = false;
+            }
+        }
+    }
+
+    // ========== ÉTAT ==========
+
+    /** Événements publiés depuis le démarrage */
+    public long getPublishedCount() {
+        return cursor.get() + 1;
+    }
+
+    /** Événements publiés que le consommateur le plus lent n'a pas encore traités */
+    public long getBacklog() {
+        long min = cursor.get();
+        for (Processor p : processors) {
+            min = Math.min(min, p.sequence.get());
+        }
+        return cursor.get() - min;
+    }
+
+    /** Publications qui ont dû attendre un consommateur (anneau plein) */
+    public long getProducerWaits() {
+        return producerWaits.sum();
+    }
+
+    /** Exceptions levées par les consommateurs (l'événement est sauté, le consommateur continue) */
+    public long getHandlerFailures() {
+        long total = 0;
+        for (Processor p : processors) {
+            total += p.failures.sum();
+        }
+        return total;
+    }
+
+    /** Consommateurs détachés parce qu'ils bloquaient les producteurs */
+    public long getDetachmentCount() {
+        return detachments.sum();
+    }
+
+    /** Événements perdus par des consommateurs détachés (réécrits avant d'être lus) */
+    public long getDroppedCount() {
+        long total = 0;
+        for (Processor p : processors) {
+            total += p.dropped.sum();
+        }
+        return total;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Refuser les nouvelles publications et attendre que chaque consommateur ait traité les précédentes
+     */
+    public void close() {
+        closed = true;
+        for (Processor p : processors) {
+            LockSupport.unpark(p.thread);
+        }
+        for (Processor p : processors) {
+            Thread t = p.thread;
+            if (t == null) {
+                continue;
+            }
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
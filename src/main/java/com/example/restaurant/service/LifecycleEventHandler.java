@@ -0,0 +1,42 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+/**
+ * Consommateur du LifecycleEventBus.
+ * Chaque consommateur a son propre thread et reçoit tous les événements, dans l'ordre de publication:
+ * il peut être lent sans retarder la cuisine. S'il bloque les producteurs plus de publishTimeoutMillis
+ * (anneau plein), il est détaché et perd les événements réécrits avant qu'il ne les lise (voir LifecycleEventBus).
+ *
+ * Un consommateur peut aussi être enregistré directement comme OrderListener (OrderService.addOrderListener):
+ * chaque appel est converti en LifecycleEvent (case propre au thread appelant, réutilisée) et passe par onEvent,
+ * avec le même statut et la même heure que s'il avait été publié sur le bus. onEvent est alors appelé
+ * depuis le thread qui fait la transition.
+ */
+public interface LifecycleEventHandler extends OrderListener {
+
+    /**
+     * @param event copie d'une case de l'anneau, propre au consommateur et réutilisée après le retour de la méthode
+     */
+    void onEvent(LifecycleEvent event);
+
+    @Override
+    default void onOrderCreated(Order order) {
+        onEvent(LifecycleEvent.direct(LifecycleEvent.Type.ORDER_CREATED, order, null));
+    }
+
+    @Override
+    default void onOrderRestored(Order order) {
+        onEvent(LifecycleEvent.direct(LifecycleEvent.Type.ORDER_RESTORED, order, null));
+    }
+
+    @Override
+    default void onPreparationStarted(Order order) {
+        onEvent(LifecycleEvent.direct(LifecycleEvent.Type.COOK_ASSIGNED, order, null));
+    }
+
+    @Override
+    default void onStatusChanged(Order order, Order.Status previous) {
+        onEvent(LifecycleEvent.direct(LifecycleEvent.statusChangeType(order.getStatus()), order, previous));
+    }
+}
@@ -1,23 +1,28 @@
 package com.example.restaurant.service;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Classe pour gérer les notifications des serveurs
  */
 public class Notification {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private String id;
     private String serverUsername;
     private String clientName;
     private String message;
     private long timestamp;
-    private boolean read;
+    private final AtomicBoolean read = new AtomicBoolean(false);
+    private volatile long readAt;
     
     public Notification(String serverUsername, String clientName) {
-        this.id = "NOTIF-" + System.currentTimeMillis();
+        this.timestamp = System.currentTimeMillis();
+        this.id = "NOTIF-" + timestamp + "-" + SEQUENCE.incrementAndGet();
         this.serverUsername = serverUsername;
         this.clientName = clientName;
         this.message = "Venez à la table de " + clientName;
-        this.timestamp = System.currentTimeMillis();
-        this.read = false;
     }
     
     // Getters et Setters
@@ -26,8 +31,21 @@ public class Notification {
     public String getClientName() { return clientName; }
     public String getMessage() { return message; }
     public long getTimestamp() { return timestamp; }
-    public boolean isRead() { return read; }
-    public void setRead(boolean read) { this.read = read; }
+    public boolean isRead() { return read.get(); }
+    /** Heure de lecture (0 si non lue) */
+    public long getReadAt() { return readAt; }
+
+    /**
+     * Marquer comme lue (via NotificationInbox, qui tient le compte des non lues)
+     * @return true si la notification n'était pas encore lue
+     */
+    boolean markRead() {
+        if (read.compareAndSet(false, true)) {
+            readAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
     
     @Override
     public String toString() {
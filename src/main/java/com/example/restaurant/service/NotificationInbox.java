@@ -0,0 +1,138 @@
+package com.example.restaurant.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boîte de notifications d'un serveur, bornée en taille et en durée.
+ * - Au plus capacity notifications: la plus ancienne déjà lue est évincée pour faire de la place;
+ *   une non lue ne l'est qu'en dernier recours (compteur getDroppedUnreadCount)
+ * - Une notification lue disparaît après readTtlMillis, toute notification après staleTtlMillis
+ * - Nombre de non lues en O(1) (compteur atomique, lisible sans verrou)
+ *
+ * Ajouts et lectures sont protégés par le verrou de la boîte (un par serveur):
+ * le dispatcher et l'interface peuvent l'utiliser en même temps.
+ */
+public class NotificationInbox {
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final Deque<Notification> notifications = new ArrayDeque<>();
+    private final AtomicInteger unread = new AtomicInteger();
+    private final int capacity;
+    private final long readTtlMillis;
+    private final long staleTtlMillis;
+    private long lastSweep;
+    private long evicted;
+    private long droppedUnread;
+
+    public NotificationInbox(int capacity, long readTtlMillis, long staleTtlMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacité doit être >= 1");
+        }
+        this.capacity = capacity;
+        this.readTtlMillis = readTtlMillis;
+        this.staleTtlMillis = staleTtlMillis;
+    }
+
+    public synchronized void add(Notification notification) {
+        sweep(System.currentTimeMillis(), false);
+        while (notifications.size() >= capacity) {
+            forget(evictionCandidate());
+        }
+        notifications.addLast(notification);
+        if (!notification.isRead()) {
+            unread.incrementAndGet();
+        }
+    }
+
+    /**
+     * Copie des notifications encore valides, de la plus ancienne à la plus récente
+     */
+    public synchronized List<Notification> snapshot() {
+        sweep(System.currentTimeMillis(), true);
+        return new ArrayList<>(notifications);
+    }
+
+    /**
+     * Marquer une notification comme lue
+     * @return false si elle n'est plus (ou n'a jamais été) dans la boîte
+     */
+    public synchronized boolean markRead(String notificationId) {
+        for (Notification n : notifications) {
+            if (n.getId().equals(notificationId)) {
+                if (n.markRead()) {
+                    unread.decrementAndGet();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getUnreadCount() {
+        return unread.get();
+    }
+
+    public synchronized int size() {
+        return notifications.size();
+    }
+
+    /** Nombre de notifications évincées (capacité ou expiration) depuis la création */
+    public synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    /** Notifications évincées pour faire de la place avant d'avoir été lues (boîte pleine de non lues) */
+    public synchronized long getDroppedUnreadCount() {
+        return droppedUnread;
+    }
+
+    /**
+     * Retire et renvoie la plus ancienne notification lue, à défaut la plus ancienne non lue
+     */
+    private Notification evictionCandidate() {
+        Iterator<Notification> it = notifications.iterator();
+        while (it.hasNext()) {
+            Notification n = it.next();
+            if (n.isRead()) {
+                it.remove();
+                return n;
+            }
+        }
+        droppedUnread++;
+        return notifications.pollFirst();
+    }
+
+    /**
+     * Retire les notifications expirées; au plus une fois par seconde sauf si force
+     */
+    private void sweep(long now, boolean force) {
+        if (!force && now - lastSweep < SWEEP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastSweep = now;
+        Iterator<Notification> it = notifications.iterator();
+        while (it.hasNext()) {
+            Notification n = it.next();
+            boolean stale = now - n.getTimestamp() > staleTtlMillis;
+            boolean expiredRead = n.isRead() && now - n.getReadAt() > readTtlMillis;
+            if (stale || expiredRead) {
+                it.remove();
+                forget(n);
+            }
+        }
+    }
+
+    private void forget(Notification n) {
+        evicted++;
+        // Une notification évincée sans avoir été lue ne compte plus comme non lue; elle reste non lue
+        // pour qui l'a déjà obtenue par snapshot()
+        if (!n.isRead()) {
+            unread.decrementAndGet();
+        }
+    }
+}
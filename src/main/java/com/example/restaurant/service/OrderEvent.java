@@ -0,0 +1,43 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+/**
+ * Transition de statut d'une commande, telle que diffusée par OrderStatusPublisher.
+ * Copie immuable: l'abonné qui la reçoit plus tard voit l'état au moment de la transition.
+ */
+public class OrderEvent {
+    private final String orderId;
+    private final String clientName;
+    private final Order.Status previous;
+    private final Order.Status status;
+    private final long timestamp;
+    private final long publishedNanos;
+
+    /**
+     * Copie d'un événement du cycle de vie: heure de la transition, pas celle de la copie
+     */
+    OrderEvent(LifecycleEvent event) {
+        this.orderId = event.getOrder().getId();
+        this.clientName = event.getClientName();
+        this.previous = event.getPrevious();
+        this.status = event.getStatus();
+        this.timestamp = event.getTimestamp();
+        this.publishedNanos = event.getNanos();
+    }
+
+    public String getOrderId() { return orderId; }
+    public String getClientName() { return clientName; }
+    /** Statut précédent, null pour la création de la commande */
+    public Order.Status getPrevious() { return previous; }
+    public Order.Status getStatus() { return status; }
+    /** Heure de la transition (ms) */
+    public long getTimestamp() { return timestamp; }
+    /** System.nanoTime() à la transition, pour mesurer le délai de livraison */
+    public long getPublishedNanos() { return publishedNanos; }
+
+    @Override
+    public String toString() {
+        return orderId + " (" + clientName + "): " + (previous != null ? previous + " → " : "") + status;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+/**
+ * Observateur du cycle de vie des commandes.
+ * Appelé de manière synchrone par OrderService (création, rechargement) et KitchenService
+ * (début de préparation, changements de statut),
+ * depuis le thread qui effectue la transition: l'implémentation doit rester courte et thread-safe.
+ */
+public interface OrderListener {
+
+    /**
+     * Une commande vient d'être créée (statut RECEIVED)
+     */
+    default void onOrderCreated(Order order) {}
+
+    /**
+     * Une commande existante a été réintégrée (journal, sauvegarde): ce n'est pas une nouvelle commande
+     */
+    default void onOrderRestored(Order order) {}
+
+    /**
+     * Un cuisinier vient de prendre la commande et commence à la préparer (statut inchangé: IN_PREPARATION)
+     */
+    default void onPreparationStarted(Order order) {}
+
+    /**
+     * Le statut d'une commande vient de passer de previous à order.getStatus()
+     */
+    default void onStatusChanged(Order order, Order.Status previous) {}
+}
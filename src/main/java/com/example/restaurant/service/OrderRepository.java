@@ -0,0 +1,134 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stockage en mémoire des commandes, indexé et sans verrou global.
+ * Utilise:
+ * - ConcurrentHashMap: recherche par id
+ * - ConcurrentLinkedQueue par client: commandes d'un client dans l'ordre de création
+ * - ConcurrentSkipListMap par statut (clé = numéro de séquence): commandes d'un statut dans l'ordre de création
+ * - LongAdder par statut: compteurs mis à jour à chaque transition
+ *
+ * Les index de statut sont tenus à jour en écoutant la cuisine (OrderListener).
+ * Chaque requête coûte O(taille du résultat), indépendamment du nombre total de commandes.
+ */
+public class OrderRepository implements OrderListener {
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Order>> byClient = new ConcurrentHashMap<>();
+    private final Map<Order.Status, ConcurrentSkipListMap<Long, Order>> byStatus = new EnumMap<>(Order.Status.class);
+    private final Map<Order.Status, LongAdder> counters = new EnumMap<>(Order.Status.class);
+    private final Queue<Order> all = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Commande indexée + statut sous lequel elle est actuellement rangée
+     */
+    private static final class Entry {
+        final Order order;
+        final long seq;
+        Order.Status indexedStatus;
+
+        Entry(Order order, long seq) {
+            this.order = order;
+            this.seq = seq;
+        }
+    }
+
+    public OrderRepository() {
+        // EnumMap rempli une fois pour toutes: ensuite seulement lu, donc sûr entre threads
+        for (Order.Status status : Order.Status.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+            counters.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Ajouter une nouvelle commande
+     * @return false si une commande de même id est déjà connue (rien n'est ajouté)
+     */
+    public boolean add(Order order) {
+        Entry entry = new Entry(order, sequence.incrementAndGet());
+        if (byId.putIfAbsent(order.getId(), entry) != null) {
+            return false; // déjà connue
+        }
+        all.add(order);
+        byClient.computeIfAbsent(order.getClientName(), k -> new ConcurrentLinkedQueue<>()).add(order);
+        reindex(entry);
+        return true;
+    }
+
+    @Override
+    public void onStatusChanged(Order order, Order.Status previous) {
+        Entry entry = byId.get(order.getId());
+        if (entry != null) {
+            reindex(entry);
+        }
+    }
+
+    /**
+     * Range la commande sous son statut courant (verrou par commande, jamais global)
+     */
+    private void reindex(Entry entry) {
+        synchronized (entry) {
+            Order.Status current = entry.order.getStatus();
+            if (current == entry.indexedStatus) {
+                return;
+            }
+            if (entry.indexedStatus != null) {
+                byStatus.get(entry.indexedStatus).remove(entry.seq);
+                counters.get(entry.indexedStatus).decrement();
+            }
+            byStatus.get(current).put(entry.seq, entry.order);
+            counters.get(current).increment();
+            entry.indexedStatus = current;
+        }
+    }
+
+    public Order findById(String id) {
+        Entry entry = byId.get(id);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * Commandes d'un client, dans l'ordre de création
+     */
+    public List<Order> findByClient(String clientName) {
+        Queue<Order> orders = byClient.get(clientName);
+        return orders != null ? new ArrayList<>(orders) : Collections.emptyList();
+    }
+
+    /**
+     * Commandes ayant actuellement ce statut, dans l'ordre de création
+     */
+    public List<Order> findByStatus(Order.Status status) {
+        return new ArrayList<>(byStatus.get(status).values());
+    }
+
+    public long countByStatus(Order.Status status) {
+        return counters.get(status).sum();
+    }
+
+    public long count() {
+        return byId.size();
+    }
+
+    /**
+     * Toutes les commandes, dans l'ordre de création
+     */
+    public List<Order> findAll() {
+        return new ArrayList<>(all);
+    }
+}
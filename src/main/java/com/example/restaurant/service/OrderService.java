@@ -3,27 +3,105 @@ package com.example.restaurant.service;
 import com.example.restaurant.model.Order;
 import com.example.restaurant.model.MenuItem;
 
-import java.util.ArrayList;
+import java.security.SecureRandom;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class OrderService {
-    private final List<Order> orders = new ArrayList<>();
+    private static final int ORDER_ID_RANDOM_BYTES = 10;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+    private final OrderRepository repository = new OrderRepository();
     private final KitchenService kitchen;
+    private final List<OrderListener> listeners = new CopyOnWriteArrayList<>();
+
+    public OrderService(KitchenService kitchen) {
+        this.kitchen = kitchen;
+        // Les index par statut suivent les transitions faites par la cuisine
+        kitchen.addOrderListener(repository);
+    }
 
-    public OrderService(KitchenService kitchen) { 
-        this.kitchen = kitchen; 
+    /**
+     * Observer les créations de commandes et, via la cuisine, leurs changements de statut
+     */
+    public void addOrderListener(OrderListener listener) {
+        listeners.add(listener);
+        kitchen.addOrderListener(listener);
     }
 
-    public synchronized Order createOrder(String clientName, List<MenuItem> items) {
-        String id = "ORD-" + UUID.randomUUID().toString().substring(0, 8);
-        Order o = new Order(id, clientName, items);
-        orders.add(o);
+    public Order createOrder(String clientName, List<MenuItem> items) {
+        Order o = new Order(newOrderId(), clientName, items);
+        o.setCreatedNanos(System.nanoTime());
+        if (!repository.add(o)) {
+            throw new IllegalStateException("Id de commande déjà utilisé: " + o.getId());
+        }
+        for (OrderListener l : listeners) {
+            l.onOrderCreated(o);
+        }
         kitchen.submitOrder(o);
         return o;
     }
 
-    public synchronized List<Order> list() { 
-        return new ArrayList<>(orders); 
+    /**
+     * Id unique aussi face à l'historique (MySQL, archive, journal) que ce service ne voit pas:
+     * 80 bits d'aléa, collision improbable même après des milliards de commandes.
+     * En hexadécimal (insensible à la casse comme la collation MySQL), 24 octets: la taille maximale de l'archive.
+     */
+    private String newOrderId() {
+        byte[] bytes = new byte[ORDER_ID_RANDOM_BYTES];
+        random.nextBytes(bytes);
+        StringBuilder id = new StringBuilder(4 + 2 * bytes.length).append("ORD-");
+        for (byte b : bytes) {
+            id.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return id.toString();
+    }
+
+    /**
+     * Réintégrer des commandes rechargées (journal, sauvegarde) sans les signaler comme nouvelles.
+     * Les commandes qui n'étaient pas prêtes repartent en cuisine.
+     * @return nombre de commandes réintégrées
+     */
+    public int restore(List<Order> orders) {
+        int restored = 0;
+        for (Order o : orders) {
+            if (repository.findById(o.getId()) != null) {
+                continue; // déjà présente
+            }
+            repository.add(o);
+            restored++;
+            for (OrderListener l : listeners) {
+                l.onOrderRestored(o);
+            }
+            if (o.getStatus() != Order.Status.READY) {
+                kitchen.submitOrder(o);
+            }
+        }
+        return restored;
+    }
+
+    public List<Order> list() {
+        return repository.findAll();
+    }
+
+    public Order findById(String id) {
+        return repository.findById(id);
+    }
+
+    public List<Order> findByClient(String clientName) {
+        return repository.findByClient(clientName);
+    }
+
+    public List<Order> findByStatus(Order.Status status) {
+        return repository.findByStatus(status);
+    }
+
+    public long countByStatus(Order.Status status) {
+        return repository.countByStatus(status);
+    }
+
+    public long count() {
+        return repository.count();
     }
 }
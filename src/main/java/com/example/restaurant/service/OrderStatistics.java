@@ -0,0 +1,193 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques du service tenues à jour au fil des événements, lisibles en O(1) quel que soit
+ * le nombre de commandes passées depuis le début du service.
+ * Utilise:
+ * - LongAdder par statut: compteurs striés, sans contention entre cuisiniers et serveurs
+ * - RollingCounter: débit (commandes créées / prêtes) sur une fenêtre glissante de quelques minutes
+ * - DoubleAdder: chiffre d'affaires cumulé à partir de MenuItem.getPrice
+ * - LatencyHistogram: temps de préparation réels (ms), du cuisinier qui prend la commande jusqu'à READY
+ *
+ * Alimenté par OrderService et KitchenService (OrderListener) ou par le LifecycleEventBus,
+ * et par ServerManager (demandes de service).
+ */
+public class OrderStatistics implements LifecycleEventHandler {
+    /** Fenêtre du débit par défaut: 5 minutes */
+    public static final int DEFAULT_WINDOW_SECONDS = 300;
+
+    private final Map<Order.Status, LongAdder> byStatus = new EnumMap<>(Order.Status.class);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder cooking = new LongAdder();
+    private final LongAdder selfServiceRequests = new LongAdder();
+    private final LongAdder serverRequests = new LongAdder();
+    private final LongAdder tablesServed = new LongAdder();
+    private final DoubleAdder revenue = new DoubleAdder();
+    private final RollingCounter createdWindow;
+    private final RollingCounter readyWindow;
+    private final LatencyHistogram prepTimes = new LatencyHistogram();
+
+    public OrderStatistics() {
+        this(DEFAULT_WINDOW_SECONDS);
+    }
+
+    public OrderStatistics(int windowSeconds) {
+        // EnumMap rempli une fois pour toutes: ensuite seulement lu, donc sûr entre threads
+        for (Order.Status status : Order.Status.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        this.createdWindow = new RollingCounter(windowSeconds);
+        this.readyWindow = new RollingCounter(windowSeconds);
+    }
+
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        switch (event.getType()) {
+            case ORDER_CREATED:
+                include(event.getOrder(), event.getStatus());
+                createdWindow.increment(event.getTimestamp());
+                break;
+            case ORDER_RESTORED:
+                include(event.getOrder(), event.getStatus());
+                break;
+            case COOK_ASSIGNED:
+                cooking.increment();
+                break;
+            case ORDER_QUEUED:
+            case ORDER_READY:
+                transition(event.getOrder(), event.getPrevious(), event.getStatus(), event.getTimestamp());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void transition(Order order, Order.Status previous, Order.Status status, long timestamp) {
+        if (status == previous) {
+            return; // commande rechargée renvoyée en cuisine
+        }
+        byStatus.get(previous).decrement();
+        byStatus.get(status).increment();
+        if (status == Order.Status.READY) {
+            readyWindow.increment(timestamp);
+            if (order.getStartedNanos() != 0) {
+                cooking.decrement();
+                prepTimes.record(TimeUnit.NANOSECONDS.toMillis(order.getReadyNanos() - order.getStartedNanos()));
+            }
+        }
+    }
+
+    /**
+     * Un client a demandé le service (self-service ou appel d'un serveur)
+     */
+    public void recordServiceRequest(boolean selfService) {
+        (selfService ? selfServiceRequests : serverRequests).increment();
+    }
+
+    /**
+     * Un serveur a terminé de prendre la commande d'une table
+     */
+    public void recordTableServed() {
+        tablesServed.increment();
+    }
+
+    private void include(Order order, Order.Status status) {
+        total.increment();
+        byStatus.get(status).increment();
+        double amount = 0;
+        for (MenuItem item : order.getItems()) {
+            amount += item.getPrice();
+        }
+        revenue.add(amount);
+    }
+
+    public long getTotalOrders() {
+        return total.sum();
+    }
+
+    public long getCount(Order.Status status) {
+        return byStatus.get(status).sum();
+    }
+
+    public double getRevenue() {
+        return revenue.sum();
+    }
+
+    public LatencyHistogram getPrepTimes() {
+        return prepTimes;
+    }
+
+    /**
+     * Copie cohérente à quelques événements près, calculée en O(1)
+     */
+    public Snapshot snapshot() {
+        long now = System.currentTimeMillis();
+        int window = readyWindow.getWindowSeconds();
+        Snapshot s = new Snapshot();
+        s.totalOrders = total.sum();
+        s.received = getCount(Order.Status.RECEIVED);
+        s.inPreparation = getCount(Order.Status.IN_PREPARATION);
+        s.ready = getCount(Order.Status.READY);
+        s.cooking = cooking.sum();
+        s.revenue = revenue.sum();
+        s.selfServiceRequests = selfServiceRequests.sum();
+        s.serverRequests = serverRequests.sum();
+        s.tablesServed = tablesServed.sum();
+        s.windowSeconds = window;
+        s.createdLastMinute = createdWindow.sum(60, now);
+        s.readyLastMinute = readyWindow.sum(60, now);
+        s.readyPerMinute = readyWindow.sum(window, now) * 60.0 / window;
+        s.prepTimes = prepTimes.snapshot();
+        return s;
+    }
+
+    /**
+     * Statistiques à un instant donné
+     */
+    public static final class Snapshot {
+        private long totalOrders;
+        private long received;
+        private long inPreparation;
+        private long ready;
+        private long cooking;
+        private double revenue;
+        private long selfServiceRequests;
+        private long serverRequests;
+        private long tablesServed;
+        private int windowSeconds;
+        private long createdLastMinute;
+        private long readyLastMinute;
+        private double readyPerMinute;
+        private LatencyHistogram.Snapshot prepTimes;
+
+        private Snapshot() {}
+
+        public long getTotalOrders() { return totalOrders; }
+        public long getReceived() { return received; }
+        /** Commandes en cuisine: en file d'attente ou en cours de préparation */
+        public long getInPreparation() { return inPreparation; }
+        public long getReady() { return ready; }
+        /** Commandes entre les mains d'un cuisinier */
+        public long getCooking() { return cooking; }
+        public double getRevenue() { return revenue; }
+        public long getSelfServiceRequests() { return selfServiceRequests; }
+        public long getServerRequests() { return serverRequests; }
+        public long getTablesServed() { return tablesServed; }
+        public int getWindowSeconds() { return windowSeconds; }
+        public long getCreatedLastMinute() { return createdLastMinute; }
+        public long getReadyLastMinute() { return readyLastMinute; }
+        /** Commandes prêtes par minute, moyennées sur la fenêtre glissante */
+        public double getReadyPerMinute() { return readyPerMinute; }
+        /** Temps de préparation réels (ms) */
+        public LatencyHistogram.Snapshot getPrepTimes() { return prepTimes; }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.Order;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Diffusion des changements de statut des commandes aux écrans abonnés, au lieu de relister les commandes.
+ * Utilise:
+ * - Flow.Publisher: chaque abonné demande (request) le nombre d'événements qu'il peut absorber
+ * - un filtre par abonné (client, commande ou statut): un écran ne reçoit que ce qui le concerne
+ * - un tampon borné par abonné: un abonné lent perd ses événements les plus anciens (compteur getDropped),
+ *   il ne ralentit jamais la cuisine ni les autres abonnés
+ * - ExecutionMode: les livraisons se font hors des threads de la cuisine, une à la fois par abonné
+ *
+ * À enregistrer avec OrderService.addOrderListener, ou comme consommateur du LifecycleEventBus:
+ * création et transitions de statut sont alors publiées.
+ */
+public class OrderStatusPublisher implements LifecycleEventHandler, Flow.Publisher<OrderEvent> {
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+    private final List<StatusSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor;
+    private final int bufferCapacity;
+    private final LongAdder published = new LongAdder();
+    private volatile boolean closed = false;
+
+    public OrderStatusPublisher() {
+        this(ExecutionMode.PLATFORM, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * @param bufferCapacity événements gardés au plus par abonné en attente de sa demande
+     */
+    public OrderStatusPublisher(ExecutionMode executionMode, int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("La capacité du tampon doit être >= 1");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.executor = executionMode.effective().newExecutor("Order-Events-", 0);
+    }
+
+    /**
+     * Abonnement à toutes les commandes
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber) {
+        subscribe(subscriber, event -> true);
+    }
+
+    /**
+     * Abonnement filtré (voir forClient, forOrder, forStatus)
+     */
+    public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber, Predicate<OrderEvent> filter) {
+        StatusSubscription subscription = new StatusSubscription(subscriber, filter);
+        if (closed) {
+            subscription.completing = true;
+        } else {
+            subscriptions.add(subscription);
+        }
+        subscription.schedule(); // onSubscribe, puis onComplete si l'éditeur est déjà fermé
+    }
+
+    public static Predicate<OrderEvent> forClient(String clientName) {
+        return event -> clientName.equals(event.getClientName());
+    }
+
+    public static Predicate<OrderEvent> forOrder(String orderId) {
+        return event -> orderId.equals(event.getOrderId());
+    }
+
+    public static Predicate<OrderEvent> forStatus(Order.Status status) {
+        return event -> event.getStatus() == status;
+    }
+
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        switch (event.getType()) {
+            case ORDER_CREATED:
+            case ORDER_QUEUED:
+            case ORDER_READY:
+                publish(new OrderEvent(event));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void publish(OrderEvent event) {
+        if (closed) {
+            return;
+        }
+        published.increment();
+        for (StatusSubscription subscription : subscriptions) {
+            if (subscription.filter.test(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Terminer tous les abonnements (onComplete après les événements déjà en tampon) et arrêter les livraisons
+     */
+    public void close() {
+        closed = true;
+        for (StatusSubscription subscription : subscriptions) {
+            subscription.completing = true;
+            subscription.schedule();
+        }
+        subscriptions.clear();
+        executor.shutdown();
+    }
+
+    /**
+     * Abonnement d'un abonné: tampon borné, demande en attente, livraison sérialisée.
+     * Toutes les notifications (onSubscribe, onNext, onComplete, onError) passent par drain(),
+     * jamais exécuté par deux threads à la fois.
+     */
+    private final class StatusSubscription implements Flow.Subscription {
+        final Flow.Subscriber<? super OrderEvent> subscriber;
+        final Predicate<OrderEvent> filter;
+        private final ArrayDeque<OrderEvent> buffer = new ArrayDeque<>(); // protégé par this
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final LongAdder dropped = new LongAdder();
+        private boolean subscribed = false; // lu et écrit seulement dans drain()
+        private volatile boolean cancelled = false;
+        volatile boolean completing = false;
+        private volatile Throwable error;
+
+        StatusSubscription(Flow.Subscriber<? super OrderEvent> subscriber, Predicate<OrderEvent> filter) {
+            this.subscriber = subscriber;
+            this.filter = filter;
+        }
+
+        void offer(OrderEvent event) {
+            synchronized (this) {
+                if (buffer.size() == bufferCapacity) {
+                    buffer.pollFirst(); // abonné en retard: l'événement le plus ancien est perdu
+                    dropped.increment();
+                }
+                buffer.addLast(event);
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Règle 3.9 des Reactive Streams
+                error = new IllegalArgumentException("request(" + n + "): la demande doit être > 0");
+                completing = true;
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    wip.set(0); // éditeur fermé: plus de livraison possible
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                while (!cancelled && error == null && demand.get() > 0) {
+                    OrderEvent event;
+                    synchronized (this) {
+                        event = buffer.pollFirst();
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        cancel(); // un abonné qui lève une exception est désabonné
+                    }
+                }
+                if (!cancelled && completing) {
+                    boolean empty;
+                    synchronized (this) {
+                        empty = buffer.isEmpty();
+                    }
+                    if (error != null) {
+                        cancel();
+                        subscriber.onError(error);
+                    } else if (empty || demand.get() == 0) {
+                        // Fermeture: les événements que l'abonné n'a pas demandés ne seront jamais livrés
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        long getDropped() {
+            return dropped.sum();
+        }
+    }
+
+    /**
+     * Événements perdus par des abonnés trop lents (tampon plein), tous abonnés actifs confondus
+     */
+    public long getDroppedCount() {
+        long total = 0;
+        for (StatusSubscription subscription : subscriptions) {
+            total += subscription.getDropped();
+        }
+        return total;
+    }
+}
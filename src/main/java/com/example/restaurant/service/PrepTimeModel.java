@@ -0,0 +1,35 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Modèle du temps de préparation d'une commande à partir du profil de ses plats (MenuItem).
+ * Partagé par la cuisine réelle (KitchenService) et par le simulateur, pour que les projections
+ * de débit reposent sur les mêmes hypothèses que le service.
+ */
+public interface PrepTimeModel {
+
+    /**
+     * Temps de préparation attendu (ms), utilisé pour l'ordonnancement et les échéances
+     */
+    long estimateMillis(List<MenuItem> items);
+
+    /**
+     * Un tirage du temps de préparation réel (ms)
+     */
+    long sampleMillis(List<MenuItem> items, Random random);
+
+    /**
+     * Les postes (MenuItem.Station) travaillent en parallèle, les plats d'un même poste l'un après l'autre:
+     * la commande est prête quand le poste le plus chargé a terminé
+     */
+    PrepTimeModel PARALLEL_STATIONS = new StationPrepTimeModel(true);
+
+    /**
+     * Un seul cuisinier prépare tous les plats l'un après l'autre
+     */
+    PrepTimeModel SEQUENTIAL = new StationPrepTimeModel(false);
+}
@@ -0,0 +1,53 @@
+package com.example.restaurant.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteur d'événements sur une fenêtre glissante, par seaux d'une seconde réutilisés en anneau.
+ * Un seau est remis à zéro quand il est réutilisé pour une nouvelle seconde; au moment précis de ce
+ * passage, un incrément concurrent peut être perdu (précision suffisante pour un débit affiché).
+ */
+class RollingCounter {
+    private final int seconds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray stamps; // seconde (epoch) représentée par chaque seau
+
+    RollingCounter(int seconds) {
+        if (seconds < 1) {
+            throw new IllegalArgumentException("Fenêtre d'au moins une seconde");
+        }
+        this.seconds = seconds;
+        this.counts = new AtomicLongArray(seconds);
+        this.stamps = new AtomicLongArray(seconds);
+    }
+
+    void increment(long nowMillis) {
+        long second = nowMillis / 1000;
+        int i = (int) (second % seconds);
+        long stamp = stamps.get(i);
+        if (stamp != second && stamps.compareAndSet(i, stamp, second)) {
+            counts.set(i, 0);
+        }
+        counts.incrementAndGet(i);
+    }
+
+    /**
+     * Nombre d'événements des windowSeconds dernières secondes (seconde en cours comprise)
+     */
+    long sum(int windowSeconds, long nowMillis) {
+        long second = nowMillis / 1000;
+        int window = Math.min(windowSeconds, seconds);
+        long total = 0;
+        for (int i = 0; i < seconds; i++) {
+            long stamp = stamps.get(i);
+            if (stamp > second - window && stamp <= second) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    int getWindowSeconds() {
+        return seconds;
+    }
+}
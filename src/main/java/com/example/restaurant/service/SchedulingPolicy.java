@@ -0,0 +1,24 @@
+package com.example.restaurant.service;
+
+/**
+ * Politique d'ordonnancement de la cuisine: plus le rang est petit, plus le ticket passe tôt.
+ *
+ * Le vieillissement (aging) est appliqué par KitchenService: chaque milliseconde d'attente
+ * retire agingFactor au rang, ce qui empêche une grosse commande d'être doublée indéfiniment.
+ * Comme tous les tickets vieillissent au même rythme, ce bonus se calcule une fois pour toutes
+ * à l'arrivée (rang + agingFactor * heure d'arrivée) et la file de priorité reste valide.
+ */
+@FunctionalInterface
+public interface SchedulingPolicy {
+
+    long rank(KitchenTicket ticket);
+
+    /** Premier arrivé, premier servi */
+    SchedulingPolicy FIFO = KitchenTicket::getSubmittedAt;
+
+    /** Commande la plus rapide à préparer d'abord (estimation à partir des MenuItem) */
+    SchedulingPolicy SHORTEST_PREP_FIRST = KitchenTicket::getEstimatedPrepMillis;
+
+    /** Échéance la plus proche d'abord */
+    SchedulingPolicy EARLIEST_DEADLINE_FIRST = KitchenTicket::getDeadline;
+}
@@ -1,6 +1,7 @@
 package com.example.restaurant.service;
 
 import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
 import com.example.restaurant.model.ServerStaff;
 
 import java.util.ArrayList;
@@ -11,77 +12,112 @@ import java.util.concurrent.*;
 /**
  * ServerManager gère l'assignation des serveurs aux tables et les notifications.
  * Utilise:
- * - Semaphore: limite le nombre de serveurs disponibles et gère l'attente si tous sont occupés
+ * - ServerPool: réserve des serveurs libres (O(1), sans parcours), attente si tous sont occupés
  * - BlockingQueue: queue des demandes clients
- * - Streams + Lambda: pour trouver le premier serveur disponible
- * - Thread pool: pour gérer plusieurs serveurs en parallèle
- * - Map: pour stocker les notifications par serveur
+ * - Thread pool (ou threads virtuels selon l'ExecutionMode): pour gérer plusieurs serveurs en parallèle
+ * - Map: une NotificationInbox bornée par serveur
+ * - OrderStatistics (optionnel): demandes de service et tables servies
+ * - LatencyTracker (optionnel): délai entre la demande d'un client et l'affectation d'un serveur
+ * - LifecycleEventBus (optionnel): chaque notification de serveur y est publiée (SERVER_NOTIFIED)
  */
 public class ServerManager {
-    private final List<ServerStaff> servers = new ArrayList<>();
+    private final List<ServerStaff> servers = new CopyOnWriteArrayList<>();
     private final BlockingQueue<ClientRequest> requests = new LinkedBlockingQueue<>();
-    private final Semaphore available; // Contrôle le nombre de serveurs disponibles
+    private final ServerPool pool; // Serveurs libres
     private final OrderService orderService;
-    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final ExecutorService serverExecutor;
+    private final ExecutionMode executionMode;
+    private final double serviceTimeScale;
+    private final boolean verbose;
+    private final Thread dispatcherThread;
+    private final int notificationCapacity;
+    private final long notificationReadTtlMillis;
+    private final long notificationStaleTtlMillis;
+    private final OrderStatistics statistics; // null si non suivies
+    private final LatencyTracker latencyTracker; // null si non mesurées
+    private final LifecycleEventBus eventBus; // null si non publiées
     
     // Système de notifications pour les serveurs
-    private final Map<String, List<Notification>> serverNotifications = new ConcurrentHashMap<>();
+    private final Map<String, NotificationInbox> serverNotifications = new ConcurrentHashMap<>();
     private final Map<String, ClientRequest> serverCurrentRequest = new ConcurrentHashMap<>();
 
     public static class ClientRequest {
         public final String clientName;
         public final List<MenuItem> items;
         public final boolean selfService;
+        public final long requestedNanos; // System.nanoTime() à la création de la demande
         
         public ClientRequest(String clientName, List<MenuItem> items, boolean selfService) {
             this.clientName = clientName;
             this.items = items;
             this.selfService = selfService;
+            this.requestedNanos = System.nanoTime();
         }
     }
 
     public ServerManager(List<ServerStaff> serverList, OrderService orderService) {
-        this.servers.addAll(serverList);
-        this.available = new Semaphore(servers.size()); // Un permit par serveur
-        this.orderService = orderService;
+        this(new Builder(serverList, orderService));
+    }
+    
+    private ServerManager(Builder builder) {
+        this.servers.addAll(builder.servers);
+        this.pool = new ServerPool(servers, builder.allocation);
+        this.orderService = builder.orderService;
+        this.executionMode = builder.executionMode.effective();
+        this.serviceTimeScale = builder.serviceTimeScale;
+        this.verbose = builder.verbose;
+        this.notificationCapacity = builder.notificationCapacity;
+        this.notificationReadTtlMillis = builder.notificationReadTtlMillis;
+        this.notificationStaleTtlMillis = builder.notificationStaleTtlMillis;
+        this.statistics = builder.statistics;
+        this.latencyTracker = builder.latencyTracker;
+        this.eventBus = builder.eventBus;
+        this.serverExecutor = executionMode.newExecutor("Server-", 0);
         
         // Initialiser les notifications pour chaque serveur
-        servers.forEach(server -> serverNotifications.put(server.getName(), new ArrayList<>()));
+        servers.forEach(server -> serverNotifications.put(server.getName(), newInbox()));
         
-        // Thread dispatcher avec lambda
-        Thread dispatcher = new Thread(this::dispatch, "Server-Dispatcher");
-        dispatcher.setDaemon(true);
-        dispatcher.start();
+        // Thread dispatcher avec method reference
+        dispatcherThread = executionMode.startThread("Server-Dispatcher", this::dispatch);
     }
 
-    public void requestService(ClientRequest req) {
+    /**
+     * Traiter la demande d'un client: commande directe en self-service, sinon appel d'un serveur
+     * @return la commande créée en self-service, null quand un serveur est appelé
+     */
+    public Order requestService(ClientRequest req) {
+        if (statistics != null) {
+            statistics.recordServiceRequest(req.selfService);
+        }
         if (req.selfService) {
             // Self-service: le client passe sa commande directement
-            orderService.createOrder(req.clientName, req.items);
-            System.out.println("📱 Client (self-service) " + req.clientName + " placed order directly.");
+            Order order = orderService.createOrder(req.clientName, req.items);
+            log("📱 Client (self-service) " + req.clientName + " placed order directly.");
+            return order;
         } else {
             // Client appelle un serveur
             
             // Vérifier s'il y a des serveurs dans le système
-            if (servers.isEmpty()) {
+            if (pool.getTotalCount() == 0) {
                 System.out.println("❌ Aucun serveur n'est disponible dans le système.");
                 System.out.println("   Veuillez passer votre commande en SELF-SERVICE ou contacter l'admin.");
-                return;
+                return null;
             }
             
             requests.offer(req);
             
-            // Vérifier s'il y a des serveurs disponibles
-            long availableCount = servers.stream().filter(s -> !s.isBusy()).count();
+            // Vérifier s'il y a des serveurs disponibles (O(1))
+            int availableCount = pool.getAvailableCount();
             
             if (availableCount > 0) {
-                System.out.println("🔔 Client " + req.clientName + " a demandé un serveur.");
-                System.out.println("✅ Serveur disponible! Un serveur va venir prendre votre commande...");
+                log("🔔 Client " + req.clientName + " a demandé un serveur.");
+                log("✅ Serveur disponible! Un serveur va venir prendre votre commande...");
             } else {
-                System.out.println("🔔 Client " + req.clientName + " a demandé un serveur.");
-                System.out.println("⏳ Tous les " + servers.size() + " serveurs sont occupés. Vous êtes en file d'attente (position " + requests.size() + ")");
+                log("🔔 Client " + req.clientName + " a demandé un serveur.");
+                log("⏳ Tous les " + pool.getTotalCount() + " serveurs sont occupés. Vous êtes en file d'attente (position " + requests.size() + ")");
             }
         }
+        return null;
     }
 
     private void dispatch() {
@@ -89,31 +125,22 @@ public class ServerManager {
             try {
                 ClientRequest req = requests.take(); // Attend une demande
                 
-                // Attend qu'un serveur soit disponible
+                // Attend qu'un serveur soit disponible et le réserve atomiquement
                 // Si tous sont occupés, bloque jusqu'à libération
-                available.acquire();
-                
-                // STREAM + LAMBDA: trouve le premier serveur non occupé
-                ServerStaff server = servers.stream()
-                    .filter(s -> !s.isBusy())  // Lambda: filtre les serveurs libres
-                    .findFirst()               // Prend le premier disponible
-                    .orElse(null);
-                
-                if (server == null) {
-                    // Ne devrait pas arriver (semaphore garantit disponibilité)
-                    available.release();
-                    requests.offer(req); // Re-queue
-                    continue;
+                ServerStaff server = pool.acquire();
+                if (latencyTracker != null) {
+                    latencyTracker.recordServerAssignment(req.requestedNanos);
                 }
                 
-                server.setBusy(true);
-                
                 // Créer une notification pour le serveur
                 Notification notif = new Notification(server.getName(), req.clientName);
                 serverNotifications.get(server.getName()).add(notif);
                 serverCurrentRequest.put(server.getName(), req);
+                if (eventBus != null) {
+                    eventBus.onServerNotified(server.getName(), req.clientName);
+                }
                 
-                System.out.println("� NOTIFICATION envoyée à " + server.getName() + ": " + notif.getMessage());
+                log("� NOTIFICATION envoyée à " + server.getName() + ": " + notif.getMessage());
                 
                 // Lambda pour créer le Runnable
                 serverExecutor.submit(() -> handleWithServer(server, req));
@@ -128,31 +155,120 @@ public class ServerManager {
     private void handleWithServer(ServerStaff server, ClientRequest req) {
         try {
             // Simule: aller à la table, prendre la commande
-            Thread.sleep(500 + (long)(Math.random() * 800));
+            Thread.sleep((long) ((500 + Math.random() * 800) * serviceTimeScale));
             
         } catch (InterruptedException e) { 
             Thread.currentThread().interrupt(); 
         } finally {
             // LE SERVEUR DEVIENT LIBRE dès qu'il envoie la commande (comme demandé)
-            server.setBusy(false);
-            available.release(); // Libère un permit pour le prochain client
+            pool.release(server); // Disponible pour le prochain client
+            if (statistics != null) {
+                statistics.recordTableServed();
+            }
+        }
+    }
+    
+    private NotificationInbox newInbox() {
+        return new NotificationInbox(notificationCapacity, notificationReadTtlMillis, notificationStaleTtlMillis);
+    }
+    
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+    
+    /**
+     * Nombre de demandes de service en attente d'un serveur
+     */
+    public int getPendingRequestCount() {
+        return requests.size();
+    }
+    
+    /**
+     * Nombre de serveurs libres
+     */
+    public int getAvailableServersCount() {
+        return pool.getAvailableCount();
+    }
+    
+    /**
+     * Nombre de serveurs occupés
+     */
+    public int getBusyServersCount() {
+        return pool.getBusyCount();
+    }
+    
+    /**
+     * Nombre total de serveurs
+     */
+    public int getTotalServersCount() {
+        return pool.getTotalCount();
+    }
+    
+    /**
+     * Serveurs connus (libres ou occupés)
+     */
+    public List<ServerStaff> getServers() {
+        return new ArrayList<>(servers);
+    }
+    
+    /**
+     * Ajouter un serveur en cours de service (ex: nouveau compte SERVEUR créé par l'admin)
+     */
+    public void addServer(ServerStaff server) {
+        serverNotifications.computeIfAbsent(server.getName(), k -> newInbox());
+        servers.add(server);
+        pool.add(server);
+    }
+    
+    /**
+     * Retirer un serveur; s'il est en train de servir une table, il part à la fin du service
+     */
+    public void removeServer(String serverId) {
+        for (ServerStaff server : servers) {
+            if (server.getId().equals(serverId)) {
+                servers.remove(server);
+                pool.remove(server);
+            }
         }
     }
     
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+    
     /**
-     * Récupérer les notifications non lues d'un serveur
+     * Arrêter le dispatcher et les serveurs en cours de service
+     */
+    public void shutdown() {
+        dispatcherThread.interrupt();
+        serverExecutor.shutdownNow();
+    }
+    
+    /**
+     * Récupérer les notifications d'un serveur (copie: la boîte continue d'évoluer)
      */
     public List<Notification> getNotifications(String serverName) {
-        return serverNotifications.getOrDefault(serverName, new ArrayList<>());
+        NotificationInbox inbox = serverNotifications.get(serverName);
+        return inbox != null ? inbox.snapshot() : new ArrayList<>();
+    }
+    
+    /**
+     * Nombre de notifications non lues d'un serveur (O(1))
+     */
+    public int getUnreadNotificationCount(String serverName) {
+        NotificationInbox inbox = serverNotifications.get(serverName);
+        return inbox != null ? inbox.getUnreadCount() : 0;
     }
     
     /**
      * Marquer une notification comme lue
      */
-    public void markNotificationAsRead(String serverName, int index) {
-        List<Notification> notifs = serverNotifications.get(serverName);
-        if (notifs != null && index >= 0 && index < notifs.size()) {
-            notifs.get(index).setRead(true);
+    public void markNotificationAsRead(String serverName, String notificationId) {
+        NotificationInbox inbox = serverNotifications.get(serverName);
+        if (inbox != null) {
+            inbox.markRead(notificationId);
         }
     }
     
@@ -174,5 +290,98 @@ public class ServerManager {
             serverCurrentRequest.remove(serverName);
         }
     }
+    
+    /**
+     * Configuration du gestionnaire de serveurs (optionnel)
+     */
+    public static class Builder {
+        private final List<ServerStaff> servers;
+        private final OrderService orderService;
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+        private ServerPool.Allocation allocation = ServerPool.Allocation.ROUND_ROBIN;
+        private double serviceTimeScale = 1.0;
+        private boolean verbose = true;
+        private int notificationCapacity = 50;
+        private long notificationReadTtlMillis = 30 * 60 * 1000;       // 30 min après lecture
+        private long notificationStaleTtlMillis = 4 * 60 * 60 * 1000;  // 4 h dans tous les cas
+        private OrderStatistics statistics;
+        private LatencyTracker latencyTracker;
+        private LifecycleEventBus eventBus;
+        
+        public Builder(List<ServerStaff> servers, OrderService orderService) {
+            this.servers = servers;
+            this.orderService = orderService;
+        }
+        
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+        
+        /**
+         * Ordre de distribution des serveurs libres (ROUND_ROBIN par défaut: charge répartie)
+         */
+        public Builder allocation(ServerPool.Allocation allocation) {
+            this.allocation = allocation;
+            return this;
+        }
+        
+        /**
+         * Facteur appliqué au temps simulé passé à table (ex: 0.01 pour les tests de charge)
+         */
+        public Builder serviceTimeScale(double serviceTimeScale) {
+            this.serviceTimeScale = serviceTimeScale;
+            return this;
+        }
+        
+        public Builder verbose(boolean verbose) {
+            this.verbose = verbose;
+            return this;
+        }
+        
+        /**
+         * Nombre maximum de notifications conservées par serveur
+         */
+        public Builder notificationCapacity(int notificationCapacity) {
+            this.notificationCapacity = notificationCapacity;
+            return this;
+        }
+        
+        /**
+         * Durée de conservation d'une notification lue, et de toute notification
+         */
+        public Builder notificationTtl(long readTtlMillis, long staleTtlMillis) {
+            this.notificationReadTtlMillis = readTtlMillis;
+            this.notificationStaleTtlMillis = staleTtlMillis;
+            return this;
+        }
+        
+        /**
+         * Statistiques à alimenter avec les demandes de service
+         */
+        public Builder statistics(OrderStatistics statistics) {
+            this.statistics = statistics;
+            return this;
+        }
+        
+        /**
+         * Mesure du délai d'affectation d'un serveur
+         */
+        public Builder latencyTracker(LatencyTracker latencyTracker) {
+            this.latencyTracker = latencyTracker;
+            return this;
+        }
+        
+        /**
+         * Bus où publier les notifications envoyées aux serveurs
+         */
+        public Builder eventBus(LifecycleEventBus eventBus) {
+            this.eventBus = eventBus;
+            return this;
+        }
+        
+        public ServerManager build() {
+            return new ServerManager(this);
+        }
+    }
 }
-
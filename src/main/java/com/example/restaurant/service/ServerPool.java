@@ -0,0 +1,131 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.ServerStaff;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réserve des serveurs libres.
+ * Utilise:
+ * - ConcurrentLinkedDeque (sans verrou): les serveurs libres
+ * - Semaphore: un permit par serveur présent dans la deque
+ *
+ * Un serveur est toujours remis dans la deque AVANT que son permit soit libéré: détenir un permit garantit
+ * donc de trouver un serveur libre, sans parcours de la liste ni nouvel essai.
+ * Prise, restitution et comptage sont en O(1), quel que soit le nombre de serveurs.
+ * remove et release d'un même serveur sont sérialisés sur ce serveur: un serveur retiré pendant
+ * qu'il finit son service n'est jamais remis dans la deque.
+ */
+public final class ServerPool {
+
+    /**
+     * Ordre de distribution des serveurs libres
+     */
+    public enum Allocation {
+        /** Le serveur libre depuis le plus longtemps d'abord: la charge tourne entre tous */
+        ROUND_ROBIN,
+        /** Le dernier serveur libéré d'abord: concentre le travail sur peu de serveurs */
+        MOST_RECENTLY_FREED
+    }
+
+    private final Deque<ServerStaff> idle = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits = new Semaphore(0, true);
+    private final AtomicInteger total = new AtomicInteger();
+    private final Set<ServerStaff> retired = ConcurrentHashMap.newKeySet();
+    private final Allocation allocation;
+
+    public ServerPool(Collection<ServerStaff> servers, Allocation allocation) {
+        this.allocation = allocation;
+        servers.forEach(this::add);
+    }
+
+    /**
+     * Ajouter un serveur (libre) à la réserve
+     */
+    public void add(ServerStaff server) {
+        server.setBusy(false);
+        total.incrementAndGet();
+        idle.offerLast(server);
+        permits.release();
+    }
+
+    /**
+     * Retirer un serveur: immédiatement s'il est libre, sinon à la fin de son service en cours
+     */
+    public void remove(ServerStaff server) {
+        synchronized (server) {
+            if (permits.tryAcquire()) {
+                if (idle.remove(server)) {
+                    total.decrementAndGet();
+                    return;
+                }
+                permits.release();
+            }
+            // Occupé: release() le verra retiré, il ne peut pas le rendre entre-temps (même verrou)
+            retired.add(server);
+        }
+    }
+
+    /**
+     * Prendre un serveur libre; bloque jusqu'à ce qu'un serveur se libère
+     */
+    public ServerStaff acquire() throws InterruptedException {
+        permits.acquire();
+        return take();
+    }
+
+    /**
+     * Prendre un serveur libre s'il y en a un, sinon null
+     */
+    public ServerStaff tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return permits.tryAcquire(timeout, unit) ? take() : null;
+    }
+
+    private ServerStaff take() {
+        ServerStaff server = idle.pollFirst(); // jamais null: un permit = un serveur dans la deque
+        server.setBusy(true);
+        return server;
+    }
+
+    /**
+     * Rendre un serveur à la réserve à la fin de son service
+     */
+    public void release(ServerStaff server) {
+        server.setBusy(false);
+        synchronized (server) {
+            if (retired.remove(server)) {
+                total.decrementAndGet();
+                return;
+            }
+            if (allocation == Allocation.ROUND_ROBIN) {
+                idle.offerLast(server);
+            } else {
+                idle.offerFirst(server);
+            }
+            permits.release();
+        }
+    }
+
+    public int getAvailableCount() {
+        return permits.availablePermits();
+    }
+
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public int getBusyCount() {
+        return Math.max(0, getTotalCount() - getAvailableCount());
+    }
+
+    public Allocation getAllocation() {
+        return allocation;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.restaurant.service;
+
+/**
+ * Session d'un utilisateur connecté (un terminal de caisse, un écran de cuisine...).
+ * Identifiée par un jeton opaque: le terminal ne garde que le jeton et le présente à chaque opération.
+ */
+public class Session {
+    private final String token;
+    private final UserCredential user;
+    private final long createdAt;
+    private volatile long lastAccessNanos;
+
+    Session(String token, UserCredential user) {
+        this.token = token;
+        this.user = user;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    public String getToken() { return token; }
+    public UserCredential getUser() { return user; }
+    /** Heure de connexion (ms) */
+    public long getCreatedAt() { return createdAt; }
+
+    /**
+     * @return true si l'utilisateur a l'un des types donnés (ADMIN, SERVEUR, CUISINIER, CLIENT)
+     */
+    public boolean hasRole(String... userTypes) {
+        for (String type : userTypes) {
+            if (type.equals(user.getUserType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long getLastAccessNanos() { return lastAccessNanos; }
+    void touch(long nowNanos) { this.lastAccessNanos = nowNanos; }
+
+    @Override
+    public String toString() {
+        // Pas le jeton: il vaut mot de passe tant que la session est ouverte
+        return "Session " + user;
+    }
+}
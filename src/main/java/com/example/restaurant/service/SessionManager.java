@@ -0,0 +1,170 @@
+package com.example.restaurant.service;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Sessions ouvertes sur une même instance: autant de terminaux (caisses, écrans de cuisine) que nécessaire,
+ * sans état partagé entre eux.
+ * Utilise:
+ * - SecureRandom: jetons opaques de 256 bits, impossibles à deviner
+ * - ConcurrentHashMap: validation d'un jeton en O(1), sans verrou global
+ * - ScheduledExecutorService: ferme périodiquement les sessions inactives depuis plus que le délai d'inactivité
+ *   (une session expirée est aussi refusée dès sa validation, sans attendre le balayage)
+ */
+public final class SessionManager {
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    private static final int TOKEN_BYTES = 32;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public SessionManager() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public SessionManager(long idleTimeoutMillis) {
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Le délai d'inactivité doit être > 0");
+        }
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Session-Sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(60_000, idleTimeoutMillis / 2));
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ouvrir une session pour un utilisateur authentifié
+     */
+    public Session open(UserCredential user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(encoder.encodeToString(bytes), user);
+        sessions.put(session.getToken(), session);
+        opened.increment();
+        return session;
+    }
+
+    /**
+     * Valider un jeton et repousser l'expiration de la session
+     * @return la session, ou null si le jeton est inconnu, fermé ou expiré
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.getLastAccessNanos() > idleTimeoutNanos) {
+            if (sessions.remove(token, session)) {
+                expired.increment();
+            }
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Valider un jeton et vérifier le type de l'utilisateur
+     * @return la session si elle est valide et a l'un des types donnés, null sinon
+     */
+    public Session require(String token, String... userTypes) {
+        Session session = validate(token);
+        return session != null && session.hasRole(userTypes) ? session : null;
+    }
+
+    /**
+     * Fermer une session (déconnexion)
+     */
+    public void close(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * Fermer toutes les sessions d'un compte (utilisateur supprimé). Les sessions client ne sont pas
+     * concernées: leur nom n'est pas un compte.
+     * @return nombre de sessions fermées
+     */
+    public int closeAll(String username) {
+        return closeAll(username, user -> true);
+    }
+
+    /**
+     * Fermer les sessions d'un compte dont les credentials vérifient stale
+     * (mot de passe ou type changé depuis la connexion)
+     * @return nombre de sessions fermées
+     */
+    public int closeAll(String username, Predicate<UserCredential> stale) {
+        int count = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            UserCredential user = it.next().getUser();
+            if (!"CLIENT".equals(user.getUserType()) && username.equals(user.getUsername()) && stale.test(user)) {
+                it.remove();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fermer les sessions inactives depuis plus que le délai d'inactivité
+     * @return nombre de sessions fermées
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().getLastAccessNanos() > idleTimeoutNanos) {
+                it.remove();
+                count++;
+            }
+        }
+        expired.add(count);
+        return count;
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    /** Sessions ouvertes depuis le démarrage */
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    /** Sessions fermées pour inactivité */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Arrêter le balayage des sessions inactives (fin de l'application)
+     */
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Temps de préparation par poste: chaque plat suit une loi normale (moyenne, écart-type du MenuItem)
+ * tronquée à un quart de sa moyenne, les plats d'un même poste s'additionnent.
+ */
+final class StationPrepTimeModel implements PrepTimeModel {
+    private static final MenuItem.Station[] STATIONS = MenuItem.Station.values();
+    private static final double MIN_FRACTION_OF_MEAN = 0.25;
+
+    private final boolean parallel;
+
+    StationPrepTimeModel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public long estimateMillis(List<MenuItem> items) {
+        return combine(items, null);
+    }
+
+    @Override
+    public long sampleMillis(List<MenuItem> items, Random random) {
+        return combine(items, random);
+    }
+
+    private long combine(List<MenuItem> items, Random random) {
+        if (!parallel) {
+            long total = 0;
+            for (MenuItem item : items) {
+                total += duration(item, random);
+            }
+            return total;
+        }
+        long[] perStation = new long[STATIONS.length];
+        long longest = 0;
+        for (MenuItem item : items) {
+            int s = item.getStation().ordinal();
+            perStation[s] += duration(item, random);
+            longest = Math.max(longest, perStation[s]);
+        }
+        return longest;
+    }
+
+    private static long duration(MenuItem item, Random random) {
+        long mean = item.getPrepTimeMillis();
+        if (random == null || item.getPrepTimeStdDevMillis() == 0) {
+            return mean;
+        }
+        double sample = mean + random.nextGaussian() * item.getPrepTimeStdDevMillis();
+        return (long) Math.max(sample, mean * MIN_FRACTION_OF_MEAN);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Partie d'un ticket de cuisine destinée à un poste: les plats de la commande préparés à ce poste.
+ * Les parties d'une même commande partagent un compteur: la commande est READY quand la dernière se termine.
+ * Quand la cuisine regroupe les plats identiques, une partie ne contient qu'un seul plat (éventuellement en plusieurs exemplaires).
+ */
+final class StationTicket {
+    private final KitchenTicket ticket;
+    private final MenuItem.Station station;
+    private final List<MenuItem> items;
+    private final Parts parts;
+
+    /**
+     * État partagé par toutes les parties d'une commande
+     */
+    static final class Parts {
+        private final AtomicInteger remaining;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Parts(int count) {
+            this.remaining = new AtomicInteger(count);
+        }
+    }
+
+    StationTicket(KitchenTicket ticket, MenuItem.Station station, List<MenuItem> items, Parts parts) {
+        this.ticket = ticket;
+        this.station = station;
+        this.items = items;
+        this.parts = parts;
+    }
+
+    KitchenTicket getTicket() { return ticket; }
+    Order getOrder() { return ticket.getOrder(); }
+    MenuItem.Station getStation() { return station; }
+    List<MenuItem> getItems() { return items; }
+    long getPriority() { return ticket.getPriority(); }
+    long getSeq() { return ticket.getSeq(); }
+
+    /**
+     * @return true si les deux parties contiennent le même plat et peuvent être cuisinées ensemble
+     */
+    boolean isSameDish(StationTicket other) {
+        return !items.isEmpty() && !other.items.isEmpty()
+            && Objects.equals(items.get(0).getId(), other.items.get(0).getId());
+    }
+
+    /**
+     * @return true pour la première partie prise en charge par un cuisinier (début de préparation de la commande)
+     */
+    boolean markStarted() {
+        return parts.started.compareAndSet(false, true);
+    }
+
+    /**
+     * @return true si c'était la dernière partie: la commande est complète
+     */
+    boolean markDone() {
+        return parts.remaining.decrementAndGet() == 0;
+    }
+}
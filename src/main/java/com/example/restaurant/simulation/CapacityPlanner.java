@@ -0,0 +1,70 @@
+package com.example.restaurant.simulation;
+
+import com.example.restaurant.service.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dimensionnement de l'équipe: une même soirée (même graine) rejouée pour plusieurs nombres
+ * de cuisiniers et de serveurs, puis le rapport détaillé de la plus petite équipe qui tient l'objectif.
+ *
+ * Les temps de préparation du menu (1 à 4 s, pensés pour la démo) sont multipliés par 60 pour
+ * représenter des minutes, et le service à table par 60 aussi (30 s à 1 min 20 par table).
+ *
+ * Exécution: java -cp bin com.example.restaurant.simulation.CapacityPlanner [tables] [graine] [objectif p90 en minutes]
+ */
+public class CapacityPlanner {
+
+    public static void main(String[] args) {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        double targetMinutes = args.length > 2 ? Double.parseDouble(args[2]) : 20;
+
+        System.out.println("Simulation d'une soirée de 4 h: " + tables + " tables, graine " + seed
+            + ", objectif p90 arrivée → commande prête ≤ " + targetMinutes + " min");
+        System.out.printf("%-10s %-9s %12s %10s %10s %12s %12s %10s%n",
+            "Cuisiniers", "Serveurs", "commandes/h", "file cuis.", "file serv.", "p90 (min)", "p99 (min)", "calcul");
+
+        SimulationReport best = null;
+        for (int cooks = 20; cooks <= 50; cooks += 10) {
+            for (int servers = 3; servers <= 6; servers++) {
+                SimulationReport report = simulation(tables, seed, cooks, servers).run();
+                LatencyHistogram.Snapshot waiting = report.getLatencies().get(SimulationReport.TABLE_TO_READY);
+                double p90 = waiting.getP90() / 60e6;
+                System.out.printf("%-10d %-9d %12.0f %10d %10d %12.1f %12.1f %8d ms%n",
+                    cooks, servers, report.getOrdersPerHour(), report.getMaxKitchenQueue(),
+                    report.getMaxServerQueue(), p90, waiting.getP99() / 60e6, report.getWallMillis());
+                if (best == null && p90 <= targetMinutes) {
+                    best = report;
+                }
+            }
+        }
+
+        if (best == null) {
+            System.out.println("\n❌ Aucune équipe testée ne tient l'objectif");
+            return;
+        }
+        System.out.println("\n✅ Plus petite équipe qui tient l'objectif:");
+        System.out.print(best);
+
+        // Même graine, même résultat: la simulation est reproductible
+        SimulationReport again = simulation(tables, seed, best.getCooks(), best.getServers()).run();
+        boolean same = again.getOrdersServed() == best.getOrdersServed()
+            && again.getDurationMillis() == best.getDurationMillis()
+            && again.getLatencies().get(SimulationReport.TABLE_TO_READY).getP99()
+            == best.getLatencies().get(SimulationReport.TABLE_TO_READY).getP99();
+        System.out.println(same ? "✅ Résultat identique en rejouant la même graine" : "❌ Résultat différent avec la même graine");
+    }
+
+    private static RestaurantSimulation simulation(int tables, long seed, int cooks, int servers) {
+        return new RestaurantSimulation.Builder()
+            .tables(tables)
+            .seed(seed)
+            .cooks(cooks)
+            .servers(servers)
+            .evening(4, TimeUnit.HOURS)
+            .prepTimeScale(60)
+            .serviceTimeScale(60)
+            .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.restaurant.simulation;
+
+import java.util.PriorityQueue;
+
+/**
+ * Horloge virtuelle et file d'événements d'une simulation à événements discrets.
+ * Le temps n'avance qu'en sautant d'un événement au suivant: une soirée entière se joue
+ * en quelques millisecondes, sans thread ni Thread.sleep.
+ * Deux événements à la même heure s'exécutent dans l'ordre où ils ont été planifiés (résultat reproductible).
+ */
+public class EventScheduler {
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+    private long processed;
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long seq;
+        final Runnable action;
+
+        Event(long time, long seq, Runnable action) {
+            this.time = time;
+            this.seq = seq;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * @param startTime heure virtuelle de départ (ms)
+     */
+    public EventScheduler(long startTime) {
+        this.now = startTime;
+    }
+
+    /**
+     * Heure virtuelle courante (ms)
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Planifier une action dans delayMillis millisecondes virtuelles
+     */
+    public void schedule(long delayMillis, Runnable action) {
+        at(now + Math.max(0, delayMillis), action);
+    }
+
+    /**
+     * Planifier une action à une heure virtuelle donnée (jamais dans le passé)
+     */
+    public void at(long time, Runnable action) {
+        events.add(new Event(Math.max(time, now), sequence++, action));
+    }
+
+    /**
+     * Exécuter les événements jusqu'à ce qu'il n'en reste plus
+     */
+    public void run() {
+        Event e;
+        while ((e = events.poll()) != null) {
+            now = e.time;
+            processed++;
+            e.action.run();
+        }
+    }
+
+    /**
+     * Nombre d'événements exécutés
+     */
+    public long getProcessedCount() {
+        return processed;
+    }
+}
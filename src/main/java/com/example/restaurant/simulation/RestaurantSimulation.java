@@ -0,0 +1,406 @@
+package com.example.restaurant.simulation;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.KitchenService;
+import com.example.restaurant.service.KitchenTicket;
+import com.example.restaurant.service.LatencyHistogram;
+import com.example.restaurant.service.LatencyTracker;
+import com.example.restaurant.service.OrderListener;
+import com.example.restaurant.service.PrepTimeModel;
+import com.example.restaurant.service.SchedulingPolicy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation déterministe d'une soirée de service, pour dimensionner cuisiniers et serveurs.
+ * Utilise:
+ * - EventScheduler: horloge virtuelle, aucune attente réelle
+ * - Random initialisé avec une graine: deux exécutions avec la même configuration donnent le même résultat
+ * - les règles des services réels: SchedulingPolicy et vieillissement de KitchenService, même PrepTimeModel
+ *   pour les temps de préparation, service à table de 500 à 1300 ms comme ServerManager
+ * - LatencyTracker et OrderListener: les commandes simulées passent par les mêmes étapes
+ *   (création, file, prise en charge, READY) que celles de la cuisine, horodatées en temps virtuel
+ *
+ * En plus des étapes de LatencyTracker, le rapport contient l'attente vue par le client
+ * ("Table → prête"): de son arrivée, attente d'un serveur comprise, jusqu'à sa commande prête.
+ *
+ * Les tables arrivent selon un processus de Poisson réparti sur la durée de la soirée; une partie
+ * commande en self-service, les autres attendent un serveur avant que leur commande parte en cuisine.
+ */
+public class RestaurantSimulation {
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final int cooks;
+    private final int servers;
+    private final int tables;
+    private final long eveningMillis;
+    private final long openingTime;
+    private final double selfServiceRatio;
+    private final SchedulingPolicy policy;
+    private final double agingFactor;
+    private final double prepTimeScale;
+    private final PrepTimeModel prepTimeModel;
+    private final double serviceTimeScale;
+    private final long seed;
+    private final List<MenuItem> menu;
+    private final List<OrderListener> listeners = new CopyOnWriteArrayList<>();
+
+    private RestaurantSimulation(Builder builder) {
+        this.cooks = builder.cooks;
+        this.servers = builder.servers;
+        this.tables = builder.tables;
+        this.eveningMillis = builder.eveningMillis;
+        this.openingTime = builder.openingTime;
+        this.selfServiceRatio = builder.selfServiceRatio;
+        this.policy = builder.policy;
+        this.agingFactor = builder.agingFactor;
+        this.prepTimeScale = builder.prepTimeScale;
+        this.prepTimeModel = builder.prepTimeModel;
+        this.serviceTimeScale = builder.serviceTimeScale;
+        this.seed = builder.seed;
+        this.menu = new ArrayList<>(builder.menu);
+    }
+
+    /**
+     * Observer les commandes simulées (horodatages de Order exprimés en temps virtuel)
+     */
+    public void addOrderListener(OrderListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Jouer la soirée complète; chaque appel repart de zéro avec la même graine
+     */
+    public SimulationReport run() {
+        return new Run().play();
+    }
+
+    /**
+     * État d'une exécution: toutes les méthodes s'exécutent dans le thread appelant, au rythme des événements
+     */
+    private final class Run {
+        final EventScheduler scheduler = new EventScheduler(openingTime);
+        final Random random = new Random(seed);
+        final LatencyTracker latencies = new LatencyTracker();
+        final LatencyHistogram tableToReady = new LatencyHistogram();
+        final long[] arrivals = new long[tables];
+        final PriorityQueue<Ticket> kitchenQueue = new PriorityQueue<>(
+            Comparator.comparingLong((Ticket t) -> t.priority).thenComparingLong(t -> t.ticket.getSeq()));
+        final Queue<TableRequest> waitingTables = new ArrayDeque<>();
+        final TimeWeightedGauge kitchenQueueLength = new TimeWeightedGauge(openingTime);
+        final TimeWeightedGauge serverQueueLength = new TimeWeightedGauge(openingTime);
+        int freeCooks = cooks;
+        int freeServers = servers;
+        long cookBusyMillis;
+        long serverBusyMillis;
+        long ticketSeq;
+        int ordersCreated;
+        int ordersReady;
+        long lastReady = openingTime;
+
+        SimulationReport play() {
+            long wallStart = System.nanoTime();
+            scheduler.at(openingTime, () -> arrival(0));
+            scheduler.run();
+            long wallNanos = System.nanoTime() - wallStart;
+
+            long end = Math.max(lastReady, scheduler.now());
+            kitchenQueueLength.update(end, kitchenQueue.size());
+            serverQueueLength.update(end, waitingTables.size());
+            long elapsed = Math.max(1, end - openingTime);
+            return new SimulationReport(cooks, servers, tables, ordersReady, elapsed,
+                ordersReady * 3_600_000.0 / elapsed,
+                kitchenQueueLength.getMax(), kitchenQueueLength.average(end),
+                serverQueueLength.getMax(), serverQueueLength.average(end),
+                cookBusyMillis / ((double) cooks * elapsed),
+                servers > 0 ? serverBusyMillis / ((double) servers * elapsed) : 0,
+                latencySnapshot(), scheduler.getProcessedCount(), TimeUnit.NANOSECONDS.toMillis(wallNanos));
+        }
+
+        Map<String, LatencyHistogram.Snapshot> latencySnapshot() {
+            Map<String, LatencyHistogram.Snapshot> stages = latencies.snapshot();
+            stages.put(SimulationReport.TABLE_TO_READY, tableToReady.snapshot());
+            return stages;
+        }
+
+        void arrival(int table) {
+            arrivals[table] = scheduler.now();
+            if (servers == 0 || random.nextDouble() < selfServiceRatio) {
+                createOrder(table);
+            } else {
+                waitingTables.add(new TableRequest(table, scheduler.now()));
+                serverQueueLength.update(scheduler.now(), waitingTables.size());
+                assignServers();
+            }
+            if (table + 1 < tables) {
+                // Arrivées de Poisson: intervalles exponentiels de moyenne soirée / tables
+                double meanGap = (double) eveningMillis / tables;
+                scheduler.schedule((long) (-Math.log(1 - random.nextDouble()) * meanGap), () -> arrival(table + 1));
+            }
+        }
+
+        void assignServers() {
+            while (freeServers > 0 && !waitingTables.isEmpty()) {
+                TableRequest request = waitingTables.poll();
+                serverQueueLength.update(scheduler.now(), waitingTables.size());
+                freeServers--;
+                latencies.recordServerAssignment(nanos(request.requestedAt), nanos(scheduler.now()));
+                long serviceTime = (long) ((500 + random.nextDouble() * 800) * serviceTimeScale);
+                serverBusyMillis += serviceTime;
+                scheduler.schedule(serviceTime, () -> {
+                    freeServers++;
+                    createOrder(request.table);
+                    assignServers();
+                });
+            }
+        }
+
+        void createOrder(int table) {
+            int count = 1 + random.nextInt(4);
+            MenuItem[] items = new MenuItem[count];
+            for (int i = 0; i < count; i++) {
+                items[i] = menu.get(random.nextInt(menu.size()));
+            }
+            Order o = new Order("SIM-" + (++ordersCreated), "Table " + table, Arrays.asList(items));
+            long now = scheduler.now();
+            o.setCreatedNanos(nanos(now));
+            for (OrderListener l : listeners) {
+                l.onOrderCreated(o);
+            }
+
+            // Envoi en cuisine: même échéance et même rang que KitchenService.submitOrder
+            long estimate = estimatePrepMillis(o);
+            o.setSubmittedNanos(nanos(now));
+            changeStatus(o, Order.Status.IN_PREPARATION);
+            KitchenTicket ticket = new KitchenTicket(o, ++ticketSeq, now,
+                now + estimate + (long) (KitchenService.DEFAULT_DEADLINE_SLACK_MILLIS * prepTimeScale), estimate);
+            kitchenQueue.add(new Ticket(ticket, table, policy.rank(ticket) + (long) (agingFactor * now)));
+            kitchenQueueLength.update(now, kitchenQueue.size());
+            startCooking();
+        }
+
+        void startCooking() {
+            while (freeCooks > 0 && !kitchenQueue.isEmpty()) {
+                Ticket t = kitchenQueue.poll();
+                long now = scheduler.now();
+                kitchenQueueLength.update(now, kitchenQueue.size());
+                freeCooks--;
+                Order o = t.ticket.getOrder();
+                o.setDequeuedNanos(nanos(now));
+                o.setStartedNanos(nanos(now));
+                for (OrderListener l : listeners) {
+                    l.onPreparationStarted(o);
+                }
+                // Même tirage que KitchenService.process
+                long prep = (long) (prepTimeModel.sampleMillis(o.getItems(), random) * prepTimeScale);
+                cookBusyMillis += prep;
+                scheduler.schedule(prep, () -> {
+                    o.setReadyNanos(nanos(scheduler.now()));
+                    changeStatus(o, Order.Status.READY);
+                    tableToReady.record(TimeUnit.MILLISECONDS.toMicros(scheduler.now() - arrivals[t.table]));
+                    ordersReady++;
+                    lastReady = scheduler.now();
+                    freeCooks++;
+                    startCooking();
+                });
+            }
+        }
+
+        void changeStatus(Order o, Order.Status status) {
+            Order.Status previous = o.getStatus();
+            o.setStatus(status);
+            latencies.onStatusChanged(o, previous);
+            for (OrderListener l : listeners) {
+                l.onStatusChanged(o, previous);
+            }
+        }
+    }
+
+    private long estimatePrepMillis(Order o) {
+        return (long) (prepTimeModel.estimateMillis(o.getItems()) * prepTimeScale);
+    }
+
+    // Horodatages de Order en temps virtuel; l'heure d'ouverture n'est jamais 0 (0 = non mesuré)
+    private static long nanos(long virtualMillis) {
+        return virtualMillis * NANOS_PER_MILLI;
+    }
+
+    private static final class TableRequest {
+        final int table;
+        final long requestedAt;
+
+        TableRequest(int table, long requestedAt) {
+            this.table = table;
+            this.requestedAt = requestedAt;
+        }
+    }
+
+    private static final class Ticket {
+        final KitchenTicket ticket;
+        final int table;
+        final long priority;
+
+        Ticket(KitchenTicket ticket, int table, long priority) {
+            this.ticket = ticket;
+            this.table = table;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Longueur d'une file pondérée par le temps passé à chaque valeur
+     */
+    private static final class TimeWeightedGauge {
+        private long lastChange;
+        private int value;
+        private int max;
+        private double area;
+        private final long start;
+
+        TimeWeightedGauge(long start) {
+            this.start = start;
+            this.lastChange = start;
+        }
+
+        void update(long now, int newValue) {
+            area += (double) value * (now - lastChange);
+            lastChange = now;
+            value = newValue;
+            max = Math.max(max, newValue);
+        }
+
+        int getMax() {
+            return max;
+        }
+
+        double average(long end) {
+            return end > start ? area / (end - start) : 0;
+        }
+    }
+
+    /**
+     * Configuration de la soirée simulée
+     */
+    public static class Builder {
+        private int cooks = 2;
+        private int servers = 2;
+        private int tables = 1000;
+        private long eveningMillis = 4 * 60 * 60 * 1000;  // 19h-23h
+        private long openingTime = 19 * 60 * 60 * 1000;   // heure virtuelle du début (ms depuis minuit)
+        private double selfServiceRatio = 0.5;
+        private SchedulingPolicy policy = SchedulingPolicy.FIFO;
+        private double agingFactor = 0.5;
+        private double prepTimeScale = 1.0;
+        private double serviceTimeScale = 1.0;
+        private PrepTimeModel prepTimeModel = PrepTimeModel.PARALLEL_STATIONS;
+        private long seed = 42;
+        private List<MenuItem> menu = Arrays.asList(
+            new MenuItem("m1", "Pasta Carbonara", 12.5, 3000, 600, MenuItem.Station.HOT_LINE),
+            new MenuItem("m2", "Pizza Margherita", 11.0, 2500, 300, MenuItem.Station.OVEN),
+            new MenuItem("m3", "Caesar Salad", 8.0, 1500, 200, MenuItem.Station.COLD),
+            new MenuItem("m4", "Lasagna", 13.5, 4000, 500, MenuItem.Station.OVEN),
+            new MenuItem("m5", "Tiramisu", 6.5, 1000, 100, MenuItem.Station.PASTRY));
+
+        public Builder cooks(int cooks) {
+            if (cooks < 1) {
+                throw new IllegalArgumentException("Il faut au moins un cuisinier");
+            }
+            this.cooks = cooks;
+            return this;
+        }
+
+        /**
+         * Nombre de serveurs (0 = tout le monde commande en self-service)
+         */
+        public Builder servers(int servers) {
+            if (servers < 0) {
+                throw new IllegalArgumentException("Nombre de serveurs négatif");
+            }
+            this.servers = servers;
+            return this;
+        }
+
+        public Builder tables(int tables) {
+            if (tables < 1) {
+                throw new IllegalArgumentException("Il faut au moins une table");
+            }
+            this.tables = tables;
+            return this;
+        }
+
+        /**
+         * Durée pendant laquelle les tables arrivent
+         */
+        public Builder evening(long duration, TimeUnit unit) {
+            this.eveningMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Part des tables qui commandent en self-service (0 à 1)
+         */
+        public Builder selfServiceRatio(double selfServiceRatio) {
+            this.selfServiceRatio = selfServiceRatio;
+            return this;
+        }
+
+        public Builder policy(SchedulingPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder agingFactor(double agingFactor) {
+            this.agingFactor = agingFactor;
+            return this;
+        }
+
+        /**
+         * Facteur appliqué aux temps de préparation des MenuItem (ex: 60 pour des minutes au lieu de secondes)
+         */
+        public Builder prepTimeScale(double prepTimeScale) {
+            this.prepTimeScale = prepTimeScale;
+            return this;
+        }
+
+        /**
+         * Facteur appliqué au temps passé par un serveur à table
+         */
+        public Builder serviceTimeScale(double serviceTimeScale) {
+            this.serviceTimeScale = serviceTimeScale;
+            return this;
+        }
+
+        public Builder prepTimeModel(PrepTimeModel prepTimeModel) {
+            this.prepTimeModel = prepTimeModel;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder menu(List<MenuItem> menu) {
+            if (menu.isEmpty()) {
+                throw new IllegalArgumentException("Menu vide");
+            }
+            this.menu = menu;
+            return this;
+        }
+
+        public RestaurantSimulation build() {
+            return new RestaurantSimulation(this);
+        }
+    }
+}
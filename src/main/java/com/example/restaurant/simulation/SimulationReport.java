@@ -0,0 +1,93 @@
+package com.example.restaurant.simulation;
+
+import com.example.restaurant.service.LatencyHistogram;
+
+import java.util.Map;
+
+/**
+ * Résultat d'une soirée simulée: débit, longueurs de files, occupation et distribution des attentes
+ */
+public class SimulationReport {
+    /** Étape ajoutée par le simulateur: de l'arrivée de la table à sa commande prête */
+    public static final String TABLE_TO_READY = "Table → prête";
+
+    private final int cooks;
+    private final int servers;
+    private final int tables;
+    private final int ordersServed;
+    private final long durationMillis;
+    private final double ordersPerHour;
+    private final int maxKitchenQueue;
+    private final double avgKitchenQueue;
+    private final int maxServerQueue;
+    private final double avgServerQueue;
+    private final double cookUtilization;
+    private final double serverUtilization;
+    private final Map<String, LatencyHistogram.Snapshot> latencies;
+    private final long events;
+    private final long wallMillis;
+
+    SimulationReport(int cooks, int servers, int tables, int ordersServed, long durationMillis, double ordersPerHour,
+                     int maxKitchenQueue, double avgKitchenQueue, int maxServerQueue, double avgServerQueue,
+                     double cookUtilization, double serverUtilization,
+                     Map<String, LatencyHistogram.Snapshot> latencies, long events, long wallMillis) {
+        this.cooks = cooks;
+        this.servers = servers;
+        this.tables = tables;
+        this.ordersServed = ordersServed;
+        this.durationMillis = durationMillis;
+        this.ordersPerHour = ordersPerHour;
+        this.maxKitchenQueue = maxKitchenQueue;
+        this.avgKitchenQueue = avgKitchenQueue;
+        this.maxServerQueue = maxServerQueue;
+        this.avgServerQueue = avgServerQueue;
+        this.cookUtilization = cookUtilization;
+        this.serverUtilization = serverUtilization;
+        this.latencies = latencies;
+        this.events = events;
+        this.wallMillis = wallMillis;
+    }
+
+    public int getCooks() { return cooks; }
+    public int getServers() { return servers; }
+    public int getTables() { return tables; }
+    public int getOrdersServed() { return ordersServed; }
+    /** De l'ouverture à la dernière commande prête (ms virtuelles) */
+    public long getDurationMillis() { return durationMillis; }
+    public double getOrdersPerHour() { return ordersPerHour; }
+    public int getMaxKitchenQueue() { return maxKitchenQueue; }
+    /** Longueur moyenne de la file de la cuisine, pondérée par le temps */
+    public double getAvgKitchenQueue() { return avgKitchenQueue; }
+    public int getMaxServerQueue() { return maxServerQueue; }
+    public double getAvgServerQueue() { return avgServerQueue; }
+    /** Part du temps où les cuisiniers préparent (0 à 1) */
+    public double getCookUtilization() { return cookUtilization; }
+    public double getServerUtilization() { return serverUtilization; }
+    /** Distribution des attentes par étape (µs virtuelles), voir LatencyTracker */
+    public Map<String, LatencyHistogram.Snapshot> getLatencies() { return latencies; }
+    public long getEvents() { return events; }
+    /** Temps réel de calcul de la simulation */
+    public long getWallMillis() { return wallMillis; }
+
+    /**
+     * Rapport détaillé, attentes en secondes
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d cuisinier(s), %d serveur(s), %d tables: %d commandes en %.1f min (%.0f commandes/h)%n",
+            cooks, servers, tables, ordersServed, durationMillis / 60_000.0, ordersPerHour));
+        sb.append(String.format("File cuisine: max %d, moyenne %.1f | File serveurs: max %d, moyenne %.1f%n",
+            maxKitchenQueue, avgKitchenQueue, maxServerQueue, avgServerQueue));
+        sb.append(String.format("Occupation: cuisiniers %.0f %%, serveurs %.0f %%%n",
+            cookUtilization * 100, serverUtilization * 100));
+        sb.append(String.format("%-20s %8s %9s %9s %9s %9s %9s%n", "Attente (s)", "n", "moyenne", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : latencies.entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            sb.append(String.format("%-20s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", e.getKey(), s.getCount(),
+                s.getMean() / 1e6, s.getP50() / 1e6, s.getP90() / 1e6, s.getP99() / 1e6, s.getMax() / 1e6));
+        }
+        sb.append(String.format("(%d événements simulés en %d ms)%n", events, wallMillis));
+        return sb.toString();
+    }
+}
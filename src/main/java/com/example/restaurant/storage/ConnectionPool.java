@@ -0,0 +1,364 @@
+package com.example.restaurant.storage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de connexions JDBC borné.
+ * Utilise:
+ * - Semaphore: limite le nombre de connexions empruntées (poolMaxSize)
+ * - BlockingDeque: connexions physiques libres (LIFO, la plus "chaude" d'abord)
+ * - Proxy dynamique: close() rend la connexion au pool au lieu de la fermer
+ * - Thread daemon planifié: détection des connexions empruntées trop longtemps (fuites); la pile de l'emprunt
+ *   n'est capturée qu'avec DatabaseConfig.poolLeakStackTrace (débogage)
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final DatabaseConfig config;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakDetector;
+    private volatile boolean closed = false;
+    private volatile boolean driverLoaded = false;
+
+    // Statistiques
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder totalAcquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+
+    public ConnectionPool(DatabaseConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getPoolMaxSize(), true);
+
+        long threshold = config.getPoolLeakDetectionMillis();
+        if (threshold > 0) {
+            leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "Pool-LeakDetector");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, threshold / 2);
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            leakDetector = null;
+        }
+    }
+
+    /**
+     * Emprunter une connexion. Bloque au plus poolMaxWaitMillis si toutes sont utilisées.
+     * La connexion retourne au pool lors de son close().
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Le pool de connexions est fermé");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getPoolMaxWaitMillis(), TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.increment();
+                throw new SQLTransientConnectionException("Pool épuisé: aucune connexion disponible après "
+                    + config.getPoolMaxWaitMillis() + " ms (" + config.getPoolMaxSize() + " connexions en cours d'utilisation)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompu en attendant une connexion du pool", e);
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) {
+                    break;
+                }
+                discard(pc);
+            }
+            if (pc == null) {
+                pc = new PooledConnection(openPhysicalConnection());
+                totalConnections.incrementAndGet();
+                createdCount.increment();
+            }
+            pc.lend(config.getPoolLeakDetectionMillis() > 0 && config.isPoolLeakStackTrace());
+            borrowed.add(pc);
+
+            long elapsed = System.nanoTime() - start;
+            acquireCount.increment();
+            totalAcquireNanos.add(elapsed);
+            maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+            return pc.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        if (!driverLoaded) {
+            try {
+                Class.forName(config.getDriver());
+                driverLoaded = true;
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("Driver MySQL JDBC introuvable. Assurez-vous que mysql-connector-j est dans le classpath.", e);
+            }
+        }
+        return DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword());
+    }
+
+    /**
+     * Une connexion libre récemment rendue est réutilisée directement,
+     * sinon elle est validée (ping) avant d'être prêtée.
+     */
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            if (pc.physical.isClosed()) {
+                return false;
+            }
+            long idleFor = System.currentTimeMillis() - pc.lastReturnedAt;
+            if (idleFor < config.getPoolValidationIntervalMillis()) {
+                return true;
+            }
+            if (pc.physical.isValid(config.getPoolValidationTimeoutSeconds())) {
+                return true;
+            }
+        } catch (SQLException e) {
+            // connexion inutilisable
+        }
+        validationFailures.increment();
+        return false;
+    }
+
+    private void discard(PooledConnection pc) {
+        totalConnections.decrementAndGet();
+        try {
+            pc.physical.close();
+        } catch (SQLException e) {
+            // déjà fermée côté serveur
+        }
+    }
+
+    /**
+     * Appelé par le proxy quand le code appelant fait close()
+     */
+    private void giveBack(PooledConnection pc) {
+        borrowed.remove(pc);
+        boolean reusable = !closed;
+        try {
+            if (reusable && pc.physical.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !pc.physical.getAutoCommit()) {
+                // Ne jamais rendre une transaction entamée au suivant
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pc.lastReturnedAt = System.currentTimeMillis();
+            idle.offerFirst(pc);
+            // close() a pu vider idle entre la lecture de closed et l'ajout: celui qui retire la connexion la ferme
+            if (closed && idle.remove(pc)) {
+                discard(pc);
+            }
+        } else {
+            discard(pc);
+        }
+        permits.release();
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        long threshold = config.getPoolLeakDetectionMillis();
+        for (PooledConnection pc : borrowed) {
+            if (!pc.leakReported && now - pc.borrowedAt > threshold) {
+                pc.leakReported = true;
+                leaksDetected.increment();
+                System.err.println("⚠️ Fuite de connexion possible: empruntée depuis " + (now - pc.borrowedAt) + " ms sans close()"
+                    + (pc.borrowStack == null ? " (poolLeakStackTrace pour voir où)" : ""));
+                if (pc.borrowStack != null) {
+                    pc.borrowStack.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Photographie des statistiques du pool
+     */
+    public PoolStats getStats() {
+        long acquired = acquireCount.sum();
+        long avgNanos = acquired == 0 ? 0 : totalAcquireNanos.sum() / acquired;
+        return new PoolStats(
+            borrowed.size(),
+            idle.size(),
+            totalConnections.get(),
+            config.getPoolMaxSize(),
+            permits.getQueueLength(),
+            acquired,
+            acquireTimeouts.sum(),
+            createdCount.sum(),
+            validationFailures.sum(),
+            leaksDetected.sum(),
+            avgNanos,
+            maxAcquireNanos.get()
+        );
+    }
+
+    /**
+     * Fermer le pool: les connexions libres sont fermées immédiatement,
+     * les connexions empruntées le seront à leur retour.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    /**
+     * Connexion physique + état d'emprunt
+     */
+    private final class PooledConnection implements InvocationHandler {
+        final Connection physical;
+        volatile Connection proxy;
+        volatile long borrowedAt;
+        volatile long lastReturnedAt = System.currentTimeMillis();
+        volatile Throwable borrowStack;
+        volatile boolean leakReported;
+        private final AtomicBoolean lent = new AtomicBoolean();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        void lend(boolean captureStack) {
+            borrowedAt = System.currentTimeMillis();
+            borrowStack = captureStack ? new Throwable("Connexion empruntée ici") : null;
+            leakReported = false;
+            lent.set(true);
+            // Un nouveau proxy par emprunt: une référence gardée après close() ne peut pas réutiliser la connexion
+            proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    break;
+            }
+            if (p != proxy) {
+                // Proxy d'un emprunt précédent
+                if (name.equals("close")) return null;
+                if (name.equals("isClosed")) return true;
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            switch (name) {
+                case "close":
+                    // Deux close() concurrents: un seul rend la connexion (sinon deux fois dans idle)
+                    if (lent.compareAndSet(true, false)) {
+                        giveBack(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !lent.get() || physical.isClosed();
+                default:
+                    if (!lent.get()) {
+                        throw new SQLException("Connexion déjà rendue au pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Statistiques du pool (instantané immuable)
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxSize;
+        private final int waiting;
+        private final long acquireCount;
+        private final long acquireTimeouts;
+        private final long createdCount;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long avgAcquireNanos;
+        private final long maxAcquireNanos;
+
+        PoolStats(int active, int idle, int total, int maxSize, int waiting, long acquireCount,
+                  long acquireTimeouts, long createdCount, long validationFailures, long leaksDetected,
+                  long avgAcquireNanos, long maxAcquireNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.acquireCount = acquireCount;
+            this.acquireTimeouts = acquireTimeouts;
+            this.createdCount = createdCount;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.avgAcquireNanos = avgAcquireNanos;
+            this.maxAcquireNanos = maxAcquireNanos;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getMaxSize() { return maxSize; }
+        public int getWaiting() { return waiting; }
+        public long getAcquireCount() { return acquireCount; }
+        public long getAcquireTimeouts() { return acquireTimeouts; }
+        public long getCreatedCount() { return createdCount; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getAvgAcquireNanos() { return avgAcquireNanos; }
+        public long getMaxAcquireNanos() { return maxAcquireNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("Pool[actives=%d, libres=%d, total=%d/%d, en attente=%d, emprunts=%d, timeouts=%d, "
+                    + "créées=%d, invalides=%d, fuites=%d, acquisition moy=%.3f ms, max=%.3f ms]",
+                active, idle, total, maxSize, waiting, acquireCount, acquireTimeouts,
+                createdCount, validationFailures, leaksDetected,
+                avgAcquireNanos / 1_000_000.0, maxAcquireNanos / 1_000_000.0);
+        }
+    }
+}
@@ -5,41 +5,106 @@ package com.example.restaurant.storage;
  * Utilisé avec XAMPP/phpMyAdmin
  */
 public class DatabaseConfig {
-    
+
     // Configuration par défaut pour XAMPP
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/restaurant_db";
+    // rewriteBatchedStatements: executeBatch() envoie un seul INSERT multi-lignes au lieu d'une requête par ligne
+    // useCursorFetch: avec setFetchSize(), les lignes arrivent par paquets au lieu d'être toutes chargées d'un coup
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/restaurant_db"
+        + "?rewriteBatchedStatements=true&useCursorFetch=true";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = ""; // Par défaut vide pour XAMPP
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-    
+
+    // Dimensionnement par défaut du pool de connexions
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_MAX_WAIT_MILLIS = 5000;
+    private static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long POOL_VALIDATION_INTERVAL_MILLIS = 5000;
+    private static final long POOL_LEAK_DETECTION_MILLIS = 30000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final String driver;
+    private final int poolMaxSize;
+    private final long poolMaxWaitMillis;
+    private final int poolValidationTimeoutSeconds;
+    private final long poolValidationIntervalMillis;
+    private final long poolLeakDetectionMillis;
+    private final boolean poolLeakStackTrace;
+
+    private DatabaseConfig(Builder builder) {
+        this.url = builder.url;
+        this.user = builder.user;
+        this.password = builder.password;
+        this.driver = builder.driver;
+        this.poolMaxSize = builder.poolMaxSize;
+        this.poolMaxWaitMillis = builder.poolMaxWaitMillis;
+        this.poolValidationTimeoutSeconds = builder.poolValidationTimeoutSeconds;
+        this.poolValidationIntervalMillis = builder.poolValidationIntervalMillis;
+        this.poolLeakDetectionMillis = builder.poolLeakDetectionMillis;
+        this.poolLeakStackTrace = builder.poolLeakStackTrace;
+    }
+
+    /**
+     * Configuration par défaut (XAMPP local)
+     */
+    public static DatabaseConfig defaults() {
+        return new Builder().build();
+    }
+
     /**
      * Obtenir l'URL de connexion à la base de données
      */
     public static String getDbUrl() {
         return DB_URL;
     }
-    
+
     /**
      * Obtenir le nom d'utilisateur de la base de données
      */
     public static String getDbUser() {
         return DB_USER;
     }
-    
+
     /**
      * Obtenir le mot de passe de la base de données
      */
     public static String getDbPassword() {
         return DB_PASSWORD;
     }
-    
+
     /**
      * Obtenir le driver JDBC
      */
     public static String getDbDriver() {
         return DB_DRIVER;
     }
-    
+
+    // Getters de l'instance
+    public String getUrl() { return url; }
+    public String getUser() { return user; }
+    public String getPassword() { return password; }
+    public String getDriver() { return driver; }
+
+    /** Nombre maximum de connexions physiques ouvertes en même temps */
+    public int getPoolMaxSize() { return poolMaxSize; }
+
+    /** Temps d'attente maximum pour obtenir une connexion du pool */
+    public long getPoolMaxWaitMillis() { return poolMaxWaitMillis; }
+
+    /** Délai accordé à Connection.isValid() lors de la validation */
+    public int getPoolValidationTimeoutSeconds() { return poolValidationTimeoutSeconds; }
+
+    /** Une connexion inutilisée depuis plus longtemps est revalidée avant d'être prêtée */
+    public long getPoolValidationIntervalMillis() { return poolValidationIntervalMillis; }
+
+    /** Une connexion empruntée depuis plus longtemps est signalée comme fuite (0 = désactivé) */
+    public long getPoolLeakDetectionMillis() { return poolLeakDetectionMillis; }
+
+    /** Débogage: capturer la pile de chaque emprunt pour l'afficher avec la fuite (coûteux, désactivé par défaut) */
+    public boolean isPoolLeakStackTrace() { return poolLeakStackTrace; }
+
     /**
      * Configuration personnalisée (optionnel)
      */
@@ -47,24 +112,69 @@ public class DatabaseConfig {
         private String url = DB_URL;
         private String user = DB_USER;
         private String password = DB_PASSWORD;
-        
+        private String driver = DB_DRIVER;
+        private int poolMaxSize = POOL_MAX_SIZE;
+        private long poolMaxWaitMillis = POOL_MAX_WAIT_MILLIS;
+        private int poolValidationTimeoutSeconds = POOL_VALIDATION_TIMEOUT_SECONDS;
+        private long poolValidationIntervalMillis = POOL_VALIDATION_INTERVAL_MILLIS;
+        private long poolLeakDetectionMillis = POOL_LEAK_DETECTION_MILLIS;
+        private boolean poolLeakStackTrace = false;
+
         public Builder url(String url) {
             this.url = url;
             return this;
         }
-        
+
         public Builder user(String user) {
             this.user = user;
             return this;
         }
-        
+
         public Builder password(String password) {
             this.password = password;
             return this;
         }
-        
+
+        public Builder driver(String driver) {
+            this.driver = driver;
+            return this;
+        }
+
+        public Builder poolMaxSize(int poolMaxSize) {
+            if (poolMaxSize < 1) {
+                throw new IllegalArgumentException("poolMaxSize doit être >= 1");
+            }
+            this.poolMaxSize = poolMaxSize;
+            return this;
+        }
+
+        public Builder poolMaxWaitMillis(long poolMaxWaitMillis) {
+            this.poolMaxWaitMillis = poolMaxWaitMillis;
+            return this;
+        }
+
+        public Builder poolValidationTimeoutSeconds(int poolValidationTimeoutSeconds) {
+            this.poolValidationTimeoutSeconds = poolValidationTimeoutSeconds;
+            return this;
+        }
+
+        public Builder poolValidationIntervalMillis(long poolValidationIntervalMillis) {
+            this.poolValidationIntervalMillis = poolValidationIntervalMillis;
+            return this;
+        }
+
+        public Builder poolLeakDetectionMillis(long poolLeakDetectionMillis) {
+            this.poolLeakDetectionMillis = poolLeakDetectionMillis;
+            return this;
+        }
+
+        public Builder poolLeakStackTrace(boolean poolLeakStackTrace) {
+            this.poolLeakStackTrace = poolLeakStackTrace;
+            return this;
+        }
+
         public DatabaseConfig build() {
-            return new DatabaseConfig();
+            return new DatabaseConfig(this);
         }
     }
 }
@@ -1,10 +1,22 @@
 package com.example.restaurant.storage;
 
+import com.example.restaurant.model.MenuItem;
 import com.example.restaurant.service.UserCredential;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe pour gérer le stockage des données dans MySQL via JDBC
@@ -12,19 +24,54 @@ import java.util.List;
  */
 public class DatabaseStorage {
     
+    // Pool partagé, créé au premier accès avec la configuration par défaut
+    private static volatile ConnectionPool pool;
+    
+    /**
+     * Remplacer la configuration (et donc le pool) utilisée par DatabaseStorage
+     */
+    public static synchronized void configure(DatabaseConfig config) {
+        ConnectionPool old = pool;
+        pool = new ConnectionPool(config);
+        if (old != null) {
+            old.close();
+        }
+    }
+    
+    private static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseStorage.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(DatabaseConfig.defaults());
+                }
+                p = pool;
+            }
+        }
+        return p;
+    }
+    
+    /**
+     * Obtenir une connexion à la base de données (empruntée au pool, rendue par close())
+     */
+    static Connection getConnection() throws SQLException {
+        return getPool().getConnection();
+    }
+    
+    /**
+     * Statistiques du pool de connexions
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+    
     /**
-     * Obtenir une connexion à la base de données
+     * Fermer le pool de connexions (fin de l'application)
      */
-    private static Connection getConnection() throws SQLException {
-        try {
-            Class.forName(DatabaseConfig.getDbDriver());
-            return DriverManager.getConnection(
-                DatabaseConfig.getDbUrl(),
-                DatabaseConfig.getDbUser(),
-                DatabaseConfig.getDbPassword()
-            );
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Driver MySQL JDBC introuvable. Assurez-vous que mysql-connector-j est dans le classpath.", e);
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
     
@@ -54,13 +101,7 @@ public class DatabaseStorage {
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                UserCredential cred = new UserCredential();
-                cred.setUserId(rs.getString("user_id"));
-                cred.setUsername(rs.getString("username"));
-                cred.setPassword(rs.getString("password"));
-                cred.setUserType(rs.getString("user_type"));
-                cred.setDisplayName(rs.getString("display_name"));
-                credentials.add(cred);
+                credentials.add(readUserCredential(rs));
             }
             
         } catch (SQLException e) {
@@ -147,16 +188,11 @@ public class DatabaseStorage {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                UserCredential cred = new UserCredential();
-                cred.setUserId(rs.getString("user_id"));
-                cred.setUsername(rs.getString("username"));
-                cred.setPassword(rs.getString("password"));
-                cred.setUserType(rs.getString("user_type"));
-                cred.setDisplayName(rs.getString("display_name"));
-                return cred;
+            // La connexion retourne au pool: fermer explicitement le ResultSet
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return readUserCredential(rs);
+                }
             }
             
         } catch (SQLException e) {
@@ -166,8 +202,69 @@ public class DatabaseStorage {
         return null;
     }
     
+    /**
+     * Utilisateurs créés ou modifiés depuis sinceMillis (colonne updated_at), pour un rafraîchissement incrémental.
+     * Les suppressions n'apparaissent pas: elles ne laissent pas de ligne.
+     * @return null si la base est injoignable ou la requête échoue (à distinguer d'« aucune modification »)
+     */
+    public static List<UserCredential> readUserCredentialsChangedSince(long sinceMillis) {
+        List<UserCredential> credentials = new ArrayList<>();
+        String sql = "SELECT user_id, username, password, user_type, display_name FROM users WHERE updated_at >= ?";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setTimestamp(1, new Timestamp(sinceMillis));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    credentials.add(readUserCredential(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture des users modifiés depuis MySQL: " + e.getMessage());
+            return null;
+        }
+        
+        return credentials;
+    }
+    
+    /**
+     * Heure courante de la base (ms): repère des rafraîchissements incrémentaux, indépendant de l'horloge locale.
+     * @return -1 si la base est injoignable
+     */
+    public static long readDatabaseTimeMillis() {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            
+            if (rs.next()) {
+                return rs.getTimestamp(1).getTime();
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture de l'heure MySQL: " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    private static UserCredential readUserCredential(ResultSet rs) throws SQLException {
+        UserCredential cred = new UserCredential();
+        cred.setUserId(rs.getString("user_id"));
+        cred.setUsername(rs.getString("username"));
+        cred.setPassword(rs.getString("password"));
+        cred.setUserType(rs.getString("user_type"));
+        cred.setDisplayName(rs.getString("display_name"));
+        return cred;
+    }
+    
     // ========== GESTION DES COMMANDES ==========
     
+    private static final String ORDER_ITEM_INSERT_SQL =
+        "INSERT INTO order_items (order_id, menu_item_id, qty, unit_price) VALUES (?, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE qty = VALUES(qty), unit_price = VALUES(unit_price)";
+    
     /**
      * Classe pour stocker les données de commande
      */
@@ -182,49 +279,189 @@ public class DatabaseStorage {
     }
     
     /**
-     * Lire toutes les commandes depuis la base de données
+     * Lire toutes les commandes depuis la base de données.
+     * Charge tout l'historique en mémoire: préférer streamOrders() ou readOrderPage() pour un gros volume.
+     * @throws IllegalStateException si la lecture d'une page échoue (historique incomplet)
      */
     public static List<OrderData> readOrders() {
-        List<OrderData> orders = new ArrayList<>();
-        String sql = "SELECT order_id, client_name, items, status, timestamp FROM orders ORDER BY timestamp DESC";
+        return streamOrders(OrderQuery.all()).collect(Collectors.toList());
+    }
+    
+    /**
+     * Une page de résultats d'historique, et la position (timestamp, id) de sa dernière commande
+     * à partir de laquelle lire la page suivante (pagination par clé, sans OFFSET).
+     */
+    public static class OrderPage {
+        private final List<OrderData> orders;
+        private final boolean hasNext;
+        private final long lastTimestamp;
+        private final long lastId;
+        
+        OrderPage(List<OrderData> orders, boolean hasNext, long lastTimestamp, long lastId) {
+            this.orders = orders;
+            this.hasNext = hasNext;
+            this.lastTimestamp = lastTimestamp;
+            this.lastId = lastId;
+        }
+        
+        public List<OrderData> getOrders() {
+            return orders;
+        }
+        
+        /**
+         * Y a-t-il des commandes plus anciennes après cette page ?
+         */
+        public boolean hasNext() {
+            return hasNext;
+        }
+    }
+    
+    /**
+     * Lire une page d'historique, de la commande la plus récente à la plus ancienne.
+     * La page suivante reprend juste après la dernière commande de previous (timestamp, id):
+     * MySQL descend l'index sur timestamp depuis cette position au lieu de sauter OFFSET lignes,
+     * le coût d'une page ne dépend donc pas de sa profondeur dans l'historique.
+     * @param previous page précédente, ou null pour la première
+     * @throws IllegalStateException si la base est injoignable ou la requête échoue: une page vide
+     *         laisserait croire à la fin de l'historique
+     */
+    public static OrderPage readOrderPage(OrderQuery query, OrderPage previous) {
+        if (previous != null && !previous.hasNext()) {
+            return new OrderPage(new ArrayList<>(), false, 0, 0);
+        }
+        
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, order_id, client_name, items, status, timestamp FROM orders WHERE 1 = 1");
+        if (query.getStatus() != null) {
+            sql.append(" AND status = ?");
+        }
+        if (query.getClientName() != null) {
+            sql.append(" AND client_name = ?");
+        }
+        if (query.getFromTimestamp() != null) {
+            sql.append(" AND timestamp >= ?");
+        }
+        if (query.getToTimestamp() != null) {
+            sql.append(" AND timestamp < ?");
+        }
+        if (previous != null) {
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?))");
+        }
+        // Une ligne de plus que la page: indique s'il reste des commandes sans requête supplémentaire
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        int pageSize = query.getPageSize();
         
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString(),
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
             
-            while (rs.next()) {
-                OrderData order = new OrderData();
-                order.orderId = rs.getString("order_id");
-                order.clientName = rs.getString("client_name");
-                order.items = rs.getString("items");
-                order.status = rs.getString("status");
-                order.timestamp = rs.getLong("timestamp");
-                orders.add(order);
+            int i = 1;
+            if (query.getStatus() != null) {
+                pstmt.setString(i++, query.getStatus());
+            }
+            if (query.getClientName() != null) {
+                pstmt.setString(i++, query.getClientName());
+            }
+            if (query.getFromTimestamp() != null) {
+                pstmt.setLong(i++, query.getFromTimestamp());
+            }
+            if (query.getToTimestamp() != null) {
+                pstmt.setLong(i++, query.getToTimestamp());
+            }
+            if (previous != null) {
+                pstmt.setLong(i++, previous.lastTimestamp);
+                pstmt.setLong(i++, previous.lastTimestamp);
+                pstmt.setLong(i++, previous.lastId);
+            }
+            pstmt.setInt(i, pageSize + 1);
+            // Lecture par paquets (curseur serveur, voir useCursorFetch dans DatabaseConfig)
+            pstmt.setFetchSize(Math.min(pageSize + 1, 1000));
+            
+            List<OrderData> orders = new ArrayList<>(Math.min(pageSize, 1000));
+            long lastTimestamp = 0;
+            long lastId = 0;
+            boolean hasNext = false;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (orders.size() == pageSize) {
+                        hasNext = true;
+                        break;
+                    }
+                    OrderData order = new OrderData();
+                    order.orderId = rs.getString("order_id");
+                    order.clientName = rs.getString("client_name");
+                    order.items = rs.getString("items");
+                    order.status = rs.getString("status");
+                    order.timestamp = rs.getLong("timestamp");
+                    lastTimestamp = order.timestamp;
+                    lastId = rs.getLong("id");
+                    orders.add(order);
+                }
             }
+            return new OrderPage(orders, hasNext, lastTimestamp, lastId);
             
         } catch (SQLException e) {
-            System.err.println("Erreur lecture orders depuis MySQL: " + e.getMessage());
+            throw new IllegalStateException("Erreur lecture historique des commandes depuis MySQL: " + e.getMessage(), e);
         }
-        
-        return orders;
     }
     
     /**
-     * Ajouter une nouvelle commande
+     * Parcourir l'historique page par page, à la demande: une seule page est en mémoire à la fois
+     * et la connexion est rendue au pool entre deux pages (abandonner le Stream ne bloque rien).
+     * Une page illisible interrompt le parcours par une IllegalStateException (voir readOrderPage).
+     */
+    public static Stream<OrderData> streamOrders(OrderQuery query) {
+        Iterator<OrderData> iterator = new Iterator<OrderData>() {
+            private OrderPage page;
+            private int index;
+            
+            @Override
+            public boolean hasNext() {
+                while (page == null || index == page.getOrders().size()) {
+                    if (page != null && !page.hasNext()) {
+                        return false;
+                    }
+                    page = readOrderPage(query, page);
+                    index = 0;
+                }
+                return true;
+            }
+            
+            @Override
+            public OrderData next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.getOrders().get(index++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+            Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Ajouter une nouvelle commande (et ses plats dans order_items, même transaction)
      */
     public static boolean addOrder(OrderData order) {
         String sql = "INSERT INTO orders (order_id, client_name, items, status, timestamp) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, order.orderId);
-            pstmt.setString(2, order.clientName);
-            pstmt.setString(3, order.items);
-            pstmt.setString(4, order.status);
-            pstmt.setLong(5, order.timestamp);
-            
-            int rowsAffected = pstmt.executeUpdate();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            int rowsAffected;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, order.orderId);
+                pstmt.setString(2, order.clientName);
+                pstmt.setString(3, order.items);
+                pstmt.setString(4, order.status);
+                pstmt.setLong(5, order.timestamp);
+                rowsAffected = pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(ORDER_ITEM_INSERT_SQL)) {
+                if (addOrderItems(pstmt, order.orderId, order.items) > 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            conn.commit();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -254,6 +491,177 @@ public class DatabaseStorage {
         }
     }
     
+    /**
+     * Écrire un lot de commandes et de changements de statut en une seule transaction:
+     * un executeBatch() pour les insertions, un pour les mises à jour.
+     * Les insertions sont idempotentes (ON DUPLICATE KEY UPDATE) pour pouvoir rejouer un lot
+     * dont le commit n'a pas été confirmé. Contrairement aux autres méthodes, l'erreur est propagée
+     * pour que l'appelant (OrderWriteBehind) puisse réessayer.
+     */
+    static void writeOrderBatch(Collection<OrderData> inserts, Map<String, String> statusUpdates) throws SQLException {
+        String insertSql = "INSERT INTO orders (order_id, client_name, items, status, timestamp) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE status = VALUES(status)";
+        String updateSql = "UPDATE orders SET status = ? WHERE order_id = ?";
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            if (!inserts.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    for (OrderData order : inserts) {
+                        pstmt.setString(1, order.orderId);
+                        pstmt.setString(2, order.clientName);
+                        pstmt.setString(3, order.items);
+                        pstmt.setString(4, order.status);
+                        pstmt.setLong(5, order.timestamp);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                // Plats normalisés: tout le lot en un seul executeBatch()
+                try (PreparedStatement pstmt = conn.prepareStatement(ORDER_ITEM_INSERT_SQL)) {
+                    int rows = 0;
+                    for (OrderData order : inserts) {
+                        rows += addOrderItems(pstmt, order.orderId, order.items);
+                    }
+                    if (rows > 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+            }
+            if (!statusUpdates.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                    for (Map.Entry<String, String> e : statusUpdates.entrySet()) {
+                        pstmt.setString(1, e.getValue());
+                        pstmt.setString(2, e.getKey());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+            }
+            conn.commit();
+        }
+    }
+    
+    /**
+     * Ajoute au batch les lignes order_items d'une commande, un plat commandé plusieurs fois
+     * devenant une seule ligne avec sa quantité.
+     * @return nombre de lignes ajoutées au batch
+     */
+    private static int addOrderItems(PreparedStatement pstmt, String orderId, String items) throws SQLException {
+        Map<String, MenuItem> dishes = new LinkedHashMap<>();
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (MenuItem item : ItemsCodec.decode(items, null)) {
+            dishes.putIfAbsent(item.getId(), item);
+            quantities.merge(item.getId(), 1, Integer::sum);
+        }
+        for (MenuItem item : dishes.values()) {
+            pstmt.setString(1, orderId);
+            pstmt.setString(2, item.getId());
+            pstmt.setInt(3, quantities.get(item.getId()));
+            pstmt.setBigDecimal(4, BigDecimal.valueOf(item.getPrice()));
+            pstmt.addBatch();
+        }
+        return dishes.size();
+    }
+    
+    /**
+     * Migration: remplir order_items à partir de la colonne texte orders.items, pour les commandes
+     * qui n'y ont encore aucune ligne. Parcourt les commandes par id croissant, batchSize à la fois,
+     * une transaction par paquet: peut être interrompue et relancée.
+     * @return nombre de commandes migrées, -1 en cas d'erreur
+     */
+    public static int backfillOrderItems(int batchSize) {
+        String selectSql = "SELECT o.id, o.order_id, o.items FROM orders o "
+            + "LEFT JOIN order_items oi ON oi.order_id = o.order_id "
+            + "WHERE oi.order_id IS NULL AND o.id > ? ORDER BY o.id LIMIT ?";
+        int migrated = 0;
+        long lastId = 0;
+        
+        try (Connection conn = getConnection()) {
+            while (true) {
+                List<String[]> chunk = new ArrayList<>(batchSize);
+                try (PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+                    pstmt.setLong(1, lastId);
+                    pstmt.setInt(2, batchSize);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = rs.getLong("id");
+                            chunk.add(new String[]{rs.getString("order_id"), rs.getString("items")});
+                        }
+                    }
+                }
+                if (chunk.isEmpty()) {
+                    return migrated;
+                }
+                
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(ORDER_ITEM_INSERT_SQL)) {
+                    int rows = 0;
+                    for (String[] order : chunk) {
+                        rows += addOrderItems(pstmt, order[0], order[1]);
+                    }
+                    if (rows > 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                conn.setAutoCommit(true);
+                migrated += chunk.size();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur migration order_items: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Ventes d'un plat sur une période (agrégées par MySQL)
+     */
+    public static class DishStats {
+        public String menuItemId;
+        public long quantity;
+        public long orders;
+        public double revenue;
+        
+        public DishStats() {}
+    }
+    
+    /**
+     * Popularité et chiffre d'affaires par plat pour les commandes de [fromTimestamp, toTimestamp[,
+     * du plat le plus vendu au moins vendu. Le calcul est fait par MySQL sur order_items:
+     * seules les lignes de résultat (une par plat) transitent vers Java.
+     */
+    public static List<DishStats> readDishStats(long fromTimestamp, long toTimestamp) {
+        List<DishStats> stats = new ArrayList<>();
+        String sql = "SELECT oi.menu_item_id, SUM(oi.qty) AS quantity, COUNT(*) AS orders, "
+            + "SUM(oi.qty * oi.unit_price) AS revenue "
+            + "FROM order_items oi JOIN orders o ON o.order_id = oi.order_id "
+            + "WHERE o.timestamp >= ? AND o.timestamp < ? "
+            + "GROUP BY oi.menu_item_id ORDER BY quantity DESC";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, fromTimestamp);
+            pstmt.setLong(2, toTimestamp);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    DishStats dish = new DishStats();
+                    dish.menuItemId = rs.getString("menu_item_id");
+                    dish.quantity = rs.getLong("quantity");
+                    dish.orders = rs.getLong("orders");
+                    dish.revenue = rs.getDouble("revenue");
+                    stats.add(dish);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Erreur statistiques plats depuis MySQL: " + e.getMessage());
+        }
+        
+        return stats;
+    }
+    
     /**
      * Supprimer une commande
      */
@@ -282,15 +690,24 @@ public class DatabaseStorage {
             DatabaseMetaData meta = conn.getMetaData();
             
             // Vérifier si la table users existe
-            ResultSet rsUsers = meta.getTables(null, null, "users", new String[]{"TABLE"});
-            if (!rsUsers.next()) {
-                System.err.println("ATTENTION: La table 'users' n'existe pas. Veuillez exécuter schema.sql dans phpMyAdmin.");
+            try (ResultSet rsUsers = meta.getTables(null, null, "users", new String[]{"TABLE"})) {
+                if (!rsUsers.next()) {
+                    System.err.println("ATTENTION: La table 'users' n'existe pas. Veuillez exécuter schema.sql dans phpMyAdmin.");
+                }
             }
             
             // Vérifier si la table orders existe
-            ResultSet rsOrders = meta.getTables(null, null, "orders", new String[]{"TABLE"});
-            if (!rsOrders.next()) {
-                System.err.println("ATTENTION: La table 'orders' n'existe pas. Veuillez exécuter schema.sql dans phpMyAdmin.");
+            try (ResultSet rsOrders = meta.getTables(null, null, "orders", new String[]{"TABLE"})) {
+                if (!rsOrders.next()) {
+                    System.err.println("ATTENTION: La table 'orders' n'existe pas. Veuillez exécuter schema.sql dans phpMyAdmin.");
+                }
+            }
+            
+            // Vérifier si la table order_items existe (bases créées avant la migration 001)
+            try (ResultSet rsItems = meta.getTables(null, null, "order_items", new String[]{"TABLE"})) {
+                if (!rsItems.next()) {
+                    System.err.println("ATTENTION: La table 'order_items' n'existe pas. Veuillez exécuter migration_001_order_items.sql puis migrate-db.bat.");
+                }
             }
             
         } catch (SQLException e) {
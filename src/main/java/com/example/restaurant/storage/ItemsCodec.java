@@ -0,0 +1,65 @@
+package com.example.restaurant.storage;
+
+import com.example.restaurant.model.MenuItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Format texte des plats d'une commande, tel que stocké dans la colonne orders.items
+ * et le champ "items" de orders.json: "m1:12.5,m3:11.0" (id du plat : prix unitaire).
+ * Un plat commandé deux fois apparaît deux fois.
+ */
+public final class ItemsCodec {
+
+    private ItemsCodec() {}
+
+    public static String encode(List<MenuItem> items) {
+        StringBuilder sb = new StringBuilder(items.size() * 8);
+        for (MenuItem item : items) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(item.getId()).append(':').append(item.getPrice());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reconstruire les plats; menu permet de retrouver le MenuItem complet à partir de son id
+     * (peut renvoyer null, un MenuItem minimal est alors créé avec l'id et le prix enregistrés).
+     */
+    public static List<MenuItem> decode(String text, Function<String, MenuItem> menu) {
+        List<MenuItem> items = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return items;
+        }
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(',', start);
+            if (end == -1) {
+                end = text.length();
+            }
+            int colon = text.indexOf(':', start);
+            String id;
+            double price = 0;
+            if (colon != -1 && colon < end) {
+                id = text.substring(start, colon).trim();
+                try {
+                    price = Double.parseDouble(text.substring(colon + 1, end).trim());
+                } catch (NumberFormatException e) {
+                    // prix illisible: 0
+                }
+            } else {
+                id = text.substring(start, end).trim();
+            }
+            if (!id.isEmpty()) {
+                MenuItem item = menu != null ? menu.apply(id) : null;
+                items.add(item != null ? item : new MenuItem(id, id, price));
+            }
+            start = end + 1;
+        }
+        return items;
+    }
+}
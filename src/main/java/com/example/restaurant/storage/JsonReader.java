@@ -0,0 +1,496 @@
+package com.example.restaurant.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Lecteur JSON en flux (pull parser): une seule passe sur le Reader, jeton par jeton.
+ * Utilise:
+ * - un tampon char[] interne: pas besoin de BufferedReader, aucune lecture ligne par ligne
+ * - un tampon de travail réutilisé pour décoder les chaînes (échappements \n, \", \\uXXXX, ...)
+ * - un petit cache de noms de champs: "orderId" n'est alloué qu'une fois pour tout le fichier
+ * - une pile d'états pour valider la structure (virgules, deux-points, imbrication)
+ *
+ * La mise en forme est libre: espaces, retours à la ligne et objets sur plusieurs lignes sont acceptés.
+ * Les erreurs de syntaxe lèvent une IOException indiquant la position dans le flux.
+ */
+public class JsonReader implements Closeable {
+
+    /**
+     * Nature du prochain élément du flux
+     */
+    public enum Token {
+        BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // États de la pile
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private static final int NAME_CACHE_SIZE = 64;
+
+    private Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos = 0;
+    private int limit = 0;
+    private long consumed = 0; // caractères des tampons précédents, pour les messages d'erreur
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+    private Token peeked = null;
+
+    private char[] scratch = new char[64];
+    private int scratchLength = 0;
+    private final String[] nameCache = new String[NAME_CACHE_SIZE];
+
+    public JsonReader(Reader in) {
+        this.in = in;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Type du prochain élément, sans le consommer
+     */
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    /**
+     * Reste-t-il un élément dans le tableau ou l'objet courant ?
+     */
+    public boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_ARRAY && t != Token.END_OBJECT && t != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Nom du prochain champ; les noms déjà rencontrés ne sont pas réalloués
+     */
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        readStringBody();
+        return cachedName();
+    }
+
+    /**
+     * Valeur chaîne. Un nombre ou un booléen est aussi rendu sous forme de texte.
+     */
+    public String nextString() throws IOException {
+        Token t = peek();
+        peeked = null;
+        if (t == Token.STRING) {
+            readStringBody();
+        } else if (t == Token.NUMBER || t == Token.BOOLEAN) {
+            readLiteral();
+        } else {
+            throw syntaxError("chaîne attendue mais " + t + " trouvé");
+        }
+        return new String(scratch, 0, scratchLength);
+    }
+
+    /**
+     * Valeur entière. Une chaîne contenant un nombre ("1700000000000") est acceptée.
+     */
+    public long nextLong() throws IOException {
+        Token t = peek();
+        peeked = null;
+        if (t == Token.NUMBER) {
+            readLiteral();
+        } else if (t == Token.STRING) {
+            readStringBody();
+        } else {
+            throw syntaxError("nombre attendu mais " + t + " trouvé");
+        }
+        return parseLong();
+    }
+
+    public double nextDouble() throws IOException {
+        Token t = peek();
+        peeked = null;
+        if (t == Token.NUMBER) {
+            readLiteral();
+        } else if (t == Token.STRING) {
+            readStringBody();
+        } else {
+            throw syntaxError("nombre attendu mais " + t + " trouvé");
+        }
+        return nextDoubleFromScratch();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        readLiteral();
+        if (matchesScratch("true")) {
+            return true;
+        }
+        if (matchesScratch("false")) {
+            return false;
+        }
+        throw syntaxError("booléen invalide '" + new String(scratch, 0, scratchLength) + "'");
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        readLiteral();
+        if (!matchesScratch("null")) {
+            throw syntaxError("littéral invalide '" + new String(scratch, 0, scratchLength) + "'");
+        }
+    }
+
+    /**
+     * Ignorer la prochaine valeur, y compris un objet ou un tableau imbriqué
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token t = peek();
+            switch (t) {
+                case BEGIN_ARRAY: beginArray(); depth++; break;
+                case BEGIN_OBJECT: beginObject(); depth++; break;
+                case END_ARRAY: endArray(); depth--; break;
+                case END_OBJECT: endObject(); depth--; break;
+                case NAME: peeked = null; readStringBody(); break;
+                case STRING: peeked = null; readStringBody(); break;
+                case NUMBER:
+                case BOOLEAN:
+                case NULL: peeked = null; readLiteral(); break;
+                default: throw syntaxError("valeur attendue mais " + t + " trouvé");
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Recommencer un nouveau document sur in, en gardant les tampons et le cache de noms
+     * (lecture d'un enregistrement par ligne, voir JsonStorage)
+     */
+    void reset(Reader in) {
+        this.in = in;
+        pos = 0;
+        limit = 0;
+        consumed = 0;
+        stackSize = 0;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+        peeked = null;
+        scratchLength = 0;
+    }
+
+    // --- Analyse ---
+
+    private Token doPeek() throws IOException {
+        int state = stack[stackSize - 1];
+        int c;
+        switch (state) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                if (c == -1) {
+                    throw syntaxError("fin du flux inattendue");
+                }
+                pos--;
+                return peekValue();
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("',' ou ']' attendu");
+                }
+                return peekValue();
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                }
+                if (state == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("',' ou '}' attendu");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("nom de champ attendu");
+                }
+                stack[stackSize - 1] = DANGLING_NAME;
+                return Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("':' attendu");
+                }
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                return peekValue();
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                return peekValue();
+            default: // NONEMPTY_DOCUMENT
+                if (nextNonWhitespace() != -1) {
+                    throw syntaxError("contenu inattendu après la fin du document");
+                }
+                return Token.END_DOCUMENT;
+        }
+    }
+
+    private Token peekValue() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case '"': return Token.STRING;
+            case 't':
+            case 'f': pos--; return Token.BOOLEAN;
+            case 'n': pos--; return Token.NULL;
+            case -1: throw syntaxError("fin du flux inattendue");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+                throw syntaxError("caractère inattendu '" + (char) c + "'");
+        }
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token t = peek();
+        if (t != expected) {
+            throw syntaxError(expected + " attendu mais " + t + " trouvé");
+        }
+        peeked = null;
+    }
+
+    private void push(int state) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = state;
+    }
+
+    /**
+     * Décode une chaîne (guillemet ouvrant déjà consommé) dans le tampon de travail.
+     * Les portions sans échappement sont copiées d'un bloc.
+     */
+    private void readStringBody() throws IOException {
+        scratchLength = 0;
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"') {
+                    appendScratch(buffer, start, pos - start);
+                    pos++;
+                    return;
+                }
+                if (c == '\\') {
+                    appendScratch(buffer, start, pos - start);
+                    pos++;
+                    appendScratch(readEscape());
+                    start = pos;
+                    continue;
+                }
+                pos++;
+            }
+            appendScratch(buffer, start, pos - start);
+            if (!fill()) {
+                throw syntaxError("chaîne non terminée");
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int h = Character.digit(read(), 16);
+                    if (h < 0) {
+                        throw syntaxError("séquence \\u invalide");
+                    }
+                    value = (value << 4) | h;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("échappement invalide '\\" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Nombre, true, false ou null: lit jusqu'au prochain séparateur
+     */
+    private void readLiteral() throws IOException {
+        scratchLength = 0;
+        while (true) {
+            if (pos == limit && !fill()) {
+                return;
+            }
+            char c = buffer[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ':' || c == '"'
+                    || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                return;
+            }
+            appendScratch(c);
+            pos++;
+        }
+    }
+
+    private long parseLong() throws IOException {
+        int i = 0;
+        boolean negative = false;
+        if (scratchLength > 0 && scratch[0] == '-') {
+            negative = true;
+            i = 1;
+        }
+        if (i == scratchLength || scratchLength - i > 18) {
+            return (long) nextDoubleFromScratch();
+        }
+        long value = 0;
+        for (; i < scratchLength; i++) {
+            char c = scratch[i];
+            if (c < '0' || c > '9') {
+                return (long) nextDoubleFromScratch(); // 1.5, 1e3...
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private double nextDoubleFromScratch() throws IOException {
+        String text = new String(scratch, 0, scratchLength);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw syntaxError("nombre invalide '" + text + "'");
+        }
+    }
+
+    private String cachedName() {
+        int hash = 0;
+        for (int i = 0; i < scratchLength; i++) {
+            hash = 31 * hash + scratch[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        String cached = nameCache[slot];
+        if (cached != null && matchesScratch(cached)) {
+            return cached;
+        }
+        String name = new String(scratch, 0, scratchLength);
+        nameCache[slot] = name;
+        return name;
+    }
+
+    private boolean matchesScratch(String s) {
+        if (s.length() != scratchLength) {
+            return false;
+        }
+        for (int i = 0; i < scratchLength; i++) {
+            if (s.charAt(i) != scratch[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendScratch(char c) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratchLength * 2);
+        }
+        scratch[scratchLength++] = c;
+    }
+
+    private void appendScratch(char[] src, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (scratchLength + length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + length));
+        }
+        System.arraycopy(src, offset, scratch, scratchLength, length);
+        scratchLength += length;
+    }
+
+    // --- Tampon ---
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t' && c != '\uFEFF') {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("fin du flux inattendue");
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        while ((n = in.read(buffer, 0, buffer.length)) == 0) {
+            // Reader non bloquant: réessayer
+        }
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("JSON invalide à la position " + (consumed + pos) + ": " + message);
+    }
+}
@@ -3,9 +3,21 @@ package com.example.restaurant.storage;
 import com.example.restaurant.service.UserCredential;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Stockage des utilisateurs et des commandes dans des fichiers JSON.
+ * Utilise:
+ * - JsonReader: une seule passe sur le fichier, un JsonReader réutilisé d'une ligne à l'autre
+ * - JsonWriter: écriture directe dans un BufferedWriter, sans concaténation de chaînes
+ *
+ * Les fichiers sont lus et écrits en UTF-8. Les champs inconnus sont ignorés.
+ * Un tableau contient un objet par ligne (voir JsonWriter): à la lecture, chaque ligne est analysée seule,
+ * une ligne illisible est sautée et comptée sans perdre les suivantes.
+ */
 public class JsonStorage {
     
     /**
@@ -17,23 +29,11 @@ public class JsonStorage {
             return list;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty() || line.trim().equals("[") || line.trim().equals("]")) {
-                    continue;
-                }
-                
-                // Parse simple JSON manually
-                UserCredential cred = parseUserCredential(line);
-                if (cred != null) {
-                    list.add(cred);
-                }
+        forEachRecord(file, JsonStorage::readUserCredential, cred -> {
+            if (cred != null) {
+                list.add(cred);
             }
-        } catch (IOException e) {
-            System.err.println("Erreur lecture users.json: " + e.getMessage());
-        }
-        
+        });
         return list;
     }
     
@@ -41,23 +41,18 @@ public class JsonStorage {
      * Écrire les credentials dans le fichier JSON
      */
     public static void writeUserCredentials(File file, List<UserCredential> credentials) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-            writer.println("[");
-            for (int i = 0; i < credentials.size(); i++) {
-                UserCredential cred = credentials.get(i);
-                writer.print("  {");
-                writer.print("\"username\":\"" + escapeJson(cred.getUsername()) + "\",");
-                writer.print("\"password\":\"" + escapeJson(cred.getPassword()) + "\",");
-                writer.print("\"userType\":\"" + escapeJson(cred.getUserType()) + "\",");
-                writer.print("\"displayName\":\"" + escapeJson(cred.getDisplayName()) + "\",");
-                writer.print("\"userId\":\"" + escapeJson(cred.getUserId()) + "\"");
-                writer.print("}");
-                if (i < credentials.size() - 1) {
-                    writer.print(",");
-                }
-                writer.println();
+        try (JsonWriter writer = openWriter(file)) {
+            writer.beginArray();
+            for (UserCredential cred : credentials) {
+                writer.beginObject()
+                    .name("username").value(nonNull(cred.getUsername()))
+                    .name("password").value(nonNull(cred.getPassword()))
+                    .name("userType").value(nonNull(cred.getUserType()))
+                    .name("displayName").value(nonNull(cred.getDisplayName()))
+                    .name("userId").value(nonNull(cred.getUserId()))
+                    .endObject();
             }
-            writer.println("]");
+            writer.endArray();
         } catch (IOException e) {
             System.err.println("Erreur écriture users.json: " + e.getMessage());
         }
@@ -68,117 +63,199 @@ public class JsonStorage {
      */
     public static List<OrderData> readOrders(File file) {
         List<OrderData> list = new ArrayList<>();
+        forEachOrder(file, list::add);
+        return list;
+    }
+    
+    /**
+     * Parcourir les commandes du fichier une par une, sans les garder toutes en mémoire
+     * @return nombre de commandes lues
+     */
+    public static long forEachOrder(File file, Consumer<OrderData> consumer) {
         if (!file.exists()) {
-            return list;
+            return 0;
         }
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        long[] count = {0};
+        forEachRecord(file, JsonStorage::readOrder, order -> {
+            consumer.accept(order);
+            count[0]++;
+        });
+        return count[0];
+    }
+    
+    /**
+     * Écrire les commandes dans le fichier JSON
+     */
+    public static void writeOrders(File file, List<OrderData> orders) {
+        try (JsonWriter writer = openWriter(file)) {
+            writer.beginArray();
+            for (OrderData order : orders) {
+                writeOrder(writer, order);
+            }
+            writer.endArray();
+        } catch (IOException e) {
+            System.err.println("Erreur écriture orders.json: " + e.getMessage());
+        }
+    }
+    
+    // Méthodes utilitaires de parsing
+    
+    /**
+     * Lecture d'un enregistrement (objet JSON) par le JsonReader positionné dessus
+     */
+    private interface RecordReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+    
+    /**
+     * Parcourir un tableau JSON écrit un objet par ligne. Chaque ligne est un document à part, lu par le même
+     * JsonReader (tampons et cache de noms gardés): une erreur de syntaxe ou une valeur invalide
+     * ne fait perdre que sa ligne, signalée avec le nombre total de lignes ignorées.
+     * @return nombre de lignes ignorées
+     */
+    private static <T> long forEachRecord(File file, RecordReader<T> recordReader, Consumer<T> consumer) {
+        long skipped = 0;
+        long lineNumber = 0;
+        String firstError = null;
+        JsonReader reader = new JsonReader(Reader.nullReader());
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 64 * 1024)) {
             String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty() || line.trim().equals("[") || line.trim().equals("]")) {
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                String record = recordText(line);
+                if (record.isEmpty()) {
                     continue;
                 }
-                
-                OrderData order = parseOrder(line);
-                if (order != null) {
-                    list.add(order);
+                T value;
+                try {
+                    reader.reset(new StringReader(record));
+                    value = recordReader.read(reader);
+                    if (reader.peek() != JsonReader.Token.END_DOCUMENT) {
+                        throw new IOException("un seul objet attendu par ligne");
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (skipped++ == 0) {
+                        firstError = "ligne " + lineNumber + ": " + e.getMessage();
+                    }
+                    continue;
                 }
+                consumer.accept(value);
             }
         } catch (IOException e) {
-            System.err.println("Erreur lecture orders.json: " + e.getMessage());
+            System.err.println("Erreur lecture " + file.getName() + ": " + e.getMessage());
         }
-        
-        return list;
+        if (skipped > 0) {
+            System.err.println("⚠️ " + file.getName() + ": " + skipped + " enregistrement(s) illisible(s) ignoré(s) ("
+                + firstError + ")");
+        }
+        return skipped;
     }
     
     /**
-     * Écrire les commandes dans le fichier JSON
+     * Ligne sans l'ouverture/fermeture du tableau ni la virgule de séparation
      */
-    public static void writeOrders(File file, List<OrderData> orders) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-            writer.println("[");
-            for (int i = 0; i < orders.size(); i++) {
-                OrderData order = orders.get(i);
-                writer.print("  {");
-                writer.print("\"orderId\":\"" + escapeJson(order.orderId) + "\",");
-                writer.print("\"clientName\":\"" + escapeJson(order.clientName) + "\",");
-                writer.print("\"items\":\"" + escapeJson(order.items) + "\",");
-                writer.print("\"status\":\"" + escapeJson(order.status) + "\",");
-                writer.print("\"timestamp\":\"" + order.timestamp + "\"");
-                writer.print("}");
-                if (i < orders.size() - 1) {
-                    writer.print(",");
-                }
-                writer.println();
-            }
-            writer.println("]");
-        } catch (IOException e) {
-            System.err.println("Erreur écriture orders.json: " + e.getMessage());
+    private static String recordText(String line) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && (Character.isWhitespace(line.charAt(start)) || line.charAt(start) == '[')) {
+            start++;
         }
+        while (end > start && (Character.isWhitespace(line.charAt(end - 1)) || line.charAt(end - 1) == ']'
+                || line.charAt(end - 1) == ',')) {
+            end--;
+        }
+        return line.substring(start, end);
     }
     
-    // Méthodes utilitaires de parsing
+    private static JsonWriter openWriter(File file) throws IOException {
+        return new JsonWriter(new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 64 * 1024));
+    }
     
-    private static UserCredential parseUserCredential(String json) {
-        try {
-            UserCredential cred = new UserCredential();
-            
-            String username = extractValue(json, "username");
-            String password = extractValue(json, "password");
-            String userType = extractValue(json, "userType");
-            String displayName = extractValue(json, "displayName");
-            String userId = extractValue(json, "userId");
-            
-            if (username != null && userType != null) {
-                cred.setUsername(username);
-                cred.setPassword(password != null ? password : "");
-                cred.setUserType(userType);
-                cred.setDisplayName(displayName != null ? displayName : username);
-                cred.setUserId(userId != null ? userId : "");
-                return cred;
+    private static UserCredential readUserCredential(JsonReader reader) throws IOException {
+        String username = null;
+        String password = null;
+        String userType = null;
+        String displayName = null;
+        String userId = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "username": username = nextStringOrNull(reader); break;
+                case "password": password = nextStringOrNull(reader); break;
+                case "userType": userType = nextStringOrNull(reader); break;
+                case "displayName": displayName = nextStringOrNull(reader); break;
+                case "userId": userId = nextStringOrNull(reader); break;
+                default: reader.skipValue();
             }
-        } catch (Exception e) {
-            System.err.println("Erreur parsing credential: " + e.getMessage());
         }
-        return null;
-    }
-    
-    private static OrderData parseOrder(String json) {
-        try {
-            OrderData order = new OrderData();
-            
-            order.orderId = extractValue(json, "orderId");
-            order.clientName = extractValue(json, "clientName");
-            order.items = extractValue(json, "items");
-            order.status = extractValue(json, "status");
-            String timestamp = extractValue(json, "timestamp");
-            order.timestamp = timestamp != null ? Long.parseLong(timestamp) : 0;
-            
-            return order;
-        } catch (Exception e) {
-            System.err.println("Erreur parsing order: " + e.getMessage());
+        reader.endObject();
+        
+        if (username == null || userType == null) {
+            return null;
         }
-        return null;
+        UserCredential cred = new UserCredential();
+        cred.setUsername(username);
+        cred.setPassword(password != null ? password : "");
+        cred.setUserType(userType);
+        cred.setDisplayName(displayName != null ? displayName : username);
+        cred.setUserId(userId != null ? userId : "");
+        return cred;
+    }
+    
+    /**
+     * Une commande = un objet JSON (partagé avec le snapshot de OrderJournal)
+     */
+    static void writeOrder(JsonWriter writer, OrderData order) throws IOException {
+        writer.beginObject()
+            .name("orderId").value(nonNull(order.orderId))
+            .name("clientName").value(nonNull(order.clientName))
+            .name("items").value(nonNull(order.items))
+            .name("status").value(nonNull(order.status))
+            .name("timestamp").value(order.timestamp)
+            .endObject();
     }
     
-    private static String extractValue(String json, String key) {
-        String search = "\"" + key + "\":\"";
-        int start = json.indexOf(search);
-        if (start == -1) return null;
+    static OrderData readOrder(JsonReader reader) throws IOException {
+        OrderData order = new OrderData();
         
-        start += search.length();
-        int end = json.indexOf("\"", start);
-        if (end == -1) return null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "orderId": order.orderId = nextStringOrNull(reader); break;
+                case "clientName": order.clientName = nextStringOrNull(reader); break;
+                case "items": order.items = nextStringOrNull(reader); break;
+                case "status": order.status = nextStringOrNull(reader); break;
+                // Les anciens fichiers écrivaient le timestamp entre guillemets: nextLong() accepte les deux
+                case "timestamp": order.timestamp = nextLongOrZero(reader); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
         
-        return json.substring(start, end);
+        return order;
+    }
+    
+    static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+    
+    static long nextLongOrZero(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        return reader.nextLong();
     }
     
-    private static String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r");
+    private static String nonNull(String str) {
+        return str != null ? str : "";
     }
     
     /**
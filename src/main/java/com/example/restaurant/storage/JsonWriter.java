@@ -0,0 +1,230 @@
+package com.example.restaurant.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Écrivain JSON en flux: les jetons sont écrits directement dans le Writer, sans chaîne intermédiaire.
+ * Utilise:
+ * - une pile d'états pour placer virgules et deux-points
+ * - un échappement caractère par caractère: les portions sans caractère spécial sont écrites d'un bloc
+ *
+ * Mise en forme: chaque élément d'un tableau est écrit sur sa propre ligne, les objets restent sur une ligne.
+ * Un tableau d'objets donne donc un enregistrement par ligne, comme les fichiers users.json et orders.json.
+ */
+public class JsonWriter implements Closeable {
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+
+    /**
+     * @param out de préférence bufferisé (BufferedWriter): chaque jeton est une petite écriture
+     */
+    public JsonWriter(Writer out) {
+        this.out = out;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        out.write('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        int state = pop(EMPTY_ARRAY, NONEMPTY_ARRAY);
+        if (state == NONEMPTY_ARRAY) {
+            newline();
+        }
+        out.write(']');
+        return this;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        out.write('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        pop(EMPTY_OBJECT, NONEMPTY_OBJECT);
+        out.write('}');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        int state = stack[stackSize - 1];
+        if (state == NONEMPTY_OBJECT) {
+            out.write(',');
+        } else if (state != EMPTY_OBJECT) {
+            throw new IllegalStateException("Nom de champ hors d'un objet");
+        }
+        stack[stackSize - 1] = DANGLING_NAME;
+        writeString(name);
+        out.write(':');
+        return this;
+    }
+
+    /**
+     * Valeur chaîne (null écrit null)
+     */
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Nombre non représentable en JSON: " + value);
+        }
+        beforeValue();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Termine le document par un retour à la ligne et ferme le Writer
+     */
+    @Override
+    public void close() throws IOException {
+        if (stackSize != 1 || stack[0] != NONEMPTY_DOCUMENT) {
+            out.close();
+            throw new IOException("Document JSON incomplet");
+        }
+        out.write('\n');
+        out.close();
+    }
+
+    // --- Structure ---
+
+    private void beforeValue() throws IOException {
+        switch (stack[stackSize - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                newline();
+                break;
+            case NONEMPTY_ARRAY:
+                out.write(',');
+                newline();
+                break;
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("Un document JSON ne contient qu'une valeur racine");
+            default:
+                throw new IllegalStateException("Nom de champ attendu avant la valeur");
+        }
+    }
+
+    /**
+     * Retour à la ligne + indentation, seulement entre éléments de tableaux (pas à l'intérieur des objets)
+     */
+    private void newline() throws IOException {
+        for (int i = 1; i < stackSize; i++) {
+            int state = stack[i];
+            if (state != EMPTY_ARRAY && state != NONEMPTY_ARRAY) {
+                return;
+            }
+        }
+        out.write('\n');
+        for (int i = 1; i < stackSize; i++) {
+            out.write("  ");
+        }
+    }
+
+    private void push(int state) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = state;
+    }
+
+    private int pop(int empty, int nonEmpty) {
+        int state = stack[stackSize - 1];
+        if (state != empty && state != nonEmpty) {
+            throw new IllegalStateException("Imbrication JSON incorrecte");
+        }
+        return stack[--stackSize];
+    }
+
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            String replacement;
+            if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else if (c >= 0x20) {
+                continue;
+            } else if (c == '\n') {
+                replacement = "\\n";
+            } else if (c == '\r') {
+                replacement = "\\r";
+            } else if (c == '\t') {
+                replacement = "\\t";
+            } else {
+                replacement = null;
+            }
+            out.write(s, start, i - start);
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                out.write("\\u00");
+                out.write(HEX[c >> 4]);
+                out.write(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        out.write(s, start, length - start);
+        out.write('"');
+    }
+}
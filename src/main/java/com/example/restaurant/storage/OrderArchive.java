@@ -0,0 +1,455 @@
+package com.example.restaurant.storage;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.LifecycleEvent;
+import com.example.restaurant.service.LifecycleEventHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Archive binaire des commandes terminées, lue et écrite via FileChannel.map (fichiers mappés en mémoire).
+ * Utilise:
+ * - orders.archive: un enregistrement de taille fixe (48 octets) par commande, dans l'ordre d'archivage;
+ *   la commande n°i est à l'octet HEADER + i * 48: accès direct sans index ni parcours
+ * - orders.archive.items: les plats, 8 octets chacun (id du plat dans le dictionnaire, prix en centimes)
+ * - orders.archive.dict: dictionnaire des noms de clients et des ids de plats (chacun écrit une seule fois)
+ *
+ * Les commandes sont rangées par date d'archivage croissante: une plage de dates se trouve par
+ * recherche dichotomique, puis se parcourt séquentiellement. Seul le dictionnaire est chargé en mémoire;
+ * les enregistrements restent dans le cache de fichiers de l'OS, quel que soit l'historique.
+ *
+ * Le nombre d'enregistrements, en en-tête, n'est mis à jour qu'après l'écriture complète de l'enregistrement:
+ * un arrêt brutal du processus ne laisse jamais d'enregistrement à moitié écrit.
+ * Limite: 2 Go par fichier mappé (environ 44 millions de commandes).
+ */
+public class OrderArchive implements LifecycleEventHandler, AutoCloseable {
+    public static final String RECORDS_FILE = "orders.archive";
+    public static final String ITEMS_FILE = "orders.archive.items";
+    public static final String DICTIONARY_FILE = "orders.archive.dict";
+
+    static final int RECORD_SIZE = 48;
+    static final int ITEM_SIZE = 8;
+    static final int MAX_ORDER_ID_BYTES = 24;
+
+    // Champs d'un enregistrement
+    private static final int TIMESTAMP = 0;   // long
+    private static final int ITEMS_START = 8; // long: index du premier plat dans orders.archive.items
+    private static final int CLIENT = 16;     // int: id du nom de client dans le dictionnaire
+    private static final int ITEM_COUNT = 20; // short
+    private static final int STATUS = 22;     // byte: Order.Status.ordinal()
+    private static final int ID_LENGTH = 23;  // byte
+    private static final int ORDER_ID = 24;   // 24 octets UTF-8
+
+    private static final Order.Status[] STATUSES = Order.Status.values();
+
+    private final MappedFile records;
+    private final MappedFile items;
+    private final Dictionary dictionary;
+    private long lastTimestamp;
+
+    public OrderArchive(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        Path dir = directory.toPath();
+        this.records = new MappedFile(dir.resolve(RECORDS_FILE), 0x4F524441, RECORD_SIZE, 64 * 1024);
+        this.items = new MappedFile(dir.resolve(ITEMS_FILE), 0x4F524449, ITEM_SIZE, 256 * 1024);
+        this.dictionary = new Dictionary(dir.resolve(DICTIONARY_FILE));
+        long n = records.count();
+        this.lastTimestamp = n > 0 ? records.buffer().getLong(records.offset(n - 1) + TIMESTAMP) : 0;
+    }
+
+    // --- Écriture ---
+
+    /**
+     * Archive une commande au moment où elle devient prête
+     */
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        if (event.getType() == LifecycleEvent.Type.ORDER_READY) {
+            archive(event.getOrder(), event.getTimestamp());
+        }
+    }
+
+    private void archive(Order order, long timestamp) {
+        try {
+            append(order, timestamp);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Erreur archivage de la commande " + order.getId() + ": " + e.getMessage());
+        }
+    }
+
+    public long append(Order order, long timestamp) throws IOException {
+        return append(order.getId(), order.getClientName(), order.getItems(), order.getStatus(), timestamp);
+    }
+
+    /**
+     * Ajoute une commande à la fin de l'archive.
+     * Une date antérieure à la dernière archivée est ramenée à celle-ci, pour garder l'ordre chronologique.
+     * @return position de la commande dans l'archive
+     */
+    public synchronized long append(String orderId, String clientName, List<MenuItem> orderItems,
+                                    Order.Status status, long timestamp) throws IOException {
+        byte[] id = orderId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ORDER_ID_BYTES) {
+            throw new IllegalArgumentException("Id de commande trop long pour l'archive: " + orderId);
+        }
+        if (orderItems.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Trop de plats dans la commande " + orderId);
+        }
+
+        // Plats d'abord: ils ne sont visibles qu'une fois l'enregistrement publié
+        long firstItem = items.count();
+        ByteBuffer itemBuf = items.reserve(orderItems.size());
+        for (int i = 0; i < orderItems.size(); i++) {
+            MenuItem item = orderItems.get(i);
+            int at = items.offset(firstItem + i);
+            itemBuf.putInt(at, dictionary.idOf(item.getId()));
+            itemBuf.putInt(at + 4, (int) Math.round(item.getPrice() * 100));
+        }
+        items.publish(firstItem + orderItems.size());
+
+        long index = records.count();
+        ByteBuffer buf = records.reserve(1);
+        int at = records.offset(index);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+        buf.putLong(at + TIMESTAMP, lastTimestamp);
+        buf.putLong(at + ITEMS_START, firstItem);
+        buf.putInt(at + CLIENT, dictionary.idOf(clientName != null ? clientName : ""));
+        buf.putShort(at + ITEM_COUNT, (short) orderItems.size());
+        buf.put(at + STATUS, (byte) status.ordinal());
+        buf.put(at + ID_LENGTH, (byte) id.length);
+        for (int i = 0; i < id.length; i++) {
+            buf.put(at + ORDER_ID + i, id[i]);
+        }
+        records.publish(index + 1);
+        return index;
+    }
+
+    // --- Lecture ---
+
+    /**
+     * Nombre de commandes archivées
+     */
+    public long size() {
+        return records.count();
+    }
+
+    /**
+     * Commande n°index (0 = la plus ancienne)
+     */
+    public ArchivedOrder get(long index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Commande " + index + " hors de l'archive (" + size() + ")");
+        }
+        ArchivedOrder view = new ArchivedOrder();
+        view.moveTo(index);
+        return view;
+    }
+
+    /**
+     * Position de la première commande archivée à partir de timestamp (size() si aucune)
+     */
+    public long indexAtOrAfter(long timestamp) {
+        long high = records.count(); // lire le nombre avant le buffer: le remappage précède la publication
+        ByteBuffer buf = records.buffer();
+        long low = 0;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (buf.getLong(records.offset(mid) + TIMESTAMP) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Parcourt les commandes archivées dans [from, to[, de la plus ancienne à la plus récente.
+     * La même vue est réutilisée pour chaque commande: ne pas la conserver après l'appel (voir ArchivedOrder.copy()).
+     * @return nombre de commandes parcourues
+     */
+    public long scan(long from, long to, Consumer<ArchivedOrder> action) {
+        long end = indexAtOrAfter(to);
+        ArchivedOrder view = new ArchivedOrder();
+        long count = 0;
+        for (long i = indexAtOrAfter(from); i < end; i++) {
+            view.moveTo(i);
+            action.accept(view);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Écrit sur disque les pages modifiées et ferme les fichiers
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        records.close();
+        items.close();
+        dictionary.close();
+    }
+
+    /**
+     * Vue sur une commande archivée: les champs sont lus dans le fichier mappé à la demande,
+     * sans copie de la commande entière.
+     */
+    public final class ArchivedOrder {
+        private long index;
+        private ByteBuffer buf;
+        private int at;
+
+        private ArchivedOrder() {}
+
+        private void moveTo(long index) {
+            this.index = index;
+            this.buf = records.buffer();
+            this.at = records.offset(index);
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public long getTimestamp() {
+            return buf.getLong(at + TIMESTAMP);
+        }
+
+        public String getOrderId() {
+            byte[] id = new byte[buf.get(at + ID_LENGTH)];
+            for (int i = 0; i < id.length; i++) {
+                id[i] = buf.get(at + ORDER_ID + i);
+            }
+            return new String(id, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Nom du client (partagé via le dictionnaire: aucune allocation)
+         */
+        public String getClientName() {
+            return dictionary.valueOf(buf.getInt(at + CLIENT));
+        }
+
+        public Order.Status getStatus() {
+            return STATUSES[buf.get(at + STATUS)];
+        }
+
+        public int getItemCount() {
+            return buf.getShort(at + ITEM_COUNT);
+        }
+
+        public String getItemId(int i) {
+            return dictionary.valueOf(items.buffer().getInt(itemOffset(i)));
+        }
+
+        public double getItemPrice(int i) {
+            return items.buffer().getInt(itemOffset(i) + 4) / 100.0;
+        }
+
+        public double getTotal() {
+            ByteBuffer itemBuf = items.buffer();
+            long cents = 0;
+            for (int i = 0; i < getItemCount(); i++) {
+                cents += itemBuf.getInt(itemOffset(i) + 4);
+            }
+            return cents / 100.0;
+        }
+
+        private int itemOffset(int i) {
+            if (i < 0 || i >= getItemCount()) {
+                throw new IndexOutOfBoundsException("Plat " + i + " hors de la commande");
+            }
+            return items.offset(buf.getLong(at + ITEMS_START) + i);
+        }
+
+        /**
+         * Vue indépendante sur la même commande (à utiliser pour garder une commande reçue pendant scan())
+         */
+        public ArchivedOrder copy() {
+            return get(index);
+        }
+
+        /**
+         * Reconstruire la commande complète
+         * @param menu retrouve le MenuItem à partir de son id (peut renvoyer null, voir ItemsCodec.decode)
+         */
+        public Order toOrder(Function<String, MenuItem> menu) {
+            List<MenuItem> orderItems = new ArrayList<>(getItemCount());
+            for (int i = 0; i < getItemCount(); i++) {
+                String itemId = getItemId(i);
+                MenuItem item = menu != null ? menu.apply(itemId) : null;
+                orderItems.add(item != null ? item : new MenuItem(itemId, itemId, getItemPrice(i)));
+            }
+            Order order = new Order(getOrderId(), getClientName(), orderItems);
+            order.setStatus(getStatus());
+            return order;
+        }
+    }
+
+    /**
+     * Fichier d'éléments de taille fixe, mappé en mémoire et agrandi par paliers.
+     * En-tête de 16 octets: magic (int), taille d'un élément (int), nombre d'éléments publiés (long).
+     */
+    private static final class MappedFile {
+        private static final int HEADER_SIZE = 16;
+
+        private final FileChannel channel;
+        private final int elementSize;
+        private final int initialCapacity;
+        private volatile MappedByteBuffer buffer;
+        private volatile long count;
+
+        MappedFile(Path path, int magic, int elementSize, int initialCapacity) throws IOException {
+            this.elementSize = elementSize;
+            this.initialCapacity = initialCapacity;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            boolean created = channel.size() < HEADER_SIZE;
+            long capacity = created ? initialCapacity : (channel.size() - HEADER_SIZE) / elementSize;
+            map(Math.max(capacity, 1));
+            if (created) {
+                buffer.putInt(0, magic);
+                buffer.putInt(4, elementSize);
+                buffer.putLong(8, 0);
+            } else if (buffer.getInt(0) != magic || buffer.getInt(4) != elementSize) {
+                channel.close();
+                throw new IOException("Fichier d'archive invalide: " + path);
+            }
+            this.count = buffer.getLong(8);
+        }
+
+        long count() {
+            return count;
+        }
+
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        int offset(long index) {
+            return (int) (HEADER_SIZE + index * elementSize);
+        }
+
+        /**
+         * Garantit la place pour n éléments de plus (remappe le fichier si besoin)
+         */
+        ByteBuffer reserve(int n) throws IOException {
+            long needed = count + n;
+            long capacity = (buffer.capacity() - HEADER_SIZE) / elementSize;
+            if (needed > capacity) {
+                long grown = Math.max(needed, Math.max(capacity * 2, initialCapacity));
+                if (HEADER_SIZE + grown * elementSize > Integer.MAX_VALUE) {
+                    grown = (Integer.MAX_VALUE - HEADER_SIZE) / elementSize;
+                    if (needed > grown) {
+                        throw new IOException("Archive pleine (limite de 2 Go par fichier)");
+                    }
+                }
+                map(grown);
+            }
+            return buffer;
+        }
+
+        /**
+         * Rend visibles les éléments écrits jusqu'à newCount (exclu)
+         */
+        void publish(long newCount) {
+            buffer.putLong(8, newCount);
+            count = newCount; // écriture volatile: publie aussi le contenu des éléments
+        }
+
+        private void map(long capacity) throws IOException {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity * elementSize);
+        }
+
+        void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Dictionnaire de chaînes: chaque valeur distincte reçoit un id (0, 1, 2...) et n'est écrite qu'une fois
+     * dans le fichier, sous la forme [longueur (int)][octets UTF-8].
+     */
+    private static final class Dictionary {
+        private final FileChannel channel;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private volatile String[] values = new String[64];
+        private int size = 0;
+
+        Dictionary(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // lire tout le dictionnaire
+            }
+            data.flip();
+            long valid = 0;
+            while (data.remaining() >= 4) {
+                int length = data.getInt(data.position());
+                if (length < 0 || data.remaining() < 4 + length) {
+                    break; // entrée incomplète (arrêt pendant l'écriture)
+                }
+                data.getInt();
+                byte[] bytes = new byte[length];
+                data.get(bytes);
+                add(new String(bytes, StandardCharsets.UTF_8));
+                valid = data.position();
+            }
+            channel.truncate(valid);
+            channel.position(valid);
+        }
+
+        /**
+         * Id de la valeur, ajoutée au dictionnaire si elle est nouvelle (appelé sous le verrou de l'archive)
+         */
+        int idOf(String value) throws IOException {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer entry = ByteBuffer.allocate(4 + bytes.length);
+            entry.putInt(bytes.length).put(bytes).flip();
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            return add(value);
+        }
+
+        String valueOf(int id) {
+            return values[id];
+        }
+
+        private int add(String value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            ids.put(value, size);
+            return size++;
+        }
+
+        void close() throws IOException {
+            channel.force(true);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package com.example.restaurant.storage;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.LifecycleEvent;
+import com.example.restaurant.service.LifecycleEventHandler;
+import com.example.restaurant.storage.JsonStorage.OrderData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Journal des commandes en ajout seul, avec reprise après crash.
+ * Utilise:
+ * - un fichier journal (orders.journal): un événement JSON par ligne (création, changement de statut),
+ *   écrit en fin de fichier; le coût d'une écriture ne dépend pas du nombre de commandes déjà enregistrées
+ * - un thread écrivain qui regroupe les événements et fait un seul fsync (FileChannel.force) par groupe
+ * - un snapshot (orders.snapshot.json, format de JsonStorage): toutes les compactionThreshold écritures,
+ *   l'état complet y est réécrit (fichier temporaire + déplacement atomique) puis le journal est vidé
+ *
+ * À l'ouverture, l'état est reconstruit: snapshot puis rejeu du journal. Une dernière ligne incomplète
+ * ou illisible (crash pendant une écriture) est coupée; tout ce qui précède reste valide.
+ * Rejouer le journal sur un snapshot qui le contient déjà donne le même état (crash pendant une compaction).
+ *
+ * Les commandes du service sont gardées, y compris celles prêtes mais pas encore servies. Une commande READY
+ * créée depuis plus de readyRetentionMillis sort de l'état à la compaction suivante et à l'ouverture
+ * (l'historique des commandes terminées est dans l'OrderArchive): snapshot, reprise et mémoire restent
+ * proportionnels au service, pas à tout l'historique.
+ */
+public class OrderJournal implements LifecycleEventHandler, AutoCloseable {
+    public static final String SNAPSHOT_FILE = "orders.snapshot.json";
+    public static final String JOURNAL_FILE = "orders.journal";
+    /** Durée pendant laquelle une commande prête reste dans le journal: un service */
+    public static final long DEFAULT_READY_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+    private static final int SHUTDOWN_RETRIES = 3;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final FileChannel channel;
+    private final BlockingQueue<Event> buffer;
+    private final int groupSize;
+    private final long syncIntervalMillis;
+    private final int compactionThreshold;
+    private final long readyRetentionMillis;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+    private volatile boolean stopping = false;
+
+    // État courant, tenu par le thread écrivain (et par le constructeur pendant la reprise)
+    private final Map<String, OrderData> state = new LinkedHashMap<>();
+    private final List<OrderData> recovered;
+    private long eventsSinceSnapshot = 0;
+
+    // Suivi de durabilité pour sync()
+    private final Object enqueueLock = new Object();
+    private final Object durableLock = new Object();
+    private volatile long enqueuedSeq = 0; // écrit sous enqueueLock
+    private long durableSeq = 0;           // protégé par durableLock
+
+    // Statistiques
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private long truncatedBytes = 0;
+
+    /**
+     * Événement à journaliser: une création (created != null) ou un changement de statut
+     */
+    private static final class Event {
+        final String orderId;
+        final OrderData created;
+        final String status;
+        final long timestamp;
+        long seq;
+
+        Event(String orderId, OrderData created, String status, long timestamp) {
+            this.orderId = orderId;
+            this.created = created;
+            this.status = status;
+            this.timestamp = timestamp;
+        }
+    }
+
+    public OrderJournal(File directory) throws IOException {
+        this(directory, 10_000, 1_000, 20, 50_000);
+    }
+
+    /**
+     * @param capacity taille du tampon entre les services et le thread écrivain (put() bloque s'il est plein)
+     * @param groupSize nombre maximum d'événements écrits par fsync
+     * @param syncIntervalMillis intervalle minimum entre deux fsync: les événements arrivés entre-temps partent ensemble
+     * @param compactionThreshold nombre d'événements journalisés avant réécriture du snapshot
+     */
+    public OrderJournal(File directory, int capacity, int groupSize, long syncIntervalMillis,
+                        int compactionThreshold) throws IOException {
+        this(directory, capacity, groupSize, syncIntervalMillis, compactionThreshold, DEFAULT_READY_RETENTION_MILLIS);
+    }
+
+    /**
+     * @param readyRetentionMillis âge (depuis la création) au-delà duquel une commande READY n'est plus gardée
+     */
+    public OrderJournal(File directory, int capacity, int groupSize, long syncIntervalMillis,
+                        int compactionThreshold, long readyRetentionMillis) throws IOException {
+        Files.createDirectories(directory.toPath());
+        this.snapshotPath = directory.toPath().resolve(SNAPSHOT_FILE);
+        this.journalPath = directory.toPath().resolve(JOURNAL_FILE);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.groupSize = groupSize;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.compactionThreshold = compactionThreshold;
+        this.readyRetentionMillis = readyRetentionMillis;
+
+        loadSnapshot();
+        long validLength = replayJournal();
+        pruneFinished(System.currentTimeMillis());
+        this.channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            truncatedBytes = channel.size() - validLength;
+            channel.truncate(validLength);
+            channel.force(true);
+            System.err.println("⚠️ Journal des commandes: fin incomplète ignorée (" + truncatedBytes + " octets)");
+        }
+        channel.position(validLength);
+        this.recovered = new ArrayList<>(state.values());
+
+        this.writer = new Thread(this::run, "Order-Journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // --- Reprise ---
+
+    private void loadSnapshot() {
+        if (Files.exists(snapshotPath)) {
+            JsonStorage.forEachOrder(snapshotPath.toFile(), o -> state.put(o.orderId, o));
+        }
+    }
+
+    /**
+     * Rejoue les lignes complètes et valides du journal
+     * @return longueur (octets) de la partie valide
+     */
+    private long replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        long valid = 0;
+        long offset = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(journalPath), 64 * 1024)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                if (line.size() > 0 && !applyLine(new String(line.toByteArray(), StandardCharsets.UTF_8))) {
+                    return valid; // ligne abîmée: la suite n'est plus fiable
+                }
+                line.reset();
+                valid = offset;
+            }
+        }
+        return valid; // une éventuelle ligne sans '\n' final est incomplète
+    }
+
+    private boolean applyLine(String text) {
+        try (JsonReader reader = new JsonReader(new StringReader(text))) {
+            String type = null;
+            OrderData data = new OrderData();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "e": type = reader.nextString(); break;
+                    case "orderId": data.orderId = JsonStorage.nextStringOrNull(reader); break;
+                    case "clientName": data.clientName = JsonStorage.nextStringOrNull(reader); break;
+                    case "items": data.items = JsonStorage.nextStringOrNull(reader); break;
+                    case "status": data.status = JsonStorage.nextStringOrNull(reader); break;
+                    case "timestamp": data.timestamp = JsonStorage.nextLongOrZero(reader); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+            reader.peek(); // vérifie qu'il ne reste rien après l'objet
+            if (data.orderId == null) {
+                return false;
+            }
+            if ("C".equals(type)) {
+                state.put(data.orderId, data);
+            } else if ("S".equals(type)) {
+                updateStatus(data.orderId, data.status);
+            } else {
+                return false;
+            }
+            eventsSinceSnapshot++;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Commandes du service reconstruites à l'ouverture (en cours et prêtes), dans l'ordre de création
+     * @param menu retrouve le MenuItem complet à partir de son id (voir ItemsCodec.decode)
+     */
+    public List<Order> getRecoveredOrders(Function<String, MenuItem> menu) {
+        List<Order> orders = new ArrayList<>(recovered.size());
+        for (OrderData data : recovered) {
+            Order order = new Order(data.orderId, data.clientName, ItemsCodec.decode(data.items, menu));
+            try {
+                order.setStatus(Order.Status.valueOf(data.status));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                // statut inconnu: la commande repart comme reçue
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // --- Écriture ---
+
+    /**
+     * Journalisation de la création et des changements de statut (statut et heure lus dans l'événement)
+     */
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        switch (event.getType()) {
+            case ORDER_CREATED:
+                created(event.getOrder(), event.getStatus(), event.getTimestamp());
+                break;
+            case ORDER_QUEUED:
+            case ORDER_READY:
+                enqueue(new Event(event.getOrder().getId(), null, event.getStatus().name(), event.getTimestamp()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void created(Order order, Order.Status status, long timestamp) {
+        OrderData data = new OrderData();
+        data.orderId = order.getId();
+        data.clientName = order.getClientName();
+        data.items = ItemsCodec.encode(order.getItems());
+        data.status = status.name();
+        data.timestamp = timestamp;
+        enqueue(new Event(order.getId(), data, null, timestamp));
+    }
+
+    private void enqueue(Event event) {
+        if (!accepting) {
+            throw new IllegalStateException("OrderJournal est fermé");
+        }
+        try {
+            // Numéroter et enfiler sous le même verrou: l'ordre du journal suit l'ordre des numéros
+            synchronized (enqueueLock) {
+                event.seq = enqueuedSeq + 1;
+                buffer.put(event);
+                enqueuedSeq = event.seq;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu en attendant de la place dans le journal", e);
+        }
+    }
+
+    /**
+     * Attendre que les événements reçus jusqu'ici soient sur disque (fsync fait)
+     * @return false si le délai est écoulé avant
+     */
+    public boolean sync(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long target = enqueuedSeq;
+        synchronized (durableLock) {
+            while (durableSeq < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                durableLock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    private void run() {
+        List<Event> group = new ArrayList<>(groupSize);
+        long lastSync = 0;
+        while (true) {
+            try {
+                Event first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopping && buffer.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                group.add(first);
+                // Pas plus d'un fsync par intervalle: ce qui arrive pendant l'attente part dans le même groupe
+                long wait = lastSync + syncIntervalMillis - System.currentTimeMillis();
+                if (wait > 0 && !stopping) {
+                    Thread.sleep(wait);
+                }
+                buffer.drainTo(group, groupSize - group.size());
+                write(group);
+                lastSync = System.currentTimeMillis();
+                group.clear();
+                if (eventsSinceSnapshot >= compactionThreshold) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+        }
+    }
+
+    /**
+     * Ajoute un groupe en fin de journal et le force sur disque; réessaie avec un délai croissant
+     */
+    private void write(List<Event> group) {
+        ByteBuffer bytes = ByteBuffer.wrap(encode(group).getBytes(StandardCharsets.UTF_8));
+        long start = -1;
+        long delay = 100;
+        int attempts = 0;
+        while (true) {
+            try {
+                if (start < 0) {
+                    start = channel.position();
+                } else {
+                    channel.position(start); // écraser un éventuel début d'écriture ratée
+                }
+                bytes.rewind();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+                break;
+            } catch (IOException e) {
+                failures.increment();
+                attempts++;
+                if (attempts == 1) {
+                    System.err.println("Erreur écriture du journal des commandes (nouvel essai): " + e.getMessage());
+                }
+                if (stopping && attempts >= SHUTDOWN_RETRIES) {
+                    lost.add(group.size());
+                    System.err.println("❌ " + group.size() + " événement(s) non journalisé(s) à l'arrêt: " + e.getMessage());
+                    return;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    stopping = true;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+
+        for (Event event : group) {
+            apply(event);
+        }
+        eventsSinceSnapshot += group.size();
+        appended.add(group.size());
+        syncs.increment();
+        synchronized (durableLock) {
+            durableSeq = group.get(group.size() - 1).seq;
+            durableLock.notifyAll();
+        }
+    }
+
+    private void apply(Event event) {
+        if (event.created != null) {
+            state.put(event.orderId, copy(event.created));
+        } else {
+            updateStatus(event.orderId, event.status);
+        }
+    }
+
+    private void updateStatus(String orderId, String status) {
+        OrderData existing = state.get(orderId);
+        if (existing != null) {
+            existing.status = status;
+        }
+    }
+
+    /**
+     * Retire de l'état les commandes READY créées avant la limite de rétention (snapshot d'avant
+     * l'élagage compris: il contient tout l'historique)
+     */
+    private void pruneFinished(long now) {
+        long limit = now - readyRetentionMillis;
+        state.values().removeIf(o -> isFinished(o.status) && o.timestamp < limit);
+    }
+
+    private static boolean isFinished(String status) {
+        return Order.Status.READY.name().equals(status);
+    }
+
+    private static String encode(List<Event> group) {
+        StringWriter out = new StringWriter(group.size() * 128);
+        try {
+            for (Event event : group) {
+                JsonWriter json = new JsonWriter(out);
+                json.beginObject();
+                if (event.created != null) {
+                    json.name("e").value("C")
+                        .name("orderId").value(event.orderId)
+                        .name("clientName").value(event.created.clientName)
+                        .name("items").value(event.created.items)
+                        .name("status").value(event.created.status);
+                } else {
+                    json.name("e").value("S")
+                        .name("orderId").value(event.orderId)
+                        .name("status").value(event.status);
+                }
+                json.name("timestamp").value(event.timestamp).endObject();
+                json.close(); // ajoute le '\n' de fin de ligne (StringWriter.close() ne fait rien)
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // impossible avec un StringWriter
+        }
+        return out.toString();
+    }
+
+    private static OrderData copy(OrderData source) {
+        OrderData data = new OrderData();
+        data.orderId = source.orderId;
+        data.clientName = source.clientName;
+        data.items = source.items;
+        data.status = source.status;
+        data.timestamp = source.timestamp;
+        return data;
+    }
+
+    // --- Compaction ---
+
+    /**
+     * Réécrit le snapshot avec l'état courant puis vide le journal.
+     * Coût O(nombre de commandes), mais seulement toutes les compactionThreshold écritures.
+     */
+    private void compact() {
+        pruneFinished(System.currentTimeMillis());
+        Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                JsonWriter json = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(out), StandardCharsets.UTF_8), 64 * 1024));
+                json.beginArray();
+                for (OrderData order : state.values()) {
+                    JsonStorage.writeOrder(json, order);
+                }
+                json.endArray();
+                json.flush();
+                out.force(true);
+            }
+            try {
+                Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Crash ici: le journal est rejoué sur un snapshot qui le contient déjà, sans effet
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            eventsSinceSnapshot = 0;
+            compactions.increment();
+        } catch (IOException e) {
+            failures.increment();
+            System.err.println("Erreur compaction du journal des commandes (nouvel essai plus tard): " + e.getMessage());
+            eventsSinceSnapshot = compactionThreshold / 2; // ne pas réessayer à chaque groupe
+        }
+    }
+
+    /**
+     * Arrêt propre: refuse les nouveaux événements, écrit ceux en attente puis compacte le journal.
+     */
+    @Override
+    public void close() {
+        accepting = false;
+        stopping = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Event> rest = new ArrayList<>();
+        while (buffer.drainTo(rest, groupSize) > 0) {
+            write(rest);
+            rest.clear();
+        }
+        if (eventsSinceSnapshot > 0) {
+            compact();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erreur fermeture du journal des commandes: " + e.getMessage());
+        }
+    }
+
+    public int getPendingCount() { return buffer.size(); }
+    public long getAppendedCount() { return appended.sum(); }
+    /** Nombre de fsync du journal (un par groupe) */
+    public long getSyncCount() { return syncs.sum(); }
+    public long getCompactionCount() { return compactions.sum(); }
+    public long getFailureCount() { return failures.sum(); }
+    public long getLostCount() { return lost.sum(); }
+    /** Octets coupés en fin de journal à l'ouverture (écriture interrompue par un crash) */
+    public long getTruncatedBytes() { return truncatedBytes; }
+
+    @Override
+    public String toString() {
+        return String.format("Journal[en attente=%d, écrits=%d, fsync=%d, compactions=%d, échecs=%d, perdus=%d]",
+            getPendingCount(), getAppendedCount(), getSyncCount(), getCompactionCount(), getFailureCount(), getLostCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.restaurant.storage;
+
+/**
+ * Critères de recherche dans l'historique des commandes MySQL (voir DatabaseStorage.readOrderPage / streamOrders).
+ * Les résultats sont toujours triés de la plus récente à la plus ancienne.
+ */
+public class OrderQuery {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 10_000;
+
+    private final String status;
+    private final String clientName;
+    private final Long fromTimestamp;
+    private final Long toTimestamp;
+    private final int pageSize;
+
+    private OrderQuery(Builder builder) {
+        this.status = builder.status;
+        this.clientName = builder.clientName;
+        this.fromTimestamp = builder.fromTimestamp;
+        this.toTimestamp = builder.toTimestamp;
+        this.pageSize = builder.pageSize;
+    }
+
+    /**
+     * Toutes les commandes, par pages de taille par défaut
+     */
+    public static OrderQuery all() {
+        return new Builder().build();
+    }
+
+    /** Statut exact recherché, ou null pour tous */
+    public String getStatus() { return status; }
+    /** Nom de client exact recherché, ou null pour tous */
+    public String getClientName() { return clientName; }
+    /** Borne inférieure incluse (ms), ou null */
+    public Long getFromTimestamp() { return fromTimestamp; }
+    /** Borne supérieure exclue (ms), ou null */
+    public Long getToTimestamp() { return toTimestamp; }
+    public int getPageSize() { return pageSize; }
+
+    public static class Builder {
+        private String status;
+        private String clientName;
+        private Long fromTimestamp;
+        private Long toTimestamp;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder clientName(String clientName) {
+            this.clientName = clientName;
+            return this;
+        }
+
+        /**
+         * Commandes de [fromTimestamp, toTimestamp[
+         */
+        public Builder between(long fromTimestamp, long toTimestamp) {
+            this.fromTimestamp = fromTimestamp;
+            this.toTimestamp = toTimestamp;
+            return this;
+        }
+
+        public Builder pageSize(int pageSize) {
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Taille de page entre 1 et " + MAX_PAGE_SIZE);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public OrderQuery build() {
+            return new OrderQuery(this);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.restaurant.storage;
+
+import com.example.restaurant.model.Order;
+import com.example.restaurant.service.LifecycleEvent;
+import com.example.restaurant.service.LifecycleEventHandler;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persistance asynchrone (write-behind) des commandes vers MySQL.
+ * Utilise:
+ * - BlockingQueue bornée: tampon entre les services et la base; quand il est plein, l'écriture attend
+ *   au plus ENQUEUE_TIMEOUT_MILLIS puis est abandonnée (compteur getLostCount)
+ * - Thread écrivain: regroupe les écritures et les envoie par lots JDBC (addBatch/executeBatch)
+ * - Un lot part dès qu'il atteint batchSize ou que flushIntervalMillis est écoulé depuis sa première écriture
+ * - Un lot refusé est réessayé MAX_RETRIES fois (délai croissant), puis abandonné
+ *
+ * Dans un même lot, les changements de statut d'une commande sont fusionnés: seul le dernier est écrit,
+ * et s'il suit l'insertion de la commande, il est directement porté par l'INSERT.
+ *
+ * Une base injoignable ne bloque donc jamais durablement l'appelant (consommateur du bus, cuisinier):
+ * les commandes continuent, seules leurs écritures MySQL sont perdues et comptées.
+ */
+public class OrderWriteBehind implements LifecycleEventHandler, AutoCloseable {
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+    private static final int MAX_RETRIES = 5;
+    private static final int SHUTDOWN_RETRIES = 3;
+    private static final long ENQUEUE_TIMEOUT_MILLIS = 50;
+
+    private final BlockingQueue<PendingWrite> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+    private volatile boolean stopping = false;
+    private volatile boolean saturated = false; // tampon plein signalé une fois, jusqu'à la prochaine place libre
+
+    // Statistiques
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    /**
+     * Écriture en attente: une insertion (insert != null) ou un changement de statut
+     */
+    private static final class PendingWrite {
+        final String orderId;
+        final DatabaseStorage.OrderData insert;
+        final String status;
+
+        PendingWrite(String orderId, DatabaseStorage.OrderData insert, String status) {
+            this.orderId = orderId;
+            this.insert = insert;
+            this.status = status;
+        }
+    }
+
+    public OrderWriteBehind() {
+        this(10_000, 200, 200);
+    }
+
+    public OrderWriteBehind(int capacity, int batchSize, long flushIntervalMillis) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.writer = new Thread(this::run, "Order-WriteBehind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Persistance de la création et des changements de statut (statut et heure lus dans l'événement)
+     */
+    @Override
+    public void onEvent(LifecycleEvent event) {
+        switch (event.getType()) {
+            case ORDER_CREATED:
+                created(event.getOrder(), event.getStatus(), event.getTimestamp());
+                break;
+            case ORDER_QUEUED:
+            case ORDER_READY:
+                enqueue(new PendingWrite(event.getOrder().getId(), null, event.getStatus().name()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void created(Order order, Order.Status status, long timestamp) {
+        DatabaseStorage.OrderData data = new DatabaseStorage.OrderData();
+        data.orderId = order.getId();
+        data.clientName = order.getClientName();
+        data.items = ItemsCodec.encode(order.getItems());
+        data.status = status.name();
+        data.timestamp = timestamp;
+        enqueue(new PendingWrite(order.getId(), data, null));
+    }
+
+    /**
+     * Ajoute une écriture au tampon; si le tampon reste plein ENQUEUE_TIMEOUT_MILLIS, l'écriture est perdue.
+     * Une fois enfilée, l'écriture est garantie d'être tentée avant la fin de close().
+     */
+    private void enqueue(PendingWrite w) {
+        if (!accepting) {
+            throw new IllegalStateException("OrderWriteBehind est arrêté");
+        }
+        try {
+            // Tampon déjà signalé plein: ne plus attendre à chaque écriture, la base ne répond pas
+            if (buffer.offer(w, saturated ? 0 : ENQUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                saturated = false;
+                return;
+            }
+            lost.increment();
+            if (!saturated) {
+                saturated = true;
+                System.err.println("❌ Tampon d'écriture MySQL plein (" + buffer.remainingCapacity() + " place(s) libre(s)): "
+                    + "écritures de commandes perdues jusqu'à ce que la base réponde");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu en attendant de la place dans le tampon d'écriture", e);
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                // Attente courte pour remarquer rapidement une demande d'arrêt
+                PendingWrite first = buffer.poll(Math.min(flushIntervalMillis, 100), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopping && buffer.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < batchSize && !stopping) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = buffer.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (stopping) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // on continue à vider le tampon avant de sortir
+                stopping = true;
+            }
+        }
+    }
+
+    /**
+     * Envoie un lot; réessaie avec un délai croissant, MAX_RETRIES fois (SHUTDOWN_RETRIES à l'arrêt),
+     * puis l'abandonne: le tampon continue à se vider même si la base reste injoignable.
+     */
+    private void flush(List<PendingWrite> batch) {
+        Map<String, DatabaseStorage.OrderData> inserts = new LinkedHashMap<>();
+        Map<String, String> updates = new LinkedHashMap<>();
+        for (PendingWrite w : batch) {
+            if (w.insert != null) {
+                inserts.put(w.orderId, w.insert);
+            } else {
+                DatabaseStorage.OrderData pendingInsert = inserts.get(w.orderId);
+                if (pendingInsert != null) {
+                    pendingInsert.status = w.status;
+                } else {
+                    updates.put(w.orderId, w.status);
+                }
+            }
+        }
+
+        long delay = 100;
+        int attempts = 0;
+        while (true) {
+            try {
+                DatabaseStorage.writeOrderBatch(inserts.values(), updates);
+                written.add(batch.size());
+                batches.increment();
+                return;
+            } catch (SQLException e) {
+                failures.increment();
+                attempts++;
+                if (attempts == 1) {
+                    System.err.println("Erreur écriture lot de commandes dans MySQL (" + batch.size()
+                        + " écritures, nouvel essai): " + e.getMessage());
+                }
+                if (attempts >= (stopping ? SHUTDOWN_RETRIES : MAX_RETRIES)) {
+                    lost.add(batch.size());
+                    System.err.println("❌ " + batch.size() + " écriture(s) de commandes abandonnée(s) après "
+                        + attempts + " essai(s)" + (stopping ? " à l'arrêt" : "") + ": " + e.getMessage());
+                    return;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    stopping = true;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Arrêt propre: refuse les nouvelles écritures, vide le tampon puis attend le dernier lot.
+     */
+    @Override
+    public void close() {
+        accepting = false;
+        stopping = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Écritures enfilées pendant l'arrêt du thread écrivain
+        List<PendingWrite> rest = new ArrayList<>();
+        while (buffer.drainTo(rest, batchSize) > 0) {
+            flush(rest);
+            rest.clear();
+        }
+    }
+
+    public int getPendingCount() { return buffer.size(); }
+    public long getEnqueuedCount() { return enqueued.sum(); }
+    public long getWrittenCount() { return written.sum(); }
+    /** Nombre d'allers-retours (transactions) vers la base */
+    public long getBatchCount() { return batches.sum(); }
+    public long getFailureCount() { return failures.sum(); }
+    public long getLostCount() { return lost.sum(); }
+
+    @Override
+    public String toString() {
+        return String.format("WriteBehind[en attente=%d, reçues=%d, écrites=%d, lots=%d, échecs=%d, perdues=%d]",
+            getPendingCount(), getEnqueuedCount(), getWrittenCount(), getBatchCount(), getFailureCount(), getLostCount());
+    }
+}